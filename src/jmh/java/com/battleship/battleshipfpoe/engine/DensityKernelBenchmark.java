@@ -0,0 +1,91 @@
+package com.battleship.battleshipfpoe.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and the vectorized {@link DensityKernel} on square boards of 10, 100 and 1000
+ * cells per side. Every invocation accumulates the density of the standard fleet on a board where
+ * one cell in five is blocked. Run it with {@code mvn -P jmh test-compile exec:exec}.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", DensityKernel.VECTOR_MODULE})
+public class DensityKernelBenchmark {
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    @Param({"scalar", "vector"})
+    public String kernel;
+
+    private DensityKernel densityKernel;
+    private int[] free;
+    private int[] density;
+    private int[] lengthCounts;
+
+    /**
+     * Builds the board and the kernel of the parameters.
+     *
+     * @since 1.0
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("vector".equals(kernel) && !DensityKernel.isVectorAvailable()) {
+            throw new IllegalStateException("El módulo " + DensityKernel.VECTOR_MODULE + " no está disponible.");
+        }
+        densityKernel = "vector".equals(kernel) ? DensityKernel.create(size, size) : DensityKernel.scalar(size, size);
+        SplittableRandom random = new SplittableRandom(1);
+        free = new int[size * size];
+        for (int i = 0; i < free.length; i++) {
+            free[i] = random.nextInt(5) == 0 ? 0 : 1;
+        }
+        density = new int[size * size];
+        lengthCounts = new int[GameSpec.STANDARD.getMaxShipLength() + 1];
+        for (int length : GameSpec.STANDARD.getShipLengths()) {
+            lengthCounts[length]++;
+        }
+    }
+
+    /**
+     * Accumulates the density of the standard fleet.
+     *
+     * @return the density plane, so the work is not eliminated.
+     * @since 1.0
+     */
+    @Benchmark
+    public int[] accumulateFleet() {
+        Arrays.fill(density, 0);
+        for (int length = 1; length < lengthCounts.length; length++) {
+            if (lengthCounts[length] > 0) {
+                densityKernel.accumulate(free, length, lengthCounts[length], density);
+            }
+        }
+        return density;
+    }
+}
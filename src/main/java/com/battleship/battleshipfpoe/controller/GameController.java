@@ -1,7 +1,21 @@
 package com.battleship.battleshipfpoe.controller;
 
+import com.battleship.battleshipfpoe.engine.Difficulty;
+import com.battleship.battleshipfpoe.engine.GameEngine;
+import com.battleship.battleshipfpoe.engine.GameEventListener;
+import com.battleship.battleshipfpoe.engine.GameSpec;
+import com.battleship.battleshipfpoe.engine.LayoutOptimizer;
+import com.battleship.battleshipfpoe.engine.PlacementHistory;
+import com.battleship.battleshipfpoe.engine.SalvoResult;
+import com.battleship.battleshipfpoe.engine.ShipPlacement;
+import com.battleship.battleshipfpoe.engine.ShotOutcome;
+import com.battleship.battleshipfpoe.engine.Side;
+import com.battleship.battleshipfpoe.engine.WinEstimator;
 import com.battleship.battleshipfpoe.model.*;
 import com.battleship.battleshipfpoe.view.*;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Group;
@@ -17,16 +31,21 @@ import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
+import javafx.util.Duration;
 
+import java.io.File;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
 
 public class GameController {
+    private static final String HISTORY_FILE = "placement_history.ser";
+    // The estimate is shown at most four times per second, however fast the rollouts finish
+    private static final Duration WIN_CHANCE_REFRESH = Duration.millis(250);
 
     public Label playerShipsSunkenLabel;
     public Label machineShipsSunkenLabel;
+    public Label playerWinChanceLabel;
+    public Label machineWinChanceLabel;
     @FXML
     private ImageView imageShow;
 
@@ -58,12 +77,19 @@ public class GameController {
     private PlayerBoard playerBoard;
     private MachineBoard machineBoard;
     private Game game;
-    private int playerShipsSunken  = 0;
-    private int machineShipsSunken = 0;
+    private GameEngine engine;
+    private final GameSpec spec;
+    private Difficulty difficulty;
+    private boolean salvo;
+    private WinEstimator winEstimator;
+    private Timeline winChanceUpdater;
+    private final PlacementHistory history;
+    private final SerializableFileHandler serializableFileHandler;
 
     private boolean buttonShowPressed;
     private List<Button> buttonList;
     private Button[][] matrixButtons;
+    private final List<Integer> aimedCells;
     /**
      * Controller class for managing the Battleship game.
      * This class handles the interaction between the player's board, the machine's board,
@@ -86,7 +112,8 @@ public class GameController {
      * @since 1.0
      */
     public GameController() {
-        playerBoard = new PlayerBoard();
+        spec = GameSpec.STANDARD;
+        playerBoard = new PlayerBoard(spec);
         //machineBoard = new MachineBoard();
         draggableMaker = new DraggableMaker();
         aircraftCarrier = new AircraftCarrier();
@@ -96,8 +123,13 @@ public class GameController {
         waterShot = new WaterShot();
         buttonShowPressed = false;
         buttonList = new ArrayList<>();
-        matrixButtons = new Button[10][10];
-        game = new Game();
+        matrixButtons = new Button[spec.getRows()][spec.getCols()];
+        aimedCells = new ArrayList<>();
+        difficulty = Difficulty.MEDIUM;
+        serializableFileHandler = new SerializableFileHandler();
+        history = loadHistory();
+        game = new Game(spec, difficulty, history);
+        prepareLayout();
     }
     /**
      * Initializes the game controller by setting up ship positions and visual elements.
@@ -119,13 +151,200 @@ public class GameController {
      */
     public void setPlayer(Player player) {
         this.player = player;
-        this.machineBoard = new MachineBoard();
+        this.machineBoard = new MachineBoard(spec, difficulty.optimizesLayout() ? LayoutOptimizer.forSpec(spec) : null);
+        this.engine = new GameEngine(playerBoard.getBitBoard(), machineBoard.getBitBoard(), salvo);
+        game.attach(engine);
+        startWinEstimate();
+        engine.addListener(new GameEventListener() {
+            @Override
+            public void shotFired(Side shooter, int row, int col, ShotOutcome outcome) {
+                if (shooter == Side.PLAYER) {
+                    // Change the button graphic to show the hit or the water effect
+                    Button btn = matrixButtons[row][col];
+                    btn.setGraphic(outcome == ShotOutcome.MISS ? waterShot.getWaterShot() : bombTouch.getBombTouch());
+                }
+            }
+
+            @Override
+            public void shipSunk(Side owner, int row, int col, int length, boolean isHorizontal) {
+                if (owner == Side.MACHINE) {
+                    markMachineBoatSunk(row, col, length, isHorizontal);
+                }
+            }
+
+            @Override
+            public void salvoFired(SalvoResult result) {
+                if (result.getShooter() != Side.PLAYER) {
+                    return;
+                }
+                // Every shot of the salvo is drawn in this same pass, so the board is laid out once
+                for (int shot = 0; shot < result.getShotCount(); shot++) {
+                    Button btn = matrixButtons[result.getRow(shot)][result.getCol(shot)];
+                    btn.getStyleClass().remove("button-Aimed");
+                    btn.setGraphic(result.getOutcome(shot) == ShotOutcome.MISS ? waterShot.getWaterShot() : bombTouch.getBombTouch());
+                    btn.setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+                    btn.setOnMouseClicked(null);
+                    btn.setOnMouseEntered(null);
+                }
+                for (ShipPlacement ship : result.getSunkShips()) {
+                    markMachineBoatSunk(ship.getRow(), ship.getCol(), ship.getLength(), ship.isHorizontal());
+                }
+            }
+
+            @Override
+            public void gameOver(Side winner) {
+                // The layout is learned only once the game is over, so it never helps the machine in this game
+                history.record(playerBoard.getBitBoard().getShips());
+                serializableFileHandler.serialize(HISTORY_FILE, history);
+                stopWinEstimate();
+                showGameOverMessage(winner == Side.PLAYER ? "¡Has ganado!" : "¡Has perdido!");
+                blockButtons(); // Bloquear los botones
+
+                GameStage.deleteInstance();
+                WelcomeStage.getInstance();
+            }
+        });
         startGame();
     }
 
 
     /**
-     * Places ships on the grid for the machine's board based on predefined positions.
+     * Starts estimating the player's chance to win in the background, and refreshing the readouts
+     * next to the sunk ship counters a few times per second.
+     *
+     * @since 1.0
+     * @see WinEstimator
+     */
+    private void startWinEstimate() {
+        winEstimator = new WinEstimator(spec, difficulty, System.nanoTime());
+        winChanceUpdater = new Timeline(new KeyFrame(WIN_CHANCE_REFRESH, event -> showWinChance()));
+        winChanceUpdater.setCycleCount(Animation.INDEFINITE);
+        winChanceUpdater.play();
+        restartWinEstimate();
+    }
+
+    /**
+     * Plays out the current position again once the shots of a click, and the machine's answer, have
+     * landed, so the snapshot has the side that really fires next. Nothing is estimated until the
+     * player's fleet is on the board.
+     *
+     * @since 1.0
+     */
+    private void restartWinEstimate() {
+        if (winEstimator != null && !engine.isGameOver() && playerBoard.getBitBoard().getShips().getShipCount() > 0) {
+            winEstimator.restart(engine);
+        }
+    }
+
+    /**
+     * Stops the rollouts and the refreshing of the readouts, which are left showing the result of
+     * the game if it is over.
+     *
+     * @since 1.0
+     */
+    private void stopWinEstimate() {
+        if (winEstimator == null) return;
+        if (engine.isGameOver()) {
+            winEstimator.restart(engine); // A finished game is settled without rollouts
+        }
+        winEstimator.stop();
+        winChanceUpdater.stop();
+        showWinChance();
+    }
+
+    /**
+     * Shows the latest estimate of the chance to win of each side.
+     *
+     * @since 1.0
+     */
+    private void showWinChance() {
+        double chance = winEstimator.getWinProbability();
+        setWinChanceText(playerWinChanceLabel, chance);
+        setWinChanceText(machineWinChanceLabel, 1 - chance);
+    }
+
+    private void setWinChanceText(Label label, double chance) {
+        String text = "VICTORIA " + (Double.isNaN(chance) ? "--" : Math.round(chance * 100) + "%");
+        if (!text.equals(label.getText())) {
+            label.setText(text);
+        }
+    }
+
+    /**
+     * Loads the placements of the player in earlier games, starting a new history when there is none
+     * or when it was learned on a different board.
+     *
+     * @return the history of the player's placements.
+     * @since 1.0
+     */
+    private PlacementHistory loadHistory() {
+        if (new File(HISTORY_FILE).exists()
+                && serializableFileHandler.deserialize(HISTORY_FILE) instanceof PlacementHistory saved
+                && saved.matches(spec)) {
+            return saved;
+        }
+        return new PlacementHistory(spec);
+    }
+
+    /**
+     * Sets the difficulty of the machine for the next shots.
+     *
+     * @param difficulty the difficulty level, which selects the machine's shot strategy.
+     * @since 1.0
+     * @see Difficulty
+     */
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+        game.setDifficulty(difficulty);
+        prepareLayout();
+    }
+
+    /**
+     * Sets whether the game is played by salvos, in which every turn fires one shot per ship the
+     * shooter has afloat. It must be set before {@link #setPlayer(Player)} starts the game.
+     *
+     * @param salvo true for a salvo game, false for the classic game.
+     * @since 1.0
+     * @see GameEngine#fireSalvo(Side, int[])
+     */
+    public void setSalvo(boolean salvo) {
+        this.salvo = salvo;
+    }
+
+    /**
+     * Checks whether the game is played by salvos.
+     *
+     * @return true for a salvo game.
+     * @since 1.0
+     */
+    public boolean isSalvo() {
+        return salvo;
+    }
+
+    /**
+     * Starts searching the machine's layout while the player places their ships, when the
+     * difficulty hides the fleet.
+     *
+     * @since 1.0
+     */
+    private void prepareLayout() {
+        if (difficulty.optimizesLayout()) {
+            LayoutOptimizer.forSpec(spec).prepare();
+        }
+    }
+
+    /**
+     * Gets the difficulty of the machine.
+     *
+     * @return the current difficulty level.
+     * @since 1.0
+     */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Places ships on the grid for the machine's board based on their recorded placements.
      *
      * @param gridPane the GridPane where ships are to be placed.
      * @throws PlacementException if a ship cannot be placed due to invalid coordinates.
@@ -134,39 +353,9 @@ public class GameController {
      */
 
     public void placeShipsOnGrid(GridPane gridPane) throws PlacementException {
-        List<String[]> shipsInfo = machineBoard.getShipsInfo(); // Obtén la información de los barcos
-
-        for (String[] ship : shipsInfo) {
-            String shipName = ship[0];
-            String start = ship[1]; // Ejemplo: "0,0"
-            String end = ship[2];   // Ejemplo: "0,3"
-
-            // Parse ship's starting coordinates
-            String[] startCoords = start.replace("(", "").replace(")", "").trim().split(",");
-            int startRow = Integer.parseInt(startCoords[0].trim());
-            int startCol = Integer.parseInt(startCoords[1].trim());
-            // Parse ship's ending coordinates
-            String[] endCoords = end.replace("(", "").replace(")", "").trim().split(",");
-            int endRow = Integer.parseInt(endCoords[0].trim());
-            int endCol = Integer.parseInt(endCoords[1].trim());
-
-            // Normalize coordinates
-            int normalizedStartRow = Math.min(startRow, endRow);
-            int normalizedStartCol = Math.min(startCol, endCol);
-            int normalizedEndRow = Math.max(startRow, endRow);
-            int normalizedEndCol = Math.max(startCol, endCol);
-
-            // Determine orientation and length
-            boolean isHorizontal = normalizedStartRow == normalizedEndRow;
-            int length = isHorizontal ? (normalizedEndCol - normalizedStartCol + 1) : (normalizedEndRow - normalizedStartRow + 1);
-
-            System.out.println("Colocando barco: " + shipName);
-            System.out.println("Inicio: (" + normalizedStartRow + ", " + normalizedStartCol + ")");
-            System.out.println("Fin: (" + normalizedEndRow + ", " + normalizedEndCol + ")");
-            System.out.println("Longitud: " + length + ", Horizontal: " + isHorizontal);
-
+        for (ShipPlacement ship : machineBoard.getShipPlacements()) {
             // Place the ship on the GridPane
-            placeShipOnGrid(gridPane, normalizedStartRow, normalizedStartCol, length, isHorizontal);
+            placeShipOnGrid(gridPane, ship.getRow(), ship.getCol(), ship.getLength(), ship.isHorizontal());
         }
     }
 
@@ -297,9 +486,10 @@ public class GameController {
         machineShipsSunkenLabel.setText(player.getMachineSunken());
 
         createTableMachine();
-        machineShipsSunkenLabel.textProperty().addListener((observable, oldValue, newValue) -> {
-            machineShipsSunkenLabel.setText(String.valueOf(machineShipsSunken));
-        });
+
+        // The machine's fleet counters drive the player's score label
+        machineBoard.getBitBoard().getShips().addListener((sunkShips, afloatCells) ->
+                playerShipsSunkenLabel.setText(String.valueOf(sunkShips)));
     }
 
     /**
@@ -326,8 +516,13 @@ public class GameController {
         }
         boats = boatsList;
 
+        // The player's fleet counters drive the machine's score label
+        playerBoard.getBitBoard().getShips().addListener((sunkShips, afloatCells) ->
+                machineShipsSunkenLabel.setText(String.valueOf(sunkShips)));
+
         playerBoard.printMatrix();
         createTablePlayer();
+        restartWinEstimate();
     }
 
     /**
@@ -404,8 +599,8 @@ public class GameController {
      * @serial Serializes the MachineBoard object to save its state.
      */
     public void createTableMachine(){
-        for(int i=1; i<11; i++){
-            for(int j=1; j<11; j++){
+        for(int i=1; i<=spec.getRows(); i++){
+            for(int j=1; j<=spec.getCols(); j++){
                 Button btn = new Button();
                 Integer value = machineBoard.getMatrix().get(i-1).get(j-1);
                 String text = String.valueOf(value);
@@ -435,8 +630,8 @@ public class GameController {
         gridPanePlayer.getChildren().add(boatsPane); // Add the Pane to the player's GridPane
 
         // Iterate through the player's board matrix
-        for (int i = 1; i < 11; i++) {
-            for (int j = 1; j < 11; j++) {
+        for (int i = 1; i <= spec.getRows(); i++) {
+            for (int j = 1; j <= spec.getCols(); j++) {
                 Button btn = new Button();
                 String text = "";
                 btn.setText(text);
@@ -501,6 +696,10 @@ public class GameController {
         btn.setOnMouseClicked(event -> {
             int row = GridPane.getRowIndex(btn) - 1;
             int col = GridPane.getColumnIndex(btn) - 1;
+            if (engine.isSalvo()) {
+                aimSalvo(btn, row, col);
+                return;
+            }
 
             // Check for a hit or sunk ship
             checkShipHitAndSunk(btn, row, col);
@@ -509,18 +708,12 @@ public class GameController {
             btn.setOnMouseClicked(null); // Desactiva el evento después de ejecutarse
             btn.setOnMouseEntered(null);
 
-            // Player's or machine's turn based on the result
-            if (Objects.equals(btn.getText(), "0")) {
-                game.shootingMachine(boats, playerBoard);
-                machineShipsSunken = game.getDestroyedBoatsCount(boats, playerBoard);
-                machineShipsSunkenLabel.setText(String.valueOf(machineShipsSunken));
+            // Player's or machine's turn based on the result: the engine passes the turn on a miss.
+            // The machine's first shot was chosen in the background while the player was aiming.
+            if (engine.getTurn() == Side.MACHINE && !engine.isGameOver()) {
+                game.shootingMachine(engine);
             }
-
-            // IF THE TEXT OF THE BUTTON PRESSED IS "0" THEN
-            // -> SHOOT MACHINE RANDOMLY
-            // ELSE THE PLAYER THROWS AGAIN AND ALSO A METHOD IS EXECUTED TO VERIFY IF A BOAT HAS BEEN
-            // DESTROYED AND ANOTHER METHOD THAT CHECKS IF YOU HAVE SHOT DOWN ALL THE SHIPS "RIDE THE ARRANGEMENT
-            // AND IF THERE ARE NO BUTTONS WITH TEXT 1 THEN YOU HAVE WON THE GAME"
+            restartWinEstimate();
         });
         btn.setOnMouseEntered(event -> {
             btn.getStylesheets().add(String.valueOf(getClass().getResource("/com/battleship/battleshipfpoe/css/styles-game.css")));
@@ -532,81 +725,72 @@ public class GameController {
     }
 
     /**
-     * Checks if a shot hits a ship and handles the ship sinking logic.
-     * If the shot hits a ship, the ship is marked as hit, and if the ship is sunk,
-     * the respective cells are updated visually to show the damage.
-     * The method also checks if all of the player's ships have been sunk,
-     * triggering the game over sequence if all ships are destroyed.
+     * Aims a shot of the player's salvo at a cell, or takes it back if the cell was already aimed at.
+     * Once there is one aimed cell per ship the player has afloat, the whole salvo is fired through the
+     * game engine, and the machine answers with its own salvo.
+     *
+     * @param btn the Button of the aimed cell.
+     * @param row the row index of the cell on the grid.
+     * @param col the column index of the cell on the grid.
+     * @since 1.0
+     * @see GameEngine#fireSalvo(Side, int[])
+     */
+    private void aimSalvo(Button btn, int row, int col) {
+        int cell = row * spec.getCols() + col;
+        int index = aimedCells.indexOf(cell);
+        if (index >= 0) {
+            aimedCells.remove(index);
+            btn.getStyleClass().remove("button-Aimed");
+            return;
+        }
+        aimedCells.add(cell);
+        btn.getStyleClass().add("button-Aimed");
+        if (aimedCells.size() < engine.getSalvoSize(Side.PLAYER)) {
+            return;
+        }
+
+        int[] cells = aimedCells.stream().mapToInt(Integer::intValue).toArray();
+        aimedCells.clear();
+        engine.fireSalvo(Side.PLAYER, cells);
+        if (engine.getTurn() == Side.MACHINE && !engine.isGameOver()) {
+            game.shootingMachine(engine);
+        }
+        restartWinEstimate();
+    }
+
+    /**
+     * Fires the player's shot through the game engine.
+     * The engine resolves the hit or sinking and the end of the game, and the listener registered
+     * in {@link #setPlayer(Player)} updates the buttons and shows the game over message.
      *
      * @param btn the Button representing the shot taken by the player.
      * @param row the row index of the shot on the grid.
      * @param col the column index of the shot on the grid.
      * @since 1.0
-     * @see Boat
-     * @see MachineBoard
-     * @see BombTouch#getBombTouch()
-     * @see WaterShot#getWaterShot()
-     * @throws IllegalArgumentException if the shot coordinates are outside of the valid grid bounds.
-     * @deprecated This method is deprecated due to a planned update in the game's event handling system.
+     * @see GameEngine#fire(Side, int, int)
+     * @throws IllegalArgumentException if the cell has already been fired at.
      */
     public void checkShipHitAndSunk(Button btn, int row, int col) {
-        for (Boat boat : machineBoard.getBoats()) {
-            System.out.println("Boat: "+ boat.getName() + " "+ Arrays.toString(boat.getPosition()));
-            // Get boat's position and orientation
-            int[] position = boat.getPosition();
-            int boatRow = position[0];
-            int boatCol = position[1];
-            boolean isHorizontal = boat.isHorizontal();
-            int length = boat.getLength();
-
-            // Check if the shot hits the boat
-            for (int i = 0; i < length; i++) {
-                int currentRow = isHorizontal ? boatRow : boatRow + i;
-                int currentCol = isHorizontal ? boatCol + i : boatCol;
-
-                if (currentRow == row && currentCol == col) {
-                    // Register the impact on the boat
-                    boat.markHit(i);
-
-                    // Change the button graphic to show the hit
-                    btn.setGraphic(bombTouch.getBombTouch());
-
-                    // Check if the boat is completely destroyed (sunk)
-                    if (boat.isSunk()) {
-                        for (int j = 0; j < length; j++) {
-                            int sunkRow = isHorizontal ? boatRow : boatRow + j;
-                            int sunkCol = isHorizontal ? boatCol + j : boatCol;
-
-                            Button sunkBtn = matrixButtons[sunkRow][sunkCol];
-                            sunkBtn.setGraphic(shipSunk.getShipSunk());
-
-                        }
-                        playerShipsSunken++;
-                        playerShipsSunkenLabel.setText(String.valueOf(playerShipsSunken));
-
-                        if (playerShipsSunken == 10) {
-                            System.out.println("Se llamo");
-                            showGameOverMessage("¡Has ganado!");
-                            blockButtons(); // Bloquear los botones
-
-                            GameStage.deleteInstance();
-                            WelcomeStage.getInstance();
-                        }
+        engine.fire(Side.PLAYER, row, col);
+    }
 
-                    }
-                    return; // No need to check more boats
-                }
-            }
-        }
+    /**
+     * Marks every cell of a sunk machine boat with the sunk graphic.
+     *
+     * @param boatRow the starting row of the boat.
+     * @param boatCol the starting column of the boat.
+     * @param length the length of the boat.
+     * @param isHorizontal true if the boat is horizontal, false if vertical.
+     * @since 1.0
+     * @see ShipSunk#getShipSunk()
+     */
+    private void markMachineBoatSunk(int boatRow, int boatCol, int length, boolean isHorizontal) {
+        for (int j = 0; j < length; j++) {
+            int sunkRow = isHorizontal ? boatRow : boatRow + j;
+            int sunkCol = isHorizontal ? boatCol + j : boatCol;
 
-        // If no ship is hit, show water effect
-        btn.setGraphic(waterShot.getWaterShot());
-        // Check if the machine has won
-        if (machineShipsSunken == 10) {
-            showGameOverMessage("¡Has perdido!");
-            blockButtons(); // Disable all buttons
-            GameStage.deleteInstance();
-            WelcomeStage.getInstance();
+            Button sunkBtn = matrixButtons[sunkRow][sunkCol];
+            sunkBtn.setGraphic(shipSunk.getShipSunk());
         }
     }
 
@@ -762,8 +946,8 @@ public class GameController {
      */
     public void showHideMachineGridPane(String url, String css1, String css2){
         //Button[][] matrixButtons = machineBoard.getMatrixButtons();
-        for(int i=0; i<10; i++){
-            for(int j=0; j<10; j++){
+        for(int i=0; i<spec.getRows(); i++){
+            for(int j=0; j<spec.getCols(); j++){
                 Button btn = matrixButtons[i][j];
                 btn.getStylesheets().add(String.valueOf(getClass().getResource(url)));
                 btn.getStyleClass().remove(css1);
@@ -804,6 +988,7 @@ public class GameController {
     @FXML
     public void handleClickExit(){
         player.setNickname(textFieldName.getText());
+        stopWinEstimate();
 
         player.setSunkenPlayer(playerShipsSunkenLabel.getText());
         player.setMachineSunken(machineShipsSunkenLabel.getText());
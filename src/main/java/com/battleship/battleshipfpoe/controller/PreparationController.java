@@ -1,5 +1,6 @@
 package com.battleship.battleshipfpoe.controller;
 
+import com.battleship.battleshipfpoe.engine.Difficulty;
 import com.battleship.battleshipfpoe.model.*;
 import com.battleship.battleshipfpoe.view.*;
 import javafx.event.ActionEvent;
@@ -10,11 +11,14 @@ import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
+import javafx.util.StringConverter;
 
 import java.io.IOException;
 import java.net.URL;
@@ -69,6 +73,22 @@ public class PreparationController implements Initializable {
     @FXML
     private Pane BoatPane;
 
+    /**
+     * Selector of the machine's difficulty for the game about to start.
+     *
+     * @since 1.0
+     */
+    @FXML
+    private ComboBox<Difficulty> difficultyComboBox;
+
+    /**
+     * Selector of the salvo game, in which every turn fires one shot per ship afloat.
+     *
+     * @since 1.0
+     */
+    @FXML
+    private CheckBox salvoCheckBox;
+
     private boolean isPositionValid;
 
     private BoardHandler boardHandler;
@@ -88,6 +108,7 @@ public class PreparationController implements Initializable {
         serializableFileHandler = new SerializableFileHandler();
         planeTextFileHandler = new PlaneTextFileHandler();
         gameController = new GameController();
+        initializeDifficulty();
 
         // Separation between boats
         int horizontalSpacing = 80; // Horizontal spacing between boats
@@ -136,6 +157,34 @@ public class PreparationController implements Initializable {
         addBoatToPane(new Boat("Portaviones",firstBoatXPosition, firstBoatYPosition + (3 * verticalSpacing), 4, true, new AircraftCarrier().getAircraftCarrier()));
     }
 
+    /**
+     * Fills the difficulty selector with every level, named in Spanish, and selects the medium one.
+     *
+     * @since 1.0
+     */
+    private void initializeDifficulty() {
+        difficultyComboBox.getItems().setAll(Difficulty.values());
+        difficultyComboBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Difficulty difficulty) {
+                if (difficulty == null) return "";
+                return switch (difficulty) {
+                    case EASY -> "Fácil";
+                    case MEDIUM -> "Media";
+                    case HARD -> "Difícil";
+                    case EXPERT -> "Experta";
+                    case MASTER -> "Maestra";
+                };
+            }
+
+            @Override
+            public Difficulty fromString(String text) {
+                return null;
+            }
+        });
+        difficultyComboBox.setValue(Difficulty.MEDIUM);
+    }
+
     /**
      * Initializes the board by setting dimensions and updating the grid.
      *
@@ -469,6 +518,9 @@ public class PreparationController implements Initializable {
           GameController gameController1 = GameStage.getInstance().getGameController();
             PreparationStage.deleteInstance();
 
+            // The difficulty and the game mode must be set before the player starts the game
+            gameController1.setDifficulty(difficultyComboBox.getValue());
+            gameController1.setSalvo(salvoCheckBox.isSelected());
             // Pass the list of boats to the GameController
             gameController1.setPlayer(player);
             gameController1.setBoatsList(boatsList);
@@ -0,0 +1,618 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bit-parallel representation of a Battleship board.
+ * The state of every cell is split into independent planes (occupied, shot, hit and sunk),
+ * each one stored as an array of primitive {@code long} words where bit {@code row * cols + col}
+ * belongs to the cell at ({@code row}, {@code col}). The occupancy plane is also kept in
+ * column-major order so that vertical placements are contiguous bit ranges as well, which turns
+ * placement legality, hit tests and the "all sunk" check into a handful of mask operations.
+ * <p>
+ * Ships placed through {@link #place(int, int, int, boolean)} are also registered in a
+ * {@link ShipIndex}, so {@link #shoot(int, int)} resolves hits and sinkings in constant time.
+ * <p>
+ * The integer cell codes used by the rest of the game (0 water, 1 ship, 2 hit, 3 sunk, -1 miss)
+ * are derived from the planes, and {@link #asMatrix()} exposes them as a live list view for the
+ * JavaFX controllers.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class BitBoard implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final int WATER = 0;
+    public static final int SHIP = 1;
+    public static final int HIT = 2;
+    public static final int SUNK = 3;
+    public static final int MISS = -1;
+
+    private final int rows;
+    private final int cols;
+    private final long[] occupied;
+    private final long[] occupiedByColumn; // Same plane as occupied, indexed col * rows + row
+    private final long[] shot;
+    private final long[] hit;
+    private final long[] sunk;
+    private final ShipIndex ships;
+    private transient int version;     // Bumped by every change, so observers can tell a board changed
+    private transient List<List<Integer>> matrixView;
+
+    /**
+     * Constructs an empty square board.
+     *
+     * @param size the number of rows and columns of the board.
+     * @since 1.0
+     */
+    public BitBoard(int size) {
+        this(size, size);
+    }
+
+    /**
+     * Constructs an empty board with the given dimensions. Every cell starts as water.
+     *
+     * @param rows the number of rows of the board.
+     * @param cols the number of columns of the board.
+     * @since 1.0
+     */
+    public BitBoard(int rows, int cols) {
+        this(rows, cols, new ShipIndex(cols));
+    }
+
+    /**
+     * Constructs an empty board sized from a spec, with its ship index sized for the spec's fleet.
+     *
+     * @param spec the spec of the game.
+     * @since 1.0
+     */
+    public BitBoard(GameSpec spec) {
+        this(spec.getRows(), spec.getCols(), new ShipIndex(spec));
+    }
+
+    /**
+     * Constructs an empty board with the given dimensions and ship index.
+     *
+     * @param rows the number of rows of the board.
+     * @param cols the number of columns of the board.
+     * @param ships the index that will hold the ships placed on the board.
+     * @since 1.0
+     */
+    private BitBoard(int rows, int cols, ShipIndex ships) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Las dimensiones del tablero deben ser positivas.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        int words = wordsFor(rows * cols);
+        occupied = new long[words];
+        occupiedByColumn = new long[words];
+        shot = new long[words];
+        hit = new long[words];
+        sunk = new long[words];
+        this.ships = ships;
+    }
+
+    /**
+     * Computes how many {@code long} words are needed to hold the given number of bits.
+     *
+     * @param bits the number of bits.
+     * @return the number of words.
+     * @since 1.0
+     */
+    public static int wordsFor(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    /**
+     * Checks whether a ship of the given length fits at the given anchor without leaving the
+     * board or overlapping another ship. The overlap test is a single range mask over the
+     * occupancy plane in the ship's orientation.
+     *
+     * @param row the starting row of the ship.
+     * @param col the starting column of the ship.
+     * @param length the number of cells of the ship.
+     * @param isHorizontal true if the ship extends to the right, false if it extends downwards.
+     * @return true if the placement is legal, false otherwise.
+     * @since 1.0
+     */
+    public boolean canPlace(int row, int col, int length, boolean isHorizontal) {
+        if (row < 0 || col < 0 || length <= 0) return false;
+        if (isHorizontal) {
+            if (row >= rows || col + length > cols) return false;
+            return !anyInRange(occupied, row * cols + col, length);
+        }
+        if (col >= cols || row + length > rows) return false;
+        return !anyInRange(occupiedByColumn, col * rows + row, length);
+    }
+
+    /**
+     * Marks the cells of a ship as occupied and registers the ship in the {@link ShipIndex}.
+     * The caller is responsible for validating the placement with
+     * {@link #canPlace(int, int, int, boolean)} first.
+     *
+     * @param row the starting row of the ship.
+     * @param col the starting column of the ship.
+     * @param length the number of cells of the ship.
+     * @param isHorizontal true if the ship extends to the right, false if it extends downwards.
+     * @return the id assigned to the ship.
+     * @since 1.0
+     */
+    public int place(int row, int col, int length, boolean isHorizontal) {
+        version++;
+        if (isHorizontal) {
+            setRange(occupied, row * cols + col, length);
+            for (int j = col; j < col + length; j++) {
+                setBit(occupiedByColumn, j * rows + row);
+            }
+        } else {
+            setRange(occupiedByColumn, col * rows + row, length);
+            for (int i = row; i < row + length; i++) {
+                setBit(occupied, i * cols + col);
+            }
+        }
+        return ships.add(row, col, length, isHorizontal);
+    }
+
+    /**
+     * Marks the cells of a ship as occupied and registers it in the {@link ShipIndex}.
+     *
+     * @param placement the position of the ship, validated by the caller.
+     * @return the id assigned to the ship.
+     * @since 1.0
+     * @see #place(int, int, int, boolean)
+     */
+    public int place(ShipPlacement placement) {
+        return place(placement.getRow(), placement.getCol(), placement.getLength(), placement.isHorizontal());
+    }
+
+    /**
+     * Fires at a cell, recording the shot and, if a ship is there, the hit.
+     * The hit is also registered in the {@link ShipIndex}, sinking the ship if it was its last segment.
+     *
+     * @param row the row of the shot.
+     * @param col the column of the shot.
+     * @return true if the shot hit a ship, false if it fell in the water.
+     * @since 1.0
+     */
+    public boolean fire(int row, int col) {
+        version++;
+        int index = row * cols + col;
+        setBit(shot, index);
+        if (!testBit(occupied, index)) {
+            return false;
+        }
+        if (!testBit(hit, index)) {
+            setBit(hit, index);
+            int id = ships.registerHit(index);
+            if (id != ShipIndex.NONE && ships.isSunk(id)) {
+                markSunk(ships.getRow(id), ships.getCol(id), ships.getLength(id), ships.isHorizontal(id));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fires at a cell and resolves which ship, if any, was hit. When the shot takes the last
+     * segment of a ship, the whole ship is marked as sunk.
+     *
+     * @param row the row of the shot.
+     * @param col the column of the shot.
+     * @return the id of the ship that was hit, or {@link ShipIndex#NONE} if the shot fell in the water.
+     * @since 1.0
+     * @see ShipIndex#isSunk(int)
+     */
+    public int shoot(int row, int col) {
+        return fire(row, col) ? ships.shipAt(row, col) : ShipIndex.NONE;
+    }
+
+    /**
+     * Fires at several distinct cells at once. The shots are recorded in one pass, the new hits are
+     * registered in the {@link ShipIndex} as a single batch, and every ship they sink is marked once.
+     *
+     * @param cells the linear indexes ({@code row * cols + col}) of the cells, all different.
+     * @param count the number of cells to read from {@code cells}.
+     * @param shipIds the array receiving, for every shot, the id of the ship hit, or {@link ShipIndex#NONE}.
+     * @return the number of shots that hit a ship.
+     * @since 1.0
+     */
+    public int fireAll(int[] cells, int count, int[] shipIds) {
+        version++;
+        int[] fresh = new int[count];       // Cells hit for the first time
+        int[] freshShots = new int[count];  // Position in the salvo of each of them
+        int[] freshIds = new int[count];
+        int freshCount = 0;
+        for (int i = 0; i < count; i++) {
+            int index = cells[i];
+            setBit(shot, index);
+            shipIds[i] = ShipIndex.NONE;
+            if (!testBit(occupied, index)) continue;
+            if (testBit(hit, index)) {
+                shipIds[i] = ships.shipAtCell(index);
+            } else {
+                setBit(hit, index);
+                freshShots[freshCount] = i;
+                fresh[freshCount++] = index;
+            }
+        }
+        ships.registerHits(fresh, freshCount, freshIds);
+
+        int hits = 0;
+        for (int i = 0; i < freshCount; i++) {
+            int id = freshIds[i];
+            shipIds[freshShots[i]] = id;
+            int first = ships.getRow(id) * cols + ships.getCol(id);
+            if (ships.isSunk(id) && !testBit(sunk, first)) {
+                markSunk(ships.getRow(id), ships.getCol(id), ships.getLength(id), ships.isHorizontal(id));
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (shipIds[i] != ShipIndex.NONE) hits++;
+        }
+        return hits;
+    }
+
+    /**
+     * Marks the cells of a ship as sunk.
+     *
+     * @param row the starting row of the ship.
+     * @param col the starting column of the ship.
+     * @param length the number of cells of the ship.
+     * @param isHorizontal true if the ship extends to the right, false if it extends downwards.
+     * @since 1.0
+     */
+    public void markSunk(int row, int col, int length, boolean isHorizontal) {
+        version++;
+        for (int k = 0; k < length; k++) {
+            int index = isHorizontal ? row * cols + col + k : (row + k) * cols + col;
+            setBit(shot, index);
+            setBit(hit, index);
+            setBit(sunk, index);
+        }
+    }
+
+    /**
+     * Checks whether every occupied cell has been hit.
+     *
+     * @return true if no ship cell remains afloat, false otherwise.
+     * @since 1.0
+     */
+    public boolean allSunk() {
+        for (int w = 0; w < occupied.length; w++) {
+            if ((occupied[w] & ~hit[w]) != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Counts the ship cells that have not been hit yet.
+     *
+     * @return the number of afloat ship cells.
+     * @since 1.0
+     */
+    public int remainingShipCells() {
+        int count = 0;
+        for (int w = 0; w < occupied.length; w++) {
+            count += Long.bitCount(occupied[w] & ~hit[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether a ship occupies the given cell.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return true if the cell belongs to a ship.
+     * @since 1.0
+     */
+    public boolean isOccupied(int row, int col) {
+        return testBit(occupied, row * cols + col);
+    }
+
+    /**
+     * Checks whether the given cell has already been fired at.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return true if the condition holds for the cell.
+     * @since 1.0
+     */
+    public boolean isShot(int row, int col) {
+        return testBit(shot, row * cols + col);
+    }
+
+    /**
+     * Checks whether the given cell holds a ship that has been hit.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return true if the condition holds for the cell.
+     * @since 1.0
+     */
+    public boolean isHit(int row, int col) {
+        return testBit(hit, row * cols + col);
+    }
+
+    /**
+     * Checks whether the given cell belongs to a sunk ship.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return true if the condition holds for the cell.
+     * @since 1.0
+     */
+    public boolean isSunk(int row, int col) {
+        return testBit(sunk, row * cols + col);
+    }
+
+    /**
+     * Retrieves the legacy integer code of a cell.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return 3 if sunk, 2 if hit, -1 if missed, 1 if it holds a ship and 0 for water.
+     * @since 1.0
+     */
+    public int getCell(int row, int col) {
+        int index = row * cols + col;
+        if (testBit(sunk, index)) return SUNK;
+        if (testBit(hit, index)) return HIT;
+        if (testBit(shot, index)) return MISS;
+        if (testBit(occupied, index)) return SHIP;
+        return WATER;
+    }
+
+    /**
+     * Overwrites a cell using the legacy integer codes.
+     * Water clears every plane, a ship sets only the occupancy, a miss records a shot,
+     * a hit records a shot and a hit, and sunk records all three. The {@link ShipIndex} is not
+     * updated, so this is meant for boards whose ships are not placed with {@link #place}.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @param value the cell code to store.
+     * @since 1.0
+     */
+    public void setCell(int row, int col, int value) {
+        version++;
+        int index = row * cols + col;
+        int columnIndex = col * rows + row;
+        clearBit(shot, index);
+        clearBit(hit, index);
+        clearBit(sunk, index);
+        switch (value) {
+            case WATER:
+                clearBit(occupied, index);
+                clearBit(occupiedByColumn, columnIndex);
+                break;
+            case SHIP:
+                setBit(occupied, index);
+                setBit(occupiedByColumn, columnIndex);
+                break;
+            case SUNK:
+                // A sunk cell is also hit and shot
+                setBit(sunk, index);
+                setBit(hit, index);
+                setBit(shot, index);
+                break;
+            case HIT:
+                setBit(hit, index);
+                setBit(shot, index);
+                break;
+            case MISS:
+                setBit(shot, index);
+                break;
+            default:
+                throw new IllegalArgumentException("Valor de celda desconocido: " + value);
+        }
+    }
+
+    /**
+     * Resets every cell of the board to water.
+     *
+     * @since 1.0
+     */
+    public void clear() {
+        version++;
+        Arrays.fill(occupied, 0L);
+        Arrays.fill(occupiedByColumn, 0L);
+        Arrays.fill(shot, 0L);
+        Arrays.fill(hit, 0L);
+        Arrays.fill(sunk, 0L);
+        ships.clear();
+    }
+
+    /**
+     * Makes this board a copy of another one with the same dimensions, ships included.
+     *
+     * @param other the board to copy.
+     * @since 1.0
+     */
+    void copyFrom(BitBoard other) {
+        version++;
+        System.arraycopy(other.occupied, 0, occupied, 0, occupied.length);
+        System.arraycopy(other.occupiedByColumn, 0, occupiedByColumn, 0, occupiedByColumn.length);
+        System.arraycopy(other.shot, 0, shot, 0, shot.length);
+        System.arraycopy(other.hit, 0, hit, 0, hit.length);
+        System.arraycopy(other.sunk, 0, sunk, 0, sunk.length);
+        ships.copyFrom(other.ships);
+    }
+
+    /**
+     * Retrieves the mutation counter of the board, which changes whenever a ship is placed, a cell is
+     * fired at or set, or the board is cleared. Two equal readings with no change in between mean the
+     * board is the same; the counter starts again at 0 when a board is deserialized.
+     *
+     * @return the current version.
+     * @since 1.0
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Retrieves the ship-occupancy index of the board.
+     *
+     * @return the {@link ShipIndex} of the ships placed on this board.
+     * @since 1.0
+     */
+    public ShipIndex getShips() {
+        return ships;
+    }
+
+    /**
+     * Retrieves the number of rows of the board.
+     *
+     * @return the number of rows.
+     * @since 1.0
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Retrieves the number of columns of the board.
+     *
+     * @return the number of columns.
+     * @since 1.0
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Returns a live, mutable list view of the board using the legacy integer cell codes.
+     * Reads and writes go straight to the bit planes; the view is kept for the JavaFX controllers.
+     *
+     * @return the board as a list of rows.
+     * @since 1.0
+     */
+    public List<List<Integer>> asMatrix() {
+        if (matrixView == null) {
+            matrixView = new MatrixView();
+        }
+        return matrixView;
+    }
+
+    private static boolean testBit(long[] plane, int index) {
+        return (plane[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void setBit(long[] plane, int index) {
+        plane[index >>> 6] |= 1L << index;
+    }
+
+    private static void clearBit(long[] plane, int index) {
+        plane[index >>> 6] &= ~(1L << index);
+    }
+
+    /**
+     * Checks whether any bit is set in the half-open range [{@code from}, {@code from + length}).
+     *
+     * @param plane the plane to test.
+     * @param from the first bit index.
+     * @param length the number of bits.
+     * @return true if at least one bit in the range is set.
+     * @since 1.0
+     */
+    static boolean anyInRange(long[] plane, int from, int length) {
+        int end = from + length;
+        int firstWord = from >>> 6;
+        int lastWord = (end - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -end;
+        if (firstWord == lastWord) {
+            return (plane[firstWord] & firstMask & lastMask) != 0;
+        }
+        if ((plane[firstWord] & firstMask) != 0) return true;
+        for (int w = firstWord + 1; w < lastWord; w++) {
+            if (plane[w] != 0) return true;
+        }
+        return (plane[lastWord] & lastMask) != 0;
+    }
+
+    /**
+     * Sets every bit in the half-open range [{@code from}, {@code from + length}).
+     *
+     * @param plane the plane to modify.
+     * @param from the first bit index.
+     * @param length the number of bits.
+     * @since 1.0
+     */
+    static void setRange(long[] plane, int from, int length) {
+        int end = from + length;
+        int firstWord = from >>> 6;
+        int lastWord = (end - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -end;
+        if (firstWord == lastWord) {
+            plane[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        plane[firstWord] |= firstMask;
+        for (int w = firstWord + 1; w < lastWord; w++) {
+            plane[w] = -1L;
+        }
+        plane[lastWord] |= lastMask;
+    }
+
+    /**
+     * List view over the board, one {@link RowView} per row.
+     */
+    private final class MatrixView extends AbstractList<List<Integer>> {
+        private final RowView[] rowViews = new RowView[rows];
+
+        @Override
+        public List<Integer> get(int row) {
+            if (rowViews[row] == null) {
+                rowViews[row] = new RowView(row);
+            }
+            return rowViews[row];
+        }
+
+        @Override
+        public int size() {
+            return rows;
+        }
+    }
+
+    /**
+     * List view over a single row, translating between bit planes and cell codes.
+     */
+    private final class RowView extends AbstractList<Integer> {
+        private final int row;
+
+        private RowView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Integer get(int col) {
+            if (col < 0 || col >= cols) throw new IndexOutOfBoundsException(col);
+            return getCell(row, col);
+        }
+
+        @Override
+        public Integer set(int col, Integer value) {
+            int previous = get(col);
+            setCell(row, col, value);
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return cols;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.battleship.battleshipfpoe.engine;
+
+/**
+ * Counts, for every cell of a board, the placements of a ship length that cover it.
+ * A placement is a horizontal or vertical window of {@code length} cells that are all free; a ship of
+ * length 1 has a single placement per cell. The counts of every length of the afloat fleet, weighted
+ * by how many ships have that length, add up to the placement density of the board, which is the
+ * hot loop of the probabilistic shooters on large boards.
+ * <p>
+ * {@link #create(int, int)} picks the implementation that uses the Vector API when the incubating
+ * module {@code jdk.incubator.vector} has been added to the runtime, and the scalar one otherwise.
+ * Both produce the same counts.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public interface DensityKernel {
+    /**
+     * Name of the module of the Vector API.
+     */
+    String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * Adds the weighted placement counts of a ship length to a density plane.
+     *
+     * @param free 1 for every cell a ship may cover and 0 for the blocked ones, indexed {@code row * cols + col}.
+     * @param length the length of the ship.
+     * @param weight the number of ships of that length.
+     * @param density the plane receiving the counts, indexed like {@code free}.
+     * @throws IllegalArgumentException if the length is not positive.
+     * @since 1.0
+     */
+    void accumulate(int[] free, int length, int weight, int[] density);
+
+    /**
+     * Retrieves the number of rows of the boards of the kernel.
+     *
+     * @return the number of rows.
+     * @since 1.0
+     */
+    int getRows();
+
+    /**
+     * Retrieves the number of columns of the boards of the kernel.
+     *
+     * @return the number of columns.
+     * @since 1.0
+     */
+    int getCols();
+
+    /**
+     * Creates the fastest kernel available for boards of some dimensions.
+     *
+     * @param rows the number of rows.
+     * @param cols the number of columns.
+     * @return the vectorized kernel if the Vector API is available, the scalar one otherwise.
+     * @since 1.0
+     */
+    static DensityKernel create(int rows, int cols) {
+        return isVectorAvailable() ? new VectorDensityKernel(rows, cols) : new ScalarDensityKernel(rows, cols);
+    }
+
+    /**
+     * Creates the scalar kernel for boards of some dimensions, regardless of the Vector API.
+     *
+     * @param rows the number of rows.
+     * @param cols the number of columns.
+     * @return the scalar kernel.
+     * @since 1.0
+     */
+    static DensityKernel scalar(int rows, int cols) {
+        return new ScalarDensityKernel(rows, cols);
+    }
+
+    /**
+     * Checks whether the Vector API has been added to the runtime, e.g. with
+     * {@code --add-modules jdk.incubator.vector}.
+     *
+     * @return true if the vectorized kernel can be created.
+     * @since 1.0
+     */
+    static boolean isVectorAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+}
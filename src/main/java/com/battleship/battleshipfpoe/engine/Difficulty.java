@@ -0,0 +1,157 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Difficulty levels of the machine, each one backed by a {@link ShotStrategy}.
+ * The easy machine fires at random, the medium one follows the learned {@link ShotPolicy} where there is
+ * one, and otherwise hunts with parity and follows up its hits, and the hard one fires where the
+ * remaining fleet is most likely to be. The expert one samples whole layouts
+ * of the remaining fleet in parallel, which also accounts for how the ships exclude each other, and the
+ * master one keeps such layouts between turns and fires where the outcome tells the most about the
+ * fleet, with the {@link InformationGainStrategy}.
+ * In the standard game the hard, expert and master levels open from the {@link OpeningBook}, and they
+ * switch to the {@link EndgameSolver} once the position is small enough to be solved exactly. The hard
+ * level also leans towards where the player has placed ships in earlier games, and all three hide their
+ * own fleet with the {@link LayoutOptimizer}.
+ * <p>
+ * Where there is a {@link DifficultyCalibration}, the medium and hard levels fire at a random cell on a
+ * small share of their shots, fitted so that each level wins a target share of its games. The easy
+ * machine always fires at random, so it is never handicapped.
+ * <p>
+ * In a salvo game the easy machine fires its salvos at random and the other levels choose them jointly
+ * with a {@link SampledSalvoStrategy}; the calibration only applies to the classic game.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public enum Difficulty {
+    EASY,
+    MEDIUM,
+    HARD,
+    EXPERT,
+    MASTER;
+
+    /**
+     * Creates the shot strategy of this level.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @param random the source of randomness of the strategy.
+     * @return a new strategy.
+     * @since 1.0
+     */
+    public ShotStrategy createStrategy(GameSpec spec, RandomGenerator random) {
+        return createStrategy(spec, random, null);
+    }
+
+    /**
+     * Creates the shot strategy of this level, letting the hard level learn from the opponent's
+     * earlier layouts.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @param random the source of randomness of the strategy.
+     * @param history the placements of the opponent in earlier games, or null if there are none.
+     * @return a new strategy.
+     * @since 1.0
+     */
+    public ShotStrategy createStrategy(GameSpec spec, RandomGenerator random, PlacementHistory history) {
+        return withHandicap(spec, random, createBaseStrategy(spec, random, history, Long.MAX_VALUE));
+    }
+
+    /**
+     * Creates a cheaper stand-in for the strategy of this level, to play out many games quickly. The
+     * endgame solver is bounded by {@link DifficultyCalibrator#ENDGAME_NODE_LIMIT} nodes, and the expert
+     * and master levels sample too many layouts per shot, so they are played like the hard level without
+     * a handicap.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @param random the source of randomness of the strategy.
+     * @return a new strategy.
+     * @since 1.0
+     * @see WinEstimator
+     */
+    ShotStrategy createRolloutStrategy(GameSpec spec, RandomGenerator random) {
+        Difficulty base = compareTo(EXPERT) >= 0 ? HARD : this;
+        return withHandicap(spec, random, base.createBaseStrategy(spec, random, null, DifficultyCalibrator.ENDGAME_NODE_LIMIT));
+    }
+
+    /**
+     * Applies the calibrated handicap of this level to its strategy. The easy level, which already
+     * fires at random, is left as it is.
+     */
+    private ShotStrategy withHandicap(GameSpec spec, RandomGenerator random, ShotStrategy strategy) {
+        DifficultyCalibration calibration = DifficultyCalibration.forSpec(spec);
+        if (calibration == null || this == EASY) {
+            return strategy;
+        }
+        double blunderRate = calibration.getBlunderRate(this);
+        return blunderRate > 0 ? new HandicapStrategy(strategy, blunderRate, random) : strategy;
+    }
+
+    /**
+     * Creates the strategy of this level before its handicap.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @param random the source of randomness of the strategy.
+     * @param history the placements of the opponent in earlier games, or null if there are none.
+     * @param endgameNodes the node limit of the endgame solver of the hard, expert and master levels.
+     * @return a new strategy.
+     * @since 1.0
+     */
+    ShotStrategy createBaseStrategy(GameSpec spec, RandomGenerator random, PlacementHistory history, long endgameNodes) {
+        switch (this) {
+            case EASY:
+                return new RandomShotStrategy(random);
+            case MEDIUM:
+                ShotPolicy policy = ShotPolicy.forSpec(spec);
+                return policy == null ? new HuntTargetStrategy(random) : new LearnedShotStrategy(spec, policy, random);
+            case HARD:
+                return withBook(spec, withEndgame(spec, new ProbabilityDensityStrategy(spec, random, history), endgameNodes));
+            case EXPERT:
+                return withBook(spec, withEndgame(spec, new MonteCarloStrategy(spec, random.nextLong()), endgameNodes));
+            default:
+                return withBook(spec, withEndgame(spec, new InformationGainStrategy(spec, random.nextLong()), endgameNodes));
+        }
+    }
+
+    /**
+     * Creates the salvo strategy of this level, for games in which every turn fires a salvo.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @param random the source of randomness of the strategy.
+     * @return a new salvo strategy.
+     * @since 1.0
+     * @see GameEngine#fireSalvo(Side, int[])
+     */
+    public SalvoStrategy createSalvoStrategy(GameSpec spec, RandomGenerator random) {
+        return this == EASY ? new RandomSalvoStrategy(random) : new SampledSalvoStrategy(spec, random.nextLong());
+    }
+
+    /**
+     * Checks whether the machine hides its fleet with the {@link LayoutOptimizer} at this level,
+     * instead of placing it at random.
+     *
+     * @return true for the hard, expert and master levels.
+     * @since 1.0
+     */
+    public boolean optimizesLayout() {
+        return compareTo(HARD) >= 0;
+    }
+
+    private static ShotStrategy withEndgame(GameSpec spec, ShotStrategy strategy, long nodeLimit) {
+        EndgameSolver solver = new EndgameSolver(spec);
+        solver.setNodeLimit(nodeLimit);
+        return new EndgameStrategy(solver, strategy);
+    }
+
+    private static ShotStrategy withBook(GameSpec spec, ShotStrategy strategy) {
+        OpeningBook book = OpeningBook.forSpec(spec);
+        return book == null ? strategy : new OpeningBookStrategy(book, strategy);
+    }
+}
@@ -0,0 +1,202 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * Handicaps of the difficulty levels, fitted by the {@link DifficultyCalibrator} so that every level
+ * wins a target share of its games against the reference bot. For every level the calibration keeps
+ * the target win rate, the fitted probability of a blunder of its {@link HandicapStrategy} and the
+ * win rate measured with that handicap. A level that was not calibrated has no handicap.
+ * <p>
+ * Calibrations are stored as properties, e.g. {@code MEDIUM.blunderRate=0.04}, along with the number of
+ * games and the seed of the run that produced them.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class DifficultyCalibration {
+    /**
+     * Classpath resource of the calibration of the standard game.
+     */
+    public static final String STANDARD_RESOURCE = "/com/battleship/battleshipfpoe/calibration/standard.properties";
+
+    private final double[] targetWinRates;
+    private final double[] blunderRates;
+    private final double[] winRates;
+    private final int games;
+    private final long seed;
+
+    /**
+     * Constructs an empty calibration, in which no level has a handicap.
+     *
+     * @param games the number of games simulated per measurement.
+     * @param seed the seed of the simulated games.
+     * @since 1.0
+     */
+    public DifficultyCalibration(int games, long seed) {
+        int levels = Difficulty.values().length;
+        this.targetWinRates = new double[levels];
+        this.blunderRates = new double[levels];
+        this.winRates = new double[levels];
+        this.games = games;
+        this.seed = seed;
+    }
+
+    /**
+     * Retrieves the shipped calibration of a spec. Only the standard game has one.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @return the calibration, or null if the spec has none or its resource is missing.
+     * @since 1.0
+     */
+    public static DifficultyCalibration forSpec(GameSpec spec) {
+        return GameSpec.STANDARD.equals(spec) ? StandardHolder.CALIBRATION : null;
+    }
+
+    /**
+     * Records the result of calibrating a level.
+     *
+     * @param level the difficulty level.
+     * @param targetWinRate the share of games the level should win.
+     * @param blunderRate the fitted probability of a blunder.
+     * @param winRate the share of games won with that handicap.
+     * @throws IllegalArgumentException if the blunder rate is not between 0 and 1.
+     * @since 1.0
+     */
+    public void set(Difficulty level, double targetWinRate, double blunderRate, double winRate) {
+        if (!(blunderRate >= 0 && blunderRate <= 1)) {
+            throw new IllegalArgumentException("La probabilidad de error debe estar entre 0 y 1: " + blunderRate);
+        }
+        targetWinRates[level.ordinal()] = targetWinRate;
+        blunderRates[level.ordinal()] = blunderRate;
+        winRates[level.ordinal()] = winRate;
+    }
+
+    /**
+     * Retrieves the probability of a blunder of a level.
+     *
+     * @param level the difficulty level.
+     * @return the blunder rate, 0 if the level has no handicap.
+     * @since 1.0
+     */
+    public double getBlunderRate(Difficulty level) {
+        return blunderRates[level.ordinal()];
+    }
+
+    /**
+     * Retrieves the share of games a level should win.
+     *
+     * @param level the difficulty level.
+     * @return the target win rate, 0 if the level was not calibrated.
+     * @since 1.0
+     */
+    public double getTargetWinRate(Difficulty level) {
+        return targetWinRates[level.ordinal()];
+    }
+
+    /**
+     * Retrieves the share of games a level won with its handicap.
+     *
+     * @param level the difficulty level.
+     * @return the measured win rate, 0 if the level was not calibrated.
+     * @since 1.0
+     */
+    public double getWinRate(Difficulty level) {
+        return winRates[level.ordinal()];
+    }
+
+    /**
+     * Retrieves the number of games simulated per measurement.
+     *
+     * @return the number of games.
+     * @since 1.0
+     */
+    public int getGames() {
+        return games;
+    }
+
+    /**
+     * Retrieves the seed of the simulated games.
+     *
+     * @return the seed.
+     * @since 1.0
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Reads a calibration stored as properties.
+     *
+     * @param in the stream holding the calibration; it is not closed.
+     * @return the calibration.
+     * @throws IOException if the stream cannot be read.
+     * @throws IllegalArgumentException if a value is not a number.
+     * @since 1.0
+     */
+    public static DifficultyCalibration read(InputStream in) throws IOException {
+        Properties properties = new Properties();
+        properties.load(in);
+        DifficultyCalibration calibration = new DifficultyCalibration(
+                Integer.parseInt(properties.getProperty("games", "0")),
+                Long.parseLong(properties.getProperty("seed", "0")));
+        for (Difficulty level : Difficulty.values()) {
+            String blunderRate = properties.getProperty(level + ".blunderRate");
+            if (blunderRate == null) continue;
+            calibration.set(level,
+                    Double.parseDouble(properties.getProperty(level + ".targetWinRate", "0")),
+                    Double.parseDouble(blunderRate),
+                    Double.parseDouble(properties.getProperty(level + ".winRate", "0")));
+        }
+        return calibration;
+    }
+
+    /**
+     * Writes the calibration as properties, in a fixed order and without a timestamp, so the same run
+     * always writes the same file. Only the calibrated levels are written.
+     *
+     * @param out the stream receiving the calibration; it is not closed.
+     * @throws IOException if the calibration cannot be written.
+     * @since 1.0
+     */
+    public void write(OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.ISO_8859_1);
+        writer.write("# Generado por DifficultyCalibrator\n");
+        writer.write("games=" + games + "\n");
+        writer.write("seed=" + seed + "\n");
+        for (Difficulty level : Difficulty.values()) {
+            int i = level.ordinal();
+            if (targetWinRates[i] == 0) continue;
+            writer.write(level + ".targetWinRate=" + targetWinRates[i] + "\n");
+            writer.write(level + ".blunderRate=" + blunderRates[i] + "\n");
+            writer.write(level + ".winRate=" + winRates[i] + "\n");
+        }
+        writer.flush();
+    }
+
+    private static DifficultyCalibration load(String resource) {
+        try (InputStream in = DifficultyCalibration.class.getResourceAsStream(resource)) {
+            return in == null ? null : read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer la calibración de las dificultades " + resource, e);
+        }
+    }
+
+    // Loaded on first use, so games that never create a strategy never read it
+    private static final class StandardHolder {
+        private static final DifficultyCalibration CALIBRATION = load(STANDARD_RESOURCE);
+    }
+}
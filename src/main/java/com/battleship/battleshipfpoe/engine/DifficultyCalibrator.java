@@ -0,0 +1,265 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Fits the handicaps of the difficulty levels offline, from batches of headless games against a
+ * reference bot that plays like a casual human: it hunts and follows up its hits, but fires at a
+ * random cell on {@link #REFERENCE_BLUNDER_RATE} of its shots. For every level the calibrator
+ * bisects the probability of a blunder of its {@link HandicapStrategy}, up to
+ * {@link #MAX_BLUNDER_RATE}, until the level wins its target share of the games. The default targets
+ * sit just below what each level wins on its own, so the handicaps only smooth the steps between the
+ * levels and never turn a level into a random shooter; the easy level fires at random and is not
+ * calibrated.
+ * <p>
+ * The games of a batch run in parallel on the common {@link java.util.concurrent.ForkJoinPool}. Every
+ * game draws its fleets and the randomness of both players from its own seed, derived from the seed of
+ * the run, and the shooters never look at the clock: the endgame solver is bounded by
+ * {@link #ENDGAME_NODE_LIMIT} nodes instead of a deadline. A seed thus reproduces the whole
+ * calibration on any machine, and every measurement plays the same games, so the win rate only
+ * changes with the handicap. Both fleets are placed at random, since the {@link LayoutOptimizer} is
+ * bounded by time; the reference bot fires first, as the player does.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class DifficultyCalibrator {
+    /**
+     * Probability that the reference bot fires at a random cell.
+     */
+    public static final double REFERENCE_BLUNDER_RATE = 0.25;
+
+    /**
+     * Highest probability of a blunder the calibrator gives a level.
+     */
+    public static final double MAX_BLUNDER_RATE = 0.25;
+
+    /**
+     * Maximum number of positions searched by the endgame solver per decision.
+     */
+    public static final long ENDGAME_NODE_LIMIT = 20_000;
+
+    /**
+     * Default number of games per measurement.
+     */
+    public static final int DEFAULT_GAMES = 2000;
+
+    /**
+     * Default number of bisection steps per level.
+     */
+    public static final int DEFAULT_STEPS = 10;
+
+    /**
+     * Default share of the games won by the medium level.
+     */
+    public static final double MEDIUM_TARGET = 0.52;
+
+    /**
+     * Default share of the games won by the hard level.
+     */
+    public static final double HARD_TARGET = 0.55;
+
+    private final GameSpec spec;
+    private final long seed;
+    private final long[] gameSeeds;
+    private final int steps;
+
+    /**
+     * Constructs a calibrator.
+     *
+     * @param spec the board dimensions and fleet of the games.
+     * @param games the number of games per measurement.
+     * @param steps the number of bisection steps per level.
+     * @param seed the seed of the games.
+     * @throws IllegalArgumentException if the number of games or steps is not positive.
+     * @since 1.0
+     */
+    public DifficultyCalibrator(GameSpec spec, int games, int steps, long seed) {
+        if (games <= 0 || steps <= 0) {
+            throw new IllegalArgumentException("La calibración necesita al menos una partida y un paso.");
+        }
+        this.spec = spec;
+        this.seed = seed;
+        this.gameSeeds = new SplittableRandom(seed).longs(games).toArray();
+        this.steps = steps;
+    }
+
+    /**
+     * Fits the handicap of a level. If the level wins less than the target without a handicap, it
+     * gets none, and if it still wins more with {@link #MAX_BLUNDER_RATE}, it gets that one.
+     *
+     * @param level the difficulty level.
+     * @param targetWinRate the share of games the level should win.
+     * @param calibration the calibration receiving the result.
+     * @since 1.0
+     */
+    public void calibrate(Difficulty level, double targetWinRate, DifficultyCalibration calibration) {
+        calibrate(level, targetWinRate, calibration, (measuredLevel, blunderRate, winRate) -> { });
+    }
+
+    /**
+     * Fits the handicap of a level, reporting every measurement as it is taken. If the level wins
+     * less than the target without a handicap, it gets none, and if it still wins more with
+     * {@link #MAX_BLUNDER_RATE}, it gets that one.
+     *
+     * @param level the difficulty level.
+     * @param targetWinRate the share of games the level should win.
+     * @param calibration the calibration receiving the result.
+     * @param progress the listener told about every measurement.
+     * @since 1.0
+     */
+    public void calibrate(Difficulty level, double targetWinRate, DifficultyCalibration calibration, Progress progress) {
+        double low = 0;
+        double high = MAX_BLUNDER_RATE;
+        double winRate = winRate(level, 0);
+        progress.measured(level, 0, winRate);
+        if (winRate <= targetWinRate) {
+            calibration.set(level, targetWinRate, 0, winRate);
+            return;
+        }
+        for (int step = 0; step < steps; step++) {
+            double blunderRate = (low + high) / 2;
+            double measured = winRate(level, blunderRate);
+            progress.measured(level, blunderRate, measured);
+            if (measured > targetWinRate) {
+                low = blunderRate;
+            } else {
+                high = blunderRate;
+            }
+        }
+        double blunderRate = (low + high) / 2;
+        calibration.set(level, targetWinRate, blunderRate, winRate(level, blunderRate));
+    }
+
+    /**
+     * Measures the share of games a level wins against the reference bot with a handicap.
+     *
+     * @param level the difficulty level.
+     * @param blunderRate the probability of a blunder of the level.
+     * @return the win rate of the level.
+     * @since 1.0
+     */
+    public double winRate(Difficulty level, double blunderRate) {
+        long wins = IntStream.range(0, gameSeeds.length).parallel()
+                .filter(game -> play(level, blunderRate, gameSeeds[game]) == Side.MACHINE)
+                .count();
+        return (double) wins / gameSeeds.length;
+    }
+
+    /**
+     * Plays one game of a level against the reference bot.
+     *
+     * @param level the difficulty level of the machine.
+     * @param blunderRate the probability of a blunder of the machine.
+     * @param gameSeed the seed of the game.
+     * @return the winner.
+     * @since 1.0
+     */
+    private Side play(Difficulty level, double blunderRate, long gameSeed) {
+        SplittableRandom random = new SplittableRandom(gameSeed);
+        BitBoard playerBoard = new BitBoard(spec);
+        BitBoard machineBoard = new BitBoard(spec);
+        FleetPlacer.placeRandomFleet(playerBoard, spec, random);
+        FleetPlacer.placeRandomFleet(machineBoard, spec, random);
+        SplittableRandom referenceRandom = random.split();
+        ShotStrategy reference = new HandicapStrategy(new HuntTargetStrategy(referenceRandom),
+                REFERENCE_BLUNDER_RATE, referenceRandom.split());
+        ShotStrategy machine = new HandicapStrategy(
+                level.createBaseStrategy(spec, random.split(), null, ENDGAME_NODE_LIMIT), blunderRate, random.split());
+
+        GameEngine engine = new GameEngine(playerBoard, machineBoard);
+        while (!engine.isGameOver()) {
+            Side shooter = engine.getTurn();
+            OpponentView view = engine.getView(shooter.opponent());
+            int cell = (shooter == Side.PLAYER ? reference : machine).chooseTarget(view, Long.MAX_VALUE);
+            engine.fire(shooter, view.rowOf(cell), view.colOf(cell));
+        }
+        return engine.getWinner();
+    }
+
+    /**
+     * Retrieves the seed of the games.
+     *
+     * @return the seed.
+     * @since 1.0
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retrieves the number of games per measurement.
+     *
+     * @return the number of games.
+     * @since 1.0
+     */
+    public int getGames() {
+        return gameSeeds.length;
+    }
+
+    /**
+     * Calibrates the medium and hard levels of the standard game and writes the calibration.
+     *
+     * @param args the output file, the number of games per measurement (2000 by default), the seed
+     *             (1 by default), the number of bisection steps and the target win rates of the medium
+     *             and hard levels.
+     * @throws IOException if the calibration cannot be written.
+     * @since 1.0
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Path.of(args.length > 0 ? args[0] : "src/main/resources" + DifficultyCalibration.STANDARD_RESOURCE);
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_GAMES;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        int steps = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_STEPS;
+        double[] targets = {
+                args.length > 4 ? Double.parseDouble(args[4]) : MEDIUM_TARGET,
+                args.length > 5 ? Double.parseDouble(args[5]) : HARD_TARGET
+        };
+
+        long start = System.nanoTime();
+        DifficultyCalibrator calibrator = new DifficultyCalibrator(GameSpec.STANDARD, games, steps, seed);
+        DifficultyCalibration calibration = new DifficultyCalibration(games, seed);
+        Difficulty[] levels = {Difficulty.MEDIUM, Difficulty.HARD};
+        for (int i = 0; i < levels.length; i++) {
+            calibrator.calibrate(levels[i], targets[i], calibration, (level, blunderRate, winRate) ->
+                    System.out.printf("%s: error %.4f gana %.3f%n", level, blunderRate, winRate));
+            System.out.printf("%s: objetivo %.3f, error %.4f, gana %.3f%n", levels[i], targets[i],
+                    calibration.getBlunderRate(levels[i]), calibration.getWinRate(levels[i]));
+        }
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (OutputStream out = Files.newOutputStream(path)) {
+            calibration.write(out);
+        }
+        System.out.printf("Calibración de las dificultades: %d partidas por medida en %s (%.1f s)%n",
+                games, path, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Listener of the measurements taken while a level is calibrated.
+     *
+     * @since 1.0
+     */
+    @FunctionalInterface
+    public interface Progress {
+        /**
+         * Called after the win rate of a level has been measured with a handicap.
+         *
+         * @param level the difficulty level.
+         * @param blunderRate the probability of a blunder of the level.
+         * @param winRate the share of games the level won.
+         * @since 1.0
+         */
+        void measured(Difficulty level, double blunderRate, double winRate);
+    }
+}
@@ -0,0 +1,637 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.Arrays;
+
+/**
+ * Exhaustive solver of the end of a game, which minimizes the expected number of shots left.
+ * The solver enumerates every layout of the afloat ships that is consistent with the visible board
+ * and treats them as equally likely. An afloat ship never lies entirely on hits, since it would
+ * already be sunk. Firing at a cell splits the layouts by outcome (a miss, a hit, or
+ * the sinking of a ship at a given position), and the expected number of shots of a set of layouts
+ * is one plus the mean over the outcomes of the expected shots of each part, minimized over the cells.
+ * <p>
+ * A position is bounded from below by the shots still needed to hit the unresolved ship cells plus
+ * the misses implied by how many layouts a single shot can hit, which lets the search skip cells,
+ * cut off outcomes that cannot beat the best cell found so far and stop once a cell meets the bound. Solved
+ * positions are memoized in a {@link TranspositionTable} keyed by the Zobrist hash of the visible
+ * board. The hash does not depend on the layouts, so entries stay valid from one decision, and one
+ * game, to the next, and the positions searched ahead are usually found again as the game goes on.
+ * <p>
+ * A position is only solved when it has at most {@code maxLayouts} consistent layouts; larger ones
+ * are rejected after a cheap upper bound or a bounded enumeration. The search stops at its deadline,
+ * or after a number of nodes when the result must not depend on the speed of the machine, and after a
+ * timeout the solver waits for positions of half the size before trying again.
+ * <p>
+ * The placements of the ships are numbered rather than stored, and their cells decoded from the
+ * number, so the memory of the solver does not grow with the board beyond a few planes; the planes of
+ * the layouts are only allocated once a position is small enough to be solved.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class EndgameSolver {
+    /**
+     * Default maximum number of consistent layouts of a position to be solved.
+     */
+    public static final int DEFAULT_MAX_LAYOUTS = 256;
+
+    private static final long KEY_SEED = 0x7AB1E5EEDL;
+    private static final int GATE_SLACK = 16;
+    private static final int NODES_PER_LAYOUT = 64;
+    private static final int NODES_PER_CLOCK_CHECK = 256;
+    private static final double EPSILON = 1e-9;
+
+    private final GameSpec spec;
+    private final int cols;
+    private final int cellCount;
+    private final int words;
+    private final int maxLayouts;
+    private final TranspositionTable table;
+    private final ZobristKeys keys;
+
+    // Placements of every length, indexed by placement: the first one of each length is lengthStart[length],
+    // the horizontal ones before the vertical ones, so their cells are decoded from the index
+    private final int[] lengthStart;
+
+    private final int[] afloat;
+    private final int[] lengthCount;
+    private final long[] blocked;
+    private final long[] required;
+    private final long[] used;
+    private final long[] shot;
+    private final long[] hit;
+    private final int[] placed;
+    private final int[] layoutPlacements;
+    private long[] layoutOccupied;      // Allocated once a position passes the gate
+    private int afloatCount;
+    private int layoutCount;
+    private int enumerationBudget;
+
+    private OpponentView lastView;
+    private int retryBelow;
+    private long deadline;
+    private long nodeLimit = Long.MAX_VALUE;
+    private boolean aborted;
+    private int bestCell;
+    private long nodes;
+    private int lastLayouts;
+    private double lastExpectedShots;
+
+    /**
+     * Constructs a solver with the default threshold and table size.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @since 1.0
+     */
+    public EndgameSolver(GameSpec spec) {
+        this(spec, DEFAULT_MAX_LAYOUTS, new TranspositionTable(TranspositionTable.DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Constructs a solver.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @param maxLayouts the maximum number of consistent layouts of a position to be solved.
+     * @param table the table that memoizes the solved positions.
+     * @throws IllegalArgumentException if the threshold is not positive.
+     * @since 1.0
+     */
+    public EndgameSolver(GameSpec spec, int maxLayouts, TranspositionTable table) {
+        if (maxLayouts <= 0) {
+            throw new IllegalArgumentException("El umbral de ubicaciones debe ser positivo: " + maxLayouts);
+        }
+        this.spec = spec;
+        this.cols = spec.getCols();
+        this.cellCount = spec.getCellCount();
+        this.words = BitBoard.wordsFor(cellCount);
+        this.maxLayouts = maxLayouts;
+        this.table = table;
+        this.keys = new ZobristKeys(cellCount, KEY_SEED);
+
+        int maxLength = spec.getMaxShipLength();
+        lengthStart = new int[maxLength + 2];
+        int count = 0;
+        for (int length = 1; length <= maxLength; length++) {
+            lengthStart[length] = count;
+            count += placementsOf(length);
+        }
+        lengthStart[maxLength + 1] = count;
+
+        int ships = spec.getShipCount();
+        afloat = new int[ships];
+        lengthCount = new int[maxLength + 1];
+        blocked = new long[words];
+        required = new long[words];
+        used = new long[words];
+        shot = new long[words];
+        hit = new long[words];
+        placed = new int[ships];
+        layoutPlacements = new int[maxLayouts * ships];
+    }
+
+    /**
+     * Solves the position of a board if it is small enough.
+     *
+     * @param view the opponent's board.
+     * @param deadlineNanos the {@link System#nanoTime()} value by which the search must stop.
+     * @return the cell that minimizes the expected shots left, or {@link ShotStrategy#NO_TARGET} if
+     * the position has too many layouts or the search ran out of time.
+     * @throws IllegalArgumentException if the board does not have the dimensions of the spec.
+     * @since 1.0
+     */
+    public int solve(OpponentView view, long deadlineNanos) {
+        if (view.getRows() != spec.getRows() || view.getCols() != cols) {
+            throw new IllegalArgumentException("El tablero no tiene las dimensiones de la estrategia.");
+        }
+        if (view != lastView) {
+            lastView = view;
+            retryBelow = Integer.MAX_VALUE;
+        }
+        readBoard(view);
+        if (!enumerateLayouts() || layoutCount >= retryBelow) return ShotStrategy.NO_TARGET;
+
+        int remaining = -Long.bitCount(required[0]);
+        for (int w = 1; w < words; w++) {
+            remaining -= Long.bitCount(required[w]);
+        }
+        for (int ship = 0; ship < afloatCount; ship++) {
+            remaining += afloat[ship];
+        }
+        int[] alive = new int[layoutCount];
+        for (int i = 0; i < alive.length; i++) {
+            alive[i] = i;
+        }
+        deadline = deadlineNanos;
+        aborted = false;
+        nodes = 0;
+        double expected = search(alive, keys.hash(view), remaining, Double.POSITIVE_INFINITY);
+        if (aborted) { // Skip positions of this size until the game gets smaller
+            retryBelow = layoutCount / 2;
+            return ShotStrategy.NO_TARGET;
+        }
+        if (bestCell < 0 || !view.isTarget(bestCell)) return ShotStrategy.NO_TARGET;
+        lastLayouts = layoutCount;
+        lastExpectedShots = expected;
+        return bestCell;
+    }
+
+    /**
+     * Limits the number of positions searched by every call to {@link #solve}, on top of its deadline.
+     * A search that reaches the limit is treated as a timeout, so with an unreachable deadline the
+     * decisions of the solver are reproducible.
+     *
+     * @param nodeLimit the maximum number of search nodes, or {@link Long#MAX_VALUE} for no limit.
+     * @throws IllegalArgumentException if the limit is not positive.
+     * @since 1.0
+     */
+    public void setNodeLimit(long nodeLimit) {
+        if (nodeLimit <= 0) {
+            throw new IllegalArgumentException("El límite de nodos debe ser positivo: " + nodeLimit);
+        }
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Retrieves the number of consistent layouts of the last position solved.
+     *
+     * @return the number of layouts.
+     * @since 1.0
+     */
+    public int getLastLayouts() {
+        return lastLayouts;
+    }
+
+    /**
+     * Retrieves the expected number of shots left of the last position solved, with perfect play.
+     *
+     * @return the expected shots to sink the afloat ships.
+     * @since 1.0
+     */
+    public double getLastExpectedShots() {
+        return lastExpectedShots;
+    }
+
+    /**
+     * Retrieves the number of positions searched by the last call to {@link #solve}.
+     *
+     * @return the number of search nodes.
+     * @since 1.0
+     */
+    public long getLastNodes() {
+        return nodes;
+    }
+
+    /**
+     * Retrieves the table that memoizes the solved positions, along with its statistics.
+     *
+     * @return the transposition table.
+     * @since 1.0
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Computes the expected shots left of a set of layouts, or a lower bound of at least
+     * {@code beta} when it cannot be below {@code beta}. The best cell is left in {@link #bestCell}.
+     *
+     * @param alive the layouts consistent with the position.
+     * @param hash the Zobrist hash of the position.
+     * @param remaining the ship cells not hit yet, which is the same for every layout.
+     * @param beta the value above which the exact result is not needed.
+     * @return the exact value if it is below {@code beta}, otherwise a lower bound not below it.
+     * @since 1.0
+     */
+    private double search(int[] alive, long hash, int remaining, double beta) {
+        if (remaining == 0) {
+            bestCell = ShotStrategy.NO_TARGET;
+            return 0;
+        }
+        if (alive.length == 1) { // Nothing left to find out: fire at the ship cells one by one
+            bestCell = firstUnshot(alive[0]);
+            return remaining;
+        }
+        if (++nodes > nodeLimit || (nodes % NODES_PER_CLOCK_CHECK == 0 && System.nanoTime() > deadline)) {
+            aborted = true;
+        }
+        if (aborted) return Double.POSITIVE_INFINITY;
+        int slot = table.probe(hash);
+        if (slot >= 0 && (table.isExactAt(slot) || table.valueAt(slot) >= beta)) {
+            bestCell = table.cellAt(slot);
+            return table.valueAt(slot);
+        }
+
+        long[] candidates = candidateCells(alive);
+        int n = alive.length;
+        int maxCoverage = (int) -(candidates[0] >> 32);
+        double bound = remaining + missBound(n, maxCoverage);
+        if (bound >= beta) {
+            table.store(hash, bound, ShotStrategy.NO_TARGET, n, false);
+            bestCell = ShotStrategy.NO_TARGET;
+            return bound;
+        }
+        long[] order = new long[n];
+        double best = beta;
+        int bestHere = ShotStrategy.NO_TARGET;
+        for (int k = 0; k < candidates.length && best > bound + EPSILON; k++) {
+            int cell = (int) candidates[k];
+            for (int i = 0; i < n; i++) {
+                order[i] = (long) outcomeOf(alive[i], cell) << 32 | i;
+            }
+            Arrays.sort(order);
+
+            // Lower bound of the cell: one shot plus the lower bound of every outcome
+            double total = 1;
+            for (int i = 0; i < n; ) {
+                int end = runEnd(order, i);
+                int childRemaining = remaining - ((order[i] >>> 32) == 0 ? 0 : 1);
+                total += (double) (end - i) / n * (childRemaining + missBound(end - i, maxCoverage));
+                i = end;
+            }
+            if (total >= best) continue;
+
+            boolean cut = false;
+            for (int i = 0; i < n && !cut; ) {
+                int end = runEnd(order, i);
+                int outcome = (int) (order[i] >>> 32);
+                double p = (double) (end - i) / n;
+                int childRemaining = remaining - (outcome == 0 ? 0 : 1);
+                double childBound = childRemaining + missBound(end - i, maxCoverage);
+                double childBeta = childBound + (best - total) / p;
+                int[] child = new int[end - i];
+                for (int j = i; j < end; j++) {
+                    child[j - i] = alive[(int) order[j]];
+                }
+                long childHash = apply(hash, cell, outcome);
+                double value = search(child, childHash, childRemaining, childBeta);
+                undo(cell);
+                if (aborted) return Double.POSITIVE_INFINITY;
+                if (value >= childBeta) {
+                    cut = true;
+                } else {
+                    total += p * (value - childBound);
+                }
+                i = end;
+            }
+            if (!cut && total < best) {
+                best = total;
+                bestHere = cell;
+            }
+        }
+        table.store(hash, best, bestHere, n, bestHere != ShotStrategy.NO_TARGET);
+        bestCell = bestHere;
+        return best;
+    }
+
+    /**
+     * Bounds the expected misses of a set of layouts from below.
+     * The shots that miss a layout before its first hit all lie on the chain of nodes where every
+     * shot missed, and a shot there is the first hit of at most {@code maxCoverage} layouts, so the
+     * i-th layout to be hit, counting from 0, waits at least {@code i / maxCoverage} misses.
+     *
+     * @param n the number of layouts.
+     * @param maxCoverage the most layouts covering one untargeted cell.
+     * @return the mean of the minimum misses over the layouts.
+     * @since 1.0
+     */
+    private static double missBound(int n, int maxCoverage) {
+        int q = n / maxCoverage;
+        int r = n % maxCoverage;
+        return ((double) maxCoverage * q * (q - 1) / 2 + (double) r * q) / n;
+    }
+
+    /**
+     * Lists the untargeted cells covered by at least one layout, the most covered first.
+     * A cell covered by every layout is a sure hit, which has to be fired at sooner or later and
+     * can only add information, so it is the only candidate when there is one.
+     *
+     * @param alive the layouts of the position.
+     * @return the cells in the low half of every entry and their negated coverage in the high half.
+     * @since 1.0
+     */
+    private long[] candidateCells(int[] alive) {
+        int[] coverage = new int[cellCount];
+        int distinct = 0;
+        for (int layout : alive) {
+            for (int w = 0; w < words; w++) {
+                for (long bits = layoutOccupied[layout * words + w] & ~shot[w]; bits != 0; bits &= bits - 1) {
+                    if (coverage[(w << 6) + Long.numberOfTrailingZeros(bits)]++ == 0) {
+                        distinct++;
+                    }
+                }
+            }
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (coverage[cell] == alive.length) return new long[]{(long) -alive.length << 32 | cell};
+        }
+        long[] candidates = new long[distinct];
+        int k = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (coverage[cell] > 0) {
+                candidates[k++] = (long) -coverage[cell] << 32 | cell;
+            }
+        }
+        Arrays.sort(candidates);
+        return candidates;
+    }
+
+    /**
+     * Classifies the outcome of firing at a cell under one layout.
+     *
+     * @return 0 for a miss, 1 for a hit, or 2 plus the placement of the ship it sinks.
+     */
+    private int outcomeOf(int layout, int cell) {
+        long bit = 1L << cell;
+        if ((layoutOccupied[layout * words + (cell >>> 6)] & bit) == 0) return 0;
+        for (int ship = 0; ship < afloatCount; ship++) {
+            int placement = layoutPlacements[layout * afloat.length + ship];
+            int length = afloat[ship];
+            int first = firstCell(placement, length);
+            int step = stepOf(placement, length);
+            boolean covers = false;
+            boolean sinks = true;
+            for (int s = 0, c = first; s < length; s++, c += step) {
+                if (c == cell) {
+                    covers = true;
+                } else if ((hit[c >>> 6] & 1L << c) == 0) {
+                    sinks = false;
+                }
+            }
+            if (covers) return sinks ? 2 + placement : 1;
+        }
+        return 1;
+    }
+
+    /**
+     * Fires at a cell on the scratch planes and updates the hash with the outcome.
+     *
+     * @return the hash of the resulting position.
+     */
+    private long apply(long hash, int cell, int outcome) {
+        shot[cell >>> 6] |= 1L << cell;
+        if (outcome == 0) {
+            return hash ^ keys.key(cell, ZobristKeys.MISS);
+        }
+        hit[cell >>> 6] |= 1L << cell;
+        if (outcome == 1) {
+            return hash ^ keys.key(cell, ZobristKeys.HIT);
+        }
+        int placement = outcome - 2;
+        int length = lengthOf(placement);
+        int step = stepOf(placement, length);
+        for (int s = 0, c = firstCell(placement, length); s < length; s++, c += step) {
+            hash ^= keys.key(c, ZobristKeys.SUNK) ^ (c == cell ? 0 : keys.key(c, ZobristKeys.HIT));
+        }
+        return hash;
+    }
+
+    private void undo(int cell) {
+        shot[cell >>> 6] &= ~(1L << cell);
+        hit[cell >>> 6] &= ~(1L << cell);
+    }
+
+    private int firstUnshot(int layout) {
+        for (int w = 0; w < words; w++) {
+            long bits = layoutOccupied[layout * words + w] & ~shot[w];
+            if (bits != 0) return (w << 6) + Long.numberOfTrailingZeros(bits);
+        }
+        return ShotStrategy.NO_TARGET;
+    }
+
+    private static int runEnd(long[] order, int start) {
+        int end = start + 1;
+        while (end < order.length && order[end] >>> 32 == order[start] >>> 32) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Reads the shot, hit, blocked and required planes and the afloat lengths, longest first.
+     *
+     * @param view the opponent's board.
+     * @since 1.0
+     */
+    private void readBoard(OpponentView view) {
+        Arrays.fill(blocked, 0L);
+        Arrays.fill(required, 0L);
+        Arrays.fill(shot, 0L);
+        Arrays.fill(hit, 0L);
+        for (int cell = 0; cell < cellCount; cell++) {
+            int row = cell / cols;
+            int col = cell % cols;
+            if (!view.isShot(row, col)) continue;
+            long bit = 1L << cell;
+            shot[cell >>> 6] |= bit;
+            if (view.isHit(row, col)) {
+                hit[cell >>> 6] |= bit;
+            }
+            if (view.isOpenHit(row, col)) {
+                required[cell >>> 6] |= bit;
+            } else {
+                blocked[cell >>> 6] |= bit;
+            }
+        }
+        afloatCount = view.getAfloatLengths(afloat);
+        Arrays.sort(afloat, 0, afloatCount);
+        for (int i = 0; i < afloatCount / 2; i++) {
+            int swap = afloat[i];
+            afloat[i] = afloat[afloatCount - 1 - i];
+            afloat[afloatCount - 1 - i] = swap;
+        }
+    }
+
+    /**
+     * Enumerates the consistent layouts of the afloat ships, giving up as soon as the position
+     * turns out to be too large.
+     *
+     * @return true if every layout was enumerated and there are between 1 and {@code maxLayouts}.
+     * @since 1.0
+     */
+    private boolean enumerateLayouts() {
+        // Every shot cell rules out at most 2 * length placements of a ship, so on a large board with
+        // few shots the position is too large before any placement is checked
+        int shotCells = 0;
+        for (int w = 0; w < words; w++) {
+            shotCells += Long.bitCount(shot[w]);
+        }
+        Arrays.fill(lengthCount, 0);
+        double lowerBound = 1;
+        for (int ship = 0; ship < afloatCount; ship++) {
+            int length = afloat[ship];
+            int placements = lengthStart[length + 1] - lengthStart[length];
+            lowerBound = lowerBound * Math.max(0, placements - shotCells * 2 * length) / ++lengthCount[length];
+        }
+        if (lowerBound > (double) maxLayouts * GATE_SLACK) return false;
+
+        // Upper bound: legal placements of every ship on its own, divided among equal lengths
+        Arrays.fill(lengthCount, 0);
+        double bound = 1;
+        int legal = 0;
+        for (int ship = 0; ship < afloatCount; ship++) {
+            int length = afloat[ship];
+            if (ship == 0 || afloat[ship - 1] != length) { // The lengths are sorted, so each is counted once
+                legal = 0;
+                for (int p = lengthStart[length]; p < lengthStart[length + 1]; p++) {
+                    legal += fits(p, length) ? 1 : 0;
+                }
+            }
+            bound = bound * legal / ++lengthCount[length];
+        }
+        if (bound > (double) maxLayouts * GATE_SLACK) return false;
+
+        if (layoutOccupied == null) {
+            layoutOccupied = new long[maxLayouts * words];
+        }
+        Arrays.fill(used, 0L);
+        layoutCount = 0;
+        enumerationBudget = maxLayouts * NODES_PER_LAYOUT;
+        return enumerate(0, 0) && layoutCount > 0;
+    }
+
+    private boolean enumerate(int ship, int minPlacement) {
+        if (--enumerationBudget < 0) return false;
+        int uncovered = 0;
+        for (int w = 0; w < words; w++) {
+            uncovered += Long.bitCount(required[w] & ~used[w]);
+        }
+        int lengthLeft = 0;
+        for (int s = ship; s < afloatCount; s++) {
+            lengthLeft += afloat[s];
+        }
+        if (uncovered > lengthLeft) return true; // Dead end
+        if (ship == afloatCount) {
+            if (layoutCount == maxLayouts) return false;
+            System.arraycopy(placed, 0, layoutPlacements, layoutCount * afloat.length, afloatCount);
+            System.arraycopy(used, 0, layoutOccupied, layoutCount * words, words);
+            layoutCount++;
+            return true;
+        }
+        int length = afloat[ship];
+        // Ships of equal length are placed in increasing order, so each layout is found once
+        int from = ship > 0 && afloat[ship - 1] == length ? minPlacement : lengthStart[length];
+        for (int p = from; p < lengthStart[length + 1]; p++) {
+            if (!fits(p, length) || overlaps(p, length, used)) continue;
+            toggle(p, length);
+            placed[ship] = p;
+            boolean complete = enumerate(ship + 1, p + 1);
+            toggle(p, length);
+            if (!complete) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether an afloat ship can lie on a placement: it must avoid the blocked cells, and it
+     * cannot lie entirely on open hits, since it would already be sunk.
+     */
+    private boolean fits(int placement, int length) {
+        int step = stepOf(placement, length);
+        boolean onHitsOnly = true;
+        for (int s = 0, c = firstCell(placement, length); s < length; s++, c += step) {
+            if ((blocked[c >>> 6] & 1L << c) != 0) return false;
+            onHitsOnly &= (required[c >>> 6] & 1L << c) != 0;
+        }
+        return !onHitsOnly;
+    }
+
+    private boolean overlaps(int placement, int length, long[] plane) {
+        int step = stepOf(placement, length);
+        for (int s = 0, c = firstCell(placement, length); s < length; s++, c += step) {
+            if ((plane[c >>> 6] & 1L << c) != 0) return true;
+        }
+        return false;
+    }
+
+    private void toggle(int placement, int length) {
+        int step = stepOf(placement, length);
+        for (int s = 0, c = firstCell(placement, length); s < length; s++, c += step) {
+            used[c >>> 6] ^= 1L << c;
+        }
+    }
+
+    private int lengthOf(int placement) {
+        int length = 1;
+        while (placement >= lengthStart[length + 1]) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Decodes the first cell of a placement: the horizontal placements of a length are numbered row by
+     * row over the columns where the ship fits, and the vertical ones by their first cell.
+     */
+    private int firstCell(int placement, int length) {
+        int index = placement - lengthStart[length];
+        int across = cols - length + 1;
+        int horizontal = horizontalPlacements(length);
+        return index < horizontal ? index / across * cols + index % across : index - horizontal;
+    }
+
+    private int stepOf(int placement, int length) {
+        return placement - lengthStart[length] < horizontalPlacements(length) ? 1 : cols;
+    }
+
+    private int horizontalPlacements(int length) {
+        return spec.getRows() * Math.max(0, cols - length + 1);
+    }
+
+    /**
+     * Counts the placements of a length; a ship of one cell is only counted horizontally.
+     *
+     * @param length the length of the ship.
+     * @return the number of placements.
+     * @since 1.0
+     */
+    private int placementsOf(int length) {
+        int vertical = length > 1 ? Math.max(0, spec.getRows() - length + 1) * cols : 0;
+        return horizontalPlacements(length) + vertical;
+    }
+}
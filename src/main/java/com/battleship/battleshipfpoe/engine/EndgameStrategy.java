@@ -0,0 +1,78 @@
+package com.battleship.battleshipfpoe.engine;
+
+/**
+ * Plays perfectly once the game is small enough to be solved, and like another strategy before that.
+ * Every decision first asks the {@link EndgameSolver}, with half of the remaining time budget; when
+ * the position has too many consistent layouts, or the search runs out of time, the wrapped strategy
+ * decides with the rest of the budget.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class EndgameStrategy implements ShotStrategy {
+    private final EndgameSolver solver;
+    private final ShotStrategy delegate;
+    private long solvedDecisions;
+
+    /**
+     * Constructs a strategy that switches to the solver in the endgame.
+     *
+     * @param solver the solver of the game's spec.
+     * @param delegate the strategy used while the position is too large to solve.
+     * @since 1.0
+     */
+    public EndgameStrategy(EndgameSolver solver, ShotStrategy delegate) {
+        this.solver = solver;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int chooseTarget(OpponentView view, long deadlineNanos) {
+        long now = System.nanoTime();
+        int cell = solver.solve(view, now + (deadlineNanos - now) / 2);
+        if (cell != NO_TARGET) {
+            solvedDecisions++;
+            return cell;
+        }
+        return delegate.chooseTarget(view, deadlineNanos);
+    }
+
+    /**
+     * Prepares the strategy for a new game. The solved positions are kept, since they do not depend
+     * on the game they were found in.
+     *
+     * @since 1.0
+     */
+    @Override
+    public void reset() {
+        solvedDecisions = 0;
+        solver.getTable().resetStats();
+        delegate.reset();
+    }
+
+    /**
+     * Retrieves the number of decisions taken by the solver since the last reset.
+     *
+     * @return the number of solved decisions.
+     * @since 1.0
+     */
+    public long getSolvedDecisions() {
+        return solvedDecisions;
+    }
+
+    /**
+     * Retrieves the endgame solver.
+     *
+     * @return the solver.
+     * @since 1.0
+     */
+    public EndgameSolver getSolver() {
+        return solver;
+    }
+}
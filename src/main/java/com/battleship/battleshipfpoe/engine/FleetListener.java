@@ -0,0 +1,19 @@
+package com.battleship.battleshipfpoe.engine;
+
+/**
+ * Listener notified whenever the live counters of a {@link ShipIndex} change,
+ * i.e. when a ship is placed, a segment is hit or the index is cleared.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface FleetListener {
+    void fleetChanged(int sunkShips, int afloatCells);
+}
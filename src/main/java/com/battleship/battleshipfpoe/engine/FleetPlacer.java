@@ -0,0 +1,96 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * Places fleets at random on a {@link BitBoard}.
+ * Whole fleets are placed by a {@link PlacementGenerator}, which backtracks instead of retrying
+ * random anchors, so placement always terminates. Every ship is registered in the board's
+ * {@link ShipIndex} in fleet order.
+ * <p>
+ * The feasibility search of a spec runs once: its generator is kept per spec and every thread
+ * places fleets with its own copy of the last one it used.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class FleetPlacer {
+    private static final Map<GameSpec, PlacementGenerator> PROTOTYPES = new ConcurrentHashMap<>();
+    private static final ThreadLocal<PlacementGenerator> GENERATORS = new ThreadLocal<>();
+
+    private FleetPlacer() {
+    }
+
+    /**
+     * Places every ship of a spec's fleet at a random valid position.
+     *
+     * @param board the board to place the ships on.
+     * @param spec the spec whose fleet is placed.
+     * @param random the source of randomness.
+     * @throws IllegalArgumentException if the fleet cannot be placed on the board.
+     * @throws IllegalStateException if the board already holds ships that leave no room for the fleet,
+     *                               or if the fleet is too tight for any layout to be found.
+     * @since 1.0
+     */
+    public static void placeRandomFleet(BitBoard board, GameSpec spec, RandomGenerator random) {
+        PlacementGenerator generator = GENERATORS.get();
+        if (generator == null || !generator.getSpec().equals(spec)) {
+            generator = new PlacementGenerator(PROTOTYPES.computeIfAbsent(spec, PlacementGenerator::new));
+            GENERATORS.set(generator);
+        }
+        generator.place(board, random);
+    }
+
+    /**
+     * Places every ship of a fleet at a random valid position.
+     *
+     * @param board the board to place the ships on.
+     * @param lengths the length of each ship, in placement order.
+     * @param random the source of randomness.
+     * @throws IllegalArgumentException if the fleet cannot be placed on a board of that size.
+     * @since 1.0
+     */
+    public static void placeRandomFleet(BitBoard board, int[] lengths, RandomGenerator random) {
+        placeRandomFleet(board, new GameSpec(board.getRows(), board.getCols(), lengths), random);
+    }
+
+    /**
+     * Places a single ship at a random legal anchor and orientation.
+     * The legal anchors are enumerated from the current occupancy and one of them is chosen
+     * uniformly by reservoir sampling, so the call never retries and allocates nothing.
+     *
+     * @param board the board to place the ship on.
+     * @param length the length of the ship.
+     * @param random the source of randomness.
+     * @return the id assigned to the ship in the board's {@link ShipIndex}, or {@link ShipIndex#NONE}
+     *         if the ship does not fit anywhere.
+     * @since 1.0
+     */
+    public static int placeRandomShip(BitBoard board, int length, RandomGenerator random) {
+        int seen = 0;
+        int pickRow = 0;
+        int pickCol = 0;
+        boolean pickHorizontal = true;
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < board.getCols(); col++) {
+                for (int o = 0; o < 2; o++) {
+                    boolean isHorizontal = o == 0;
+                    if (board.canPlace(row, col, length, isHorizontal) && random.nextInt(++seen) == 0) {
+                        pickRow = row;
+                        pickCol = col;
+                        pickHorizontal = isHorizontal;
+                    }
+                }
+            }
+        }
+        return seen == 0 ? ShipIndex.NONE : board.place(pickRow, pickCol, length, pickHorizontal);
+    }
+}
@@ -0,0 +1,338 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headless Battleship engine.
+ * Holds the boards of both sides and applies the turn rules: a side keeps firing while it hits,
+ * the turn passes to the opponent on a miss, and the game ends as soon as a fleet is fully sunk.
+ * In the salvo variant every turn is a single salvo of one shot per ship the shooter still has afloat,
+ * resolved in one pass by {@link #fireSalvo(Side, int[])}, after which the turn always passes.
+ * The engine has no JavaFX dependency; the user interface subscribes to its events through
+ * {@link GameEventListener}.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public class GameEngine {
+    private final BitBoard playerBoard;
+    private final BitBoard machineBoard;
+    private final TargetPool playerTargets;
+    private final TargetPool machineTargets;
+    private final OpponentView playerView;
+    private final OpponentView machineView;
+    private final List<GameEventListener> listeners;
+    private final boolean salvo;
+    private Side turn;
+    private Side winner;
+
+    /**
+     * Constructs an engine over the given boards. The player fires first.
+     *
+     * @param playerBoard the board owned by the player.
+     * @param machineBoard the board owned by the machine.
+     * @since 1.0
+     */
+    public GameEngine(BitBoard playerBoard, BitBoard machineBoard) {
+        this(playerBoard, machineBoard, false);
+    }
+
+    /**
+     * Constructs an engine over the given boards, for the classic game or the salvo variant. The
+     * player fires first.
+     *
+     * @param playerBoard the board owned by the player.
+     * @param machineBoard the board owned by the machine.
+     * @param salvo true to play by salvos, false to play one shot at a time.
+     * @since 1.0
+     */
+    public GameEngine(BitBoard playerBoard, BitBoard machineBoard, boolean salvo) {
+        this(playerBoard, machineBoard, salvo, Side.PLAYER);
+    }
+
+    /**
+     * Constructs an engine that resumes a game in progress, whose shots are already on the boards.
+     *
+     * @param playerBoard the board owned by the player.
+     * @param machineBoard the board owned by the machine.
+     * @param salvo true to play by salvos, false to play one shot at a time.
+     * @param turn the side that fires next.
+     * @since 1.0
+     */
+    GameEngine(BitBoard playerBoard, BitBoard machineBoard, boolean salvo, Side turn) {
+        this.salvo = salvo;
+        this.playerBoard = playerBoard;
+        this.machineBoard = machineBoard;
+        this.playerTargets = new TargetPool(playerBoard);
+        this.machineTargets = new TargetPool(machineBoard);
+        this.playerView = new OpponentView(playerBoard, playerTargets);
+        this.machineView = new OpponentView(machineBoard, machineTargets);
+        this.listeners = new ArrayList<>();
+        this.turn = turn;
+    }
+
+    /**
+     * Fires a shot for the given side at the opponent's board and applies the turn rules.
+     *
+     * @param shooter the side firing the shot.
+     * @param row the row of the shot.
+     * @param col the column of the shot.
+     * @return the outcome of the shot.
+     * @throws IllegalStateException if the game is over, it is not the shooter's turn or the game is
+     *                               played by salvos.
+     * @throws IllegalArgumentException if the cell has already been fired at.
+     * @since 1.0
+     */
+    public ShotOutcome fire(Side shooter, int row, int col) {
+        checkTurn(shooter);
+        if (salvo) {
+            throw new IllegalStateException("En una partida por salvas se dispara una salva completa.");
+        }
+        Side owner = shooter.opponent();
+        BitBoard target = getBoard(owner);
+        TargetPool targets = getTargets(owner);
+        if (!targets.contains(row, col)) {
+            throw new IllegalArgumentException("Disparo en una celda ya atacada.");
+        }
+        targets.remove(row, col);
+
+        ShipIndex ships = target.getShips();
+        int shipId = target.shoot(row, col);
+        ShotOutcome outcome = shipId == ShipIndex.NONE ? ShotOutcome.MISS
+                : ships.isSunk(shipId) ? ShotOutcome.SUNK : ShotOutcome.HIT;
+
+        for (GameEventListener listener : listeners) {
+            listener.shotFired(shooter, row, col, outcome);
+        }
+        if (outcome == ShotOutcome.SUNK) {
+            for (GameEventListener listener : listeners) {
+                listener.shipSunk(owner, ships.getRow(shipId), ships.getCol(shipId),
+                        ships.getLength(shipId), ships.isHorizontal(shipId));
+            }
+        }
+
+        if (ships.allSunk()) {
+            winner = shooter;
+            for (GameEventListener listener : listeners) {
+                listener.gameOver(winner);
+            }
+        } else if (outcome == ShotOutcome.MISS) {
+            turn = owner;
+            for (GameEventListener listener : listeners) {
+                listener.turnChanged(turn);
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Fires a salvo for the given side at the opponent's board. Every shot is checked before any is
+     * fired, the board resolves the hits and sinkings of the whole salvo in one pass, and the end of
+     * the game is checked once. The listeners receive the salvo as a single event, and then the turn
+     * passes to the opponent unless the salvo won the game.
+     *
+     * @param shooter the side firing the salvo.
+     * @param cells the linear indexes ({@code row * cols + col}) of the shots, all different.
+     * @return the outcome of the salvo.
+     * @throws IllegalStateException if the game is over, it is not the shooter's turn or the game is
+     *                               not played by salvos.
+     * @throws IllegalArgumentException if the salvo does not have {@link #getSalvoSize(Side)} shots,
+     *                                  repeats a cell or fires at a cell already fired at.
+     * @since 1.0
+     */
+    public SalvoResult fireSalvo(Side shooter, int[] cells) {
+        checkTurn(shooter);
+        if (!salvo) {
+            throw new IllegalStateException("La partida no es por salvas.");
+        }
+        int size = getSalvoSize(shooter);
+        if (cells.length != size) {
+            throw new IllegalArgumentException("La salva debe tener " + size + " disparos.");
+        }
+        Side owner = shooter.opponent();
+        BitBoard target = getBoard(owner);
+        TargetPool targets = getTargets(owner);
+        int cols = target.getCols();
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] < 0 || cells[i] >= target.getRows() * cols
+                    || !targets.contains(cells[i] / cols, cells[i] % cols)) {
+                throw new IllegalArgumentException("Disparo en una celda ya atacada.");
+            }
+            for (int j = 0; j < i; j++) {
+                if (cells[j] == cells[i]) {
+                    throw new IllegalArgumentException("La salva repite una celda.");
+                }
+            }
+        }
+
+        int[] rows = new int[cells.length];
+        int[] columns = new int[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            rows[i] = cells[i] / cols;
+            columns[i] = cells[i] % cols;
+            targets.remove(rows[i], columns[i]);
+        }
+        ShipIndex ships = target.getShips();
+        int[] shipIds = new int[cells.length];
+        target.fireAll(cells, cells.length, shipIds);
+
+        ShotOutcome[] outcomes = new ShotOutcome[cells.length];
+        List<ShipPlacement> sunkShips = new ArrayList<>();
+        for (int i = 0; i < cells.length; i++) {
+            int id = shipIds[i];
+            if (id == ShipIndex.NONE) {
+                outcomes[i] = ShotOutcome.MISS;
+                continue;
+            }
+            boolean last = ships.isSunk(id);
+            for (int j = i + 1; last && j < cells.length; j++) {
+                last = shipIds[j] != id; // Only the last shot at a ship sinks it
+            }
+            outcomes[i] = last ? ShotOutcome.SUNK : ShotOutcome.HIT;
+            if (last) {
+                sunkShips.add(ShipPlacement.of(ships, id));
+            }
+        }
+        boolean won = ships.allSunk();
+        SalvoResult result = new SalvoResult(shooter, rows, columns, outcomes, sunkShips, won);
+
+        for (GameEventListener listener : listeners) {
+            listener.salvoFired(result);
+        }
+        if (won) {
+            winner = shooter;
+            for (GameEventListener listener : listeners) {
+                listener.gameOver(winner);
+            }
+        } else {
+            turn = owner;
+            for (GameEventListener listener : listeners) {
+                listener.turnChanged(turn);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the number of shots of a side's next salvo: one per ship it still has afloat, and
+     * never more than the cells left to fire at. In the classic game every turn is a single shot.
+     *
+     * @param shooter the side firing.
+     * @return the number of shots of a salvo of that side.
+     * @since 1.0
+     */
+    public int getSalvoSize(Side shooter) {
+        if (!salvo) return 1;
+        return Math.min(getBoard(shooter).getShips().getShipsAfloat(), getTargets(shooter.opponent()).size());
+    }
+
+    /**
+     * Checks whether the game is played by salvos.
+     *
+     * @return true for the salvo variant, false for the classic game.
+     * @since 1.0
+     */
+    public boolean isSalvo() {
+        return salvo;
+    }
+
+    private void checkTurn(Side shooter) {
+        if (winner != null) {
+            throw new IllegalStateException("La partida ya terminó.");
+        }
+        if (shooter != turn) {
+            throw new IllegalStateException("No es el turno de " + shooter + ".");
+        }
+    }
+
+    /**
+     * Subscribes a listener to the engine events.
+     *
+     * @param listener the listener to add.
+     * @since 1.0
+     */
+    public void addListener(GameEventListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unsubscribes a listener from the engine events.
+     *
+     * @param listener the listener to remove.
+     * @since 1.0
+     */
+    public void removeListener(GameEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Retrieves the board owned by a side.
+     *
+     * @param owner the side that owns the board.
+     * @return the board of that side.
+     * @since 1.0
+     */
+    public BitBoard getBoard(Side owner) {
+        return owner == Side.PLAYER ? playerBoard : machineBoard;
+    }
+
+    /**
+     * Retrieves the cells of a side's board that have not been fired at yet.
+     * The pool is updated by the engine on every shot and must not be modified by callers.
+     *
+     * @param owner the side that owns the board.
+     * @return the untargeted cells of that side's board.
+     * @since 1.0
+     */
+    public TargetPool getTargets(Side owner) {
+        return owner == Side.PLAYER ? playerTargets : machineTargets;
+    }
+
+    /**
+     * Retrieves a read-only view of a side's board, as seen by the opponent firing at it.
+     *
+     * @param owner the side that owns the board.
+     * @return the live view of that side's board.
+     * @since 1.0
+     */
+    public OpponentView getView(Side owner) {
+        return owner == Side.PLAYER ? playerView : machineView;
+    }
+
+    /**
+     * Retrieves the side whose turn it is.
+     *
+     * @return the side allowed to fire next.
+     * @since 1.0
+     */
+    public Side getTurn() {
+        return turn;
+    }
+
+    /**
+     * Checks whether one of the fleets has been fully sunk.
+     *
+     * @return true if the game is over.
+     * @since 1.0
+     */
+    public boolean isGameOver() {
+        return winner != null;
+    }
+
+    /**
+     * Retrieves the winner of the game.
+     *
+     * @return the winning side, or {@code null} while the game is in progress.
+     * @since 1.0
+     */
+    public Side getWinner() {
+        return winner;
+    }
+}
@@ -0,0 +1,47 @@
+package com.battleship.battleshipfpoe.engine;
+
+/**
+ * Listener for the events emitted by a {@link GameEngine}.
+ * Every method has a default implementation so subscribers only override what they need: a salvo is
+ * replayed as the events of its single shots, and the other events are ignored.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public interface GameEventListener {
+    default void shotFired(Side shooter, int row, int col, ShotOutcome outcome) {
+    }
+
+    default void shipSunk(Side owner, int row, int col, int length, boolean isHorizontal) {
+    }
+
+    /**
+     * Receives the outcome of a whole salvo at once, so the subscriber can apply every shot in a
+     * single update. By default the salvo is replayed as one {@link #shotFired} per shot and one
+     * {@link #shipSunk} per sunk ship.
+     *
+     * @param salvo the outcome of the salvo.
+     * @since 1.0
+     */
+    default void salvoFired(SalvoResult salvo) {
+        Side shooter = salvo.getShooter();
+        for (int i = 0; i < salvo.getShotCount(); i++) {
+            shotFired(shooter, salvo.getRow(i), salvo.getCol(i), salvo.getOutcome(i));
+        }
+        for (ShipPlacement ship : salvo.getSunkShips()) {
+            shipSunk(shooter.opponent(), ship.getRow(), ship.getCol(), ship.getLength(), ship.isHorizontal());
+        }
+    }
+
+    default void turnChanged(Side next) {
+    }
+
+    default void gameOver(Side winner) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Board dimensions and fleet specification of a game.
+ * Every board, generator and strategy sizes its data structures from a spec instead of
+ * assuming the standard 10x10 board with ten ships.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class GameSpec implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The standard game: a 10x10 board with one aircraft carrier (4 cells), two submarines (3 cells),
+     * three destroyers (2 cells) and four frigates (1 cell).
+     */
+    public static final GameSpec STANDARD = new GameSpec(10, 10, 4, 3, 3, 2, 2, 2, 1, 1, 1, 1);
+
+    /**
+     * Largest number of cells of a board, so that every cell index, and every ship anchor encoding one,
+     * fits in an {@code int}.
+     */
+    public static final int MAX_CELLS = 1 << 30;
+
+    private final int rows;
+    private final int cols;
+    private final int[] shipLengths;
+    private final int totalShipCells;
+    private final int maxShipLength;
+
+    /**
+     * Constructs a spec with the given board dimensions and ship lengths.
+     *
+     * @param rows the number of rows of the board.
+     * @param cols the number of columns of the board.
+     * @param shipLengths the length of each ship of the fleet, in placement order.
+     * @throws IllegalArgumentException if the dimensions or any length are not positive, the board has
+     *                                  more than {@link #MAX_CELLS} cells, a ship does not fit on the board,
+     *                                  or the fleet needs more cells than the board has.
+     * @since 1.0
+     */
+    public GameSpec(int rows, int cols, int... shipLengths) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Las dimensiones del tablero deben ser positivas.");
+        }
+        if ((long) rows * cols > MAX_CELLS) {
+            throw new IllegalArgumentException("El tablero de " + rows + "x" + cols + " tiene más de " + MAX_CELLS + " celdas.");
+        }
+        if (shipLengths.length == 0) {
+            throw new IllegalArgumentException("La flota debe tener al menos un barco.");
+        }
+        long cells = 0;
+        int max = 0;
+        for (int length : shipLengths) {
+            if (length <= 0 || length > Math.max(rows, cols)) {
+                throw new IllegalArgumentException("Longitud de barco inválida: " + length);
+            }
+            cells += length;
+            max = Math.max(max, length);
+        }
+        if (cells > (long) rows * cols) {
+            throw new IllegalArgumentException("La flota no cabe en un tablero de " + rows + "x" + cols + ".");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.shipLengths = shipLengths.clone();
+        this.totalShipCells = (int) cells;
+        this.maxShipLength = max;
+    }
+
+    /**
+     * Retrieves the number of rows of the board.
+     *
+     * @return the number of rows.
+     * @since 1.0
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Retrieves the number of columns of the board.
+     *
+     * @return the number of columns.
+     * @since 1.0
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Retrieves the number of cells of the board.
+     *
+     * @return rows times columns.
+     * @since 1.0
+     */
+    public int getCellCount() {
+        return rows * cols;
+    }
+
+    /**
+     * Retrieves the number of ships of the fleet.
+     *
+     * @return the number of ships.
+     * @since 1.0
+     */
+    public int getShipCount() {
+        return shipLengths.length;
+    }
+
+    /**
+     * Retrieves the length of a ship of the fleet.
+     *
+     * @param index the position of the ship in placement order.
+     * @return the number of cells of the ship.
+     * @since 1.0
+     */
+    public int getShipLength(int index) {
+        return shipLengths[index];
+    }
+
+    /**
+     * Retrieves a copy of the ship lengths of the fleet, in placement order.
+     *
+     * @return the ship lengths.
+     * @since 1.0
+     */
+    public int[] getShipLengths() {
+        return shipLengths.clone();
+    }
+
+    /**
+     * Retrieves the number of cells occupied by the whole fleet.
+     *
+     * @return the sum of the ship lengths.
+     * @since 1.0
+     */
+    public int getTotalShipCells() {
+        return totalShipCells;
+    }
+
+    /**
+     * Retrieves the length of the longest ship of the fleet.
+     *
+     * @return the maximum ship length.
+     * @since 1.0
+     */
+    public int getMaxShipLength() {
+        return maxShipLength;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GameSpec)) return false;
+        GameSpec other = (GameSpec) o;
+        return rows == other.rows && cols == other.cols && Arrays.equals(shipLengths, other.shipLengths);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * rows + cols) + Arrays.hashCode(shipLengths);
+    }
+
+    @Override
+    public String toString() {
+        return "GameSpec{" + rows + "x" + cols + ", ships=" + Arrays.toString(shipLengths) + '}';
+    }
+}
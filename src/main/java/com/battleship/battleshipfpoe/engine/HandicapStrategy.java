@@ -0,0 +1,89 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays like another strategy, except that on some shots it ignores the best cell and fires at a
+ * random untargeted one instead. The probability of such a blunder is the handicap that the
+ * {@link DifficultyCalibrator} fits for every {@link Difficulty}; a handicap of 0 plays exactly like
+ * the wrapped strategy and a handicap of 1 like the {@link RandomShotStrategy}.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class HandicapStrategy implements ShotStrategy {
+    private final ShotStrategy delegate;
+    private final double blunderRate;
+    private final RandomGenerator random;
+    private long blunders;
+
+    /**
+     * Constructs a handicapped strategy.
+     *
+     * @param delegate the strategy that chooses the best cell.
+     * @param blunderRate the probability of firing at a random cell instead.
+     * @param random the source of the blunders.
+     * @throws IllegalArgumentException if the probability is not between 0 and 1.
+     * @since 1.0
+     */
+    public HandicapStrategy(ShotStrategy delegate, double blunderRate, RandomGenerator random) {
+        if (!(blunderRate >= 0 && blunderRate <= 1)) {
+            throw new IllegalArgumentException("La probabilidad de error debe estar entre 0 y 1: " + blunderRate);
+        }
+        this.delegate = delegate;
+        this.blunderRate = blunderRate;
+        this.random = random;
+    }
+
+    @Override
+    public int chooseTarget(OpponentView view, long deadlineNanos) {
+        int count = view.getTargetCount();
+        if (count > 0 && blunderRate > 0 && random.nextDouble() < blunderRate) {
+            blunders++;
+            return view.getTargetAt(random.nextInt(count));
+        }
+        return delegate.chooseTarget(view, deadlineNanos);
+    }
+
+    @Override
+    public void reset() {
+        blunders = 0;
+        delegate.reset();
+    }
+
+    /**
+     * Retrieves the probability of firing at a random cell.
+     *
+     * @return the blunder rate.
+     * @since 1.0
+     */
+    public double getBlunderRate() {
+        return blunderRate;
+    }
+
+    /**
+     * Retrieves the number of shots fired at random since the last reset.
+     *
+     * @return the number of blunders.
+     * @since 1.0
+     */
+    public long getBlunders() {
+        return blunders;
+    }
+
+    /**
+     * Retrieves the wrapped strategy.
+     *
+     * @return the strategy that chooses the best cell.
+     * @since 1.0
+     */
+    public ShotStrategy getDelegate() {
+        return delegate;
+    }
+}
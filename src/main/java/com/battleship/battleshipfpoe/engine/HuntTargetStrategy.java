@@ -0,0 +1,190 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Hunt/target shooter with parity search.
+ * While there is no open hit (a hit, code 2, on a ship that is not sunk yet, code 3), the strategy
+ * hunts: it only fires at cells of one parity class of {@code (row + col) mod L}, where {@code L} is
+ * the length of the shortest ship still afloat, since every ship of length {@code L} or more covers
+ * at least one such cell. Cells where no ship of length {@code L} could fit are skipped.
+ * <p>
+ * Once a hit lands the strategy targets: it fires next to the open hits, preferring cells that
+ * extend a line of two or more hits and, among the rest, cells where the shortest afloat ship still
+ * fits along that axis. Ties are broken uniformly at random by reservoir sampling, so a decision
+ * reads the board a constant number of times per cell and allocates nothing.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class HuntTargetStrategy implements ShotStrategy {
+    private final RandomGenerator random;
+    private int parityOffset;
+
+    /**
+     * Constructs a hunt/target strategy.
+     *
+     * @param random the source of randomness.
+     * @since 1.0
+     */
+    public HuntTargetStrategy(RandomGenerator random) {
+        this.random = random;
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        parityOffset = random.nextInt(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int chooseTarget(OpponentView view, long deadlineNanos) {
+        int minLength = Math.max(1, view.getSmallestAfloatLength());
+        int cell = target(view, minLength);
+        return cell != NO_TARGET ? cell : hunt(view, minLength);
+    }
+
+    /**
+     * Picks a cell next to the open hits, or {@link #NO_TARGET} if there are none.
+     *
+     * @param view the opponent's board.
+     * @param minLength the length of the shortest ship afloat.
+     * @return the chosen cell.
+     * @since 1.0
+     */
+    private int target(OpponentView view, int minLength) {
+        int rows = view.getRows();
+        int cols = view.getCols();
+        int best = NO_TARGET;
+        int bestScore = 0;
+        int ties = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (view.isShot(row, col)) continue;
+                int score = Math.max(
+                        axisScore(view, row, col, 0, 1, minLength),
+                        axisScore(view, row, col, 1, 0, minLength));
+                if (score == 0 || score < bestScore) continue;
+                if (score > bestScore) {
+                    bestScore = score;
+                    ties = 0;
+                }
+                if (random.nextInt(++ties) == 0) {
+                    best = row * cols + col;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Scores an untargeted cell along one axis from the open hits next to it.
+     * A neighbouring open hit scores 1, or 2 when the shortest afloat ship fits through the cell along
+     * the axis; a line of two or more open hits leading to the cell scores 3.
+     *
+     * @param view the opponent's board.
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @param dRow the row step of the axis.
+     * @param dCol the column step of the axis.
+     * @param minLength the length of the shortest ship afloat.
+     * @return the score of the cell, 0 if no open hit is next to it along the axis.
+     * @since 1.0
+     */
+    private int axisScore(OpponentView view, int row, int col, int dRow, int dCol, int minLength) {
+        int before = openRun(view, row, col, -dRow, -dCol);
+        int after = openRun(view, row, col, dRow, dCol);
+        if (before == 0 && after == 0) return 0;
+        if (before >= 2 || after >= 2) return 3;
+        return fits(view, row, col, dRow, dCol, minLength, true) ? 2 : 1;
+    }
+
+    /**
+     * Counts the consecutive open hits starting next to a cell in one direction.
+     *
+     * @param view the opponent's board.
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @param dRow the row step of the direction.
+     * @param dCol the column step of the direction.
+     * @return the length of the run of open hits.
+     * @since 1.0
+     */
+    private int openRun(OpponentView view, int row, int col, int dRow, int dCol) {
+        int count = 0;
+        int i = row + dRow;
+        int j = col + dCol;
+        while (i >= 0 && j >= 0 && i < view.getRows() && j < view.getCols() && view.isOpenHit(i, j)) {
+            count++;
+            i += dRow;
+            j += dCol;
+        }
+        return count;
+    }
+
+    /**
+     * Fires at an untargeted cell of the current parity class where the shortest afloat ship fits,
+     * relaxing first the parity and then the fit when no such cell is left.
+     *
+     * @param view the opponent's board.
+     * @param minLength the length of the shortest ship afloat.
+     * @return the chosen cell.
+     * @since 1.0
+     */
+    private int hunt(OpponentView view, int minLength) {
+        int parity = parityOffset % minLength;
+        int bestLevel = 0;
+        int best = NO_TARGET;
+        int ties = 0;
+        for (int position = 0; position < view.getTargetCount(); position++) {
+            int cell = view.getTargetAt(position);
+            int row = view.rowOf(cell);
+            int col = view.colOf(cell);
+            boolean fits = fits(view, row, col, 0, 1, minLength, false) || fits(view, row, col, 1, 0, minLength, false);
+            int level = fits ? ((row + col) % minLength == parity ? 3 : 2) : 1;
+            if (level < bestLevel) continue;
+            if (level > bestLevel) {
+                bestLevel = level;
+                ties = 0;
+            }
+            if (random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Checks whether a ship of the given length fits through a cell along one axis.
+     *
+     * @param view the opponent's board.
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @param dRow the row step of the axis.
+     * @param dCol the column step of the axis.
+     * @param length the length of the ship.
+     * @param allowOpenHits true if open hits count as free cells.
+     * @return true if enough consecutive free cells pass through the cell.
+     * @since 1.0
+     */
+    private boolean fits(OpponentView view, int row, int col, int dRow, int dCol, int length, boolean allowOpenHits) {
+        int run = 1;
+        for (int sign = -1; sign <= 1 && run < length; sign += 2) {
+            int i = row + sign * dRow;
+            int j = col + sign * dCol;
+            while (run < length && i >= 0 && j >= 0 && i < view.getRows() && j < view.getCols()
+                    && (!view.isShot(i, j) || allowOpenHits && view.isOpenHit(i, j))) {
+                run++;
+                i += sign * dRow;
+                j += sign * dCol;
+            }
+        }
+        return run >= length;
+    }
+}
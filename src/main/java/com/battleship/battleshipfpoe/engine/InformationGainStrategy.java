@@ -0,0 +1,524 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Fires at the cell whose outcome is expected to tell the most about where the fleet is.
+ * The strategy keeps a population of sampled layouts of the fleet that are consistent with the
+ * shots seen so far, and for every untargeted cell the number of layouts in which firing there
+ * would hit, or would sink a ship of each length; the rest of the layouts would miss. Every layout
+ * gives one outcome per cell, so the information gained by a shot is the entropy of the outcome
+ * distribution of its cell. The strategy fires where that entropy, plus a bonus of
+ * {@link #HIT_WEIGHT} times the probability of a hit, is highest.
+ * <p>
+ * The statistics are kept between turns, so a new shot costs one pass over the live layouts instead of
+ * a new population. The layouts that predicted another outcome are removed with their contributions,
+ * and the ones whose ship was hit re-count the cells of that ship, since its last cell may now sink it;
+ * the cells of every other ship are left as they are. When fewer than half of the
+ * layouts survive, new consistent layouts are sampled in parallel on the common
+ * {@link ForkJoinPool} until the decision deadline, minus a safety margin, and the untargeted cells
+ * are scored in parallel as well.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class InformationGainStrategy implements ShotStrategy {
+    /**
+     * Default number of layouts of the population.
+     */
+    public static final int DEFAULT_LAYOUTS = 4096;
+
+    /**
+     * Weight of the probability of a hit in the score of a cell, next to the entropy of its outcome.
+     * Pure information gain favours cells whose outcome is a coin toss, even beside a wounded ship,
+     * and plays about twice as many shots as the density strategy on the classic fleet; the bonus
+     * makes it finish the ships it finds.
+     */
+    public static final double HIT_WEIGHT = 0.3;
+
+    private static final int ATTEMPTS_PER_SAMPLE = 1024;
+    private static final long SAFETY_MARGIN_NANOS = 5_000_000L;
+
+    private static final byte UNKNOWN = 0;
+    private static final byte MISS = 1;
+    private static final byte HIT = 2;
+    private static final byte SUNK = 3;
+
+    private final GameSpec spec;
+    private final int cols;
+    private final int stride;
+    private final int outcomes; // Per cell: index 0 hits, index L sinks a ship of length L
+    private final int capacity;
+    private final SplittableRandom random;
+    private final List<Sampler> samplers;
+    private final int[] layouts;
+    private final boolean[] alive;
+    private final int[] coveringShip;
+    private final int[] outcomeCounts;
+    private final byte[] known;
+    private final int[] knownAfloat;
+    private final int[] lengthCounts;
+    private final int[] afloatLengths;
+    private final int[] refillSlots;
+    private final double[] scores;
+    private final long[] blocked;
+    private final long[] required;
+    private final boolean[] skipped;
+    private OpponentView lastView;
+    private int aliveCount;
+    private int lastInvalidated;
+    private int lastSampled;
+
+    /**
+     * Constructs an information gain strategy with the default population and one sampler per
+     * thread of the common pool.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @param seed the seed of the samplers and of the tie breaks.
+     * @since 1.0
+     */
+    public InformationGainStrategy(GameSpec spec, long seed) {
+        this(spec, seed, DEFAULT_LAYOUTS, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Constructs an information gain strategy.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @param seed the seed of the samplers and of the tie breaks.
+     * @param capacity the number of layouts of the population.
+     * @param parallelism the number of sampling tasks.
+     * @throws IllegalArgumentException if the capacity is not positive or the fleet cannot be placed
+     *                                  on the board.
+     * @since 1.0
+     */
+    public InformationGainStrategy(GameSpec spec, long seed, int capacity, int parallelism) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La población debe tener al menos una ubicación.");
+        }
+        this.spec = spec;
+        this.cols = spec.getCols();
+        this.stride = spec.getShipCount();
+        this.outcomes = spec.getMaxShipLength() + 1;
+        this.capacity = capacity;
+        this.random = new SplittableRandom(seed);
+        PlacementGenerator prototype = new PlacementGenerator(spec);
+        int tasks = Math.max(1, parallelism);
+        samplers = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            samplers.add(new Sampler(new PlacementGenerator(prototype), random.split()));
+        }
+        int cells = spec.getCellCount();
+        int words = BitBoard.wordsFor(cells);
+        layouts = new int[Math.multiplyExact(capacity, stride)];
+        alive = new boolean[capacity];
+        coveringShip = new int[capacity];
+        outcomeCounts = new int[cells * outcomes];
+        known = new byte[cells];
+        knownAfloat = new int[outcomes];
+        lengthCounts = new int[outcomes];
+        afloatLengths = new int[stride];
+        refillSlots = new int[capacity];
+        scores = new double[cells];
+        blocked = new long[words];
+        required = new long[words];
+        skipped = new boolean[stride];
+    }
+
+    @Override
+    public void reset() {
+        lastView = null;
+    }
+
+    @Override
+    public int chooseTarget(OpponentView view, long deadlineNanos) {
+        if (view.getRows() != spec.getRows() || view.getCols() != spec.getCols()) {
+            throw new IllegalArgumentException("El tablero no tiene las dimensiones de la estrategia.");
+        }
+        long start = System.nanoTime();
+        long stopAt = deadlineNanos - Math.min(SAFETY_MARGIN_NANOS, (deadlineNanos - start) / 4);
+        lastInvalidated = 0;
+        lastSampled = 0;
+        if (view != lastView || !catchUp(view)) {
+            rebuild(view);
+        }
+        if (aliveCount < capacity / 2) {
+            refill(view, stopAt);
+        }
+        if (aliveCount == 0) return NO_TARGET;
+
+        int targets = view.getTargetCount();
+        IntStream.range(0, targets).parallel().forEach(p -> scores[p] = score(view.getTargetAt(p)));
+        int best = NO_TARGET;
+        double bestScore = -1;
+        int ties = 0;
+        for (int p = 0; p < targets; p++) {
+            if (scores[p] < bestScore) continue;
+            if (scores[p] > bestScore) {
+                bestScore = scores[p];
+                ties = 0;
+            }
+            if (random.nextInt(++ties) == 0) {
+                best = view.getTargetAt(p);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Retrieves the number of layouts of the population that are consistent with the board.
+     *
+     * @return the number of live layouts.
+     * @since 1.0
+     */
+    public int getAliveLayouts() {
+        return aliveCount;
+    }
+
+    /**
+     * Retrieves the number of layouts removed by the shots seen in the last decision.
+     *
+     * @return the number of invalidated layouts.
+     * @since 1.0
+     */
+    public int getLastInvalidated() {
+        return lastInvalidated;
+    }
+
+    /**
+     * Retrieves the number of layouts sampled by the last decision.
+     *
+     * @return the number of new layouts.
+     * @since 1.0
+     */
+    public int getLastSampled() {
+        return lastSampled;
+    }
+
+    /**
+     * Scores a cell by the entropy, in nats, of the outcome of firing at it over the live layouts,
+     * plus the weighted probability of a hit.
+     *
+     * @param cell the untargeted cell.
+     * @return the score of the cell.
+     * @since 1.0
+     */
+    private double score(int cell) {
+        double total = aliveCount;
+        double entropy = 0;
+        int misses = aliveCount;
+        for (int k = 0; k < outcomes; k++) {
+            int count = outcomeCounts[cell * outcomes + k];
+            if (count == 0) continue;
+            misses -= count;
+            double p = count / total;
+            entropy -= p * Math.log(p);
+        }
+        if (misses > 0) {
+            double p = misses / total;
+            entropy -= p * Math.log(p);
+        }
+        return entropy + HIT_WEIGHT * (aliveCount - misses) / total;
+    }
+
+    /**
+     * Applies the shots fired since the last decision.
+     *
+     * @param view the opponent's board.
+     * @return false if the board cannot follow from the known one, e.g. because a new game started or
+     *         two ships sank at once.
+     * @since 1.0
+     */
+    private boolean catchUp(OpponentView view) {
+        int afloat = view.getAfloatLengths(afloatLengths);
+        int sunkLength = 0;
+        Arrays.fill(lengthCounts, 0);
+        for (int i = 0; i < afloat; i++) {
+            lengthCounts[afloatLengths[i]]++;
+        }
+        for (int length = 1; length < outcomes; length++) {
+            int sunk = knownAfloat[length] - lengthCounts[length];
+            if (sunk < 0 || sunk > 1 || (sunk == 1 && sunkLength != 0)) return false;
+            if (sunk == 1) sunkLength = length;
+        }
+
+        int newSunk = -1;
+        for (int cell = 0; cell < known.length; cell++) {
+            int row = cell / cols;
+            int col = cell % cols;
+            boolean shot = view.isShot(row, col);
+            if (known[cell] != UNKNOWN) {
+                if (!shot) return false;
+                continue;
+            }
+            if (!shot) continue;
+            if (view.isSunk(row, col)) {
+                if (newSunk >= 0) return false;
+                newSunk = cell;
+            } else {
+                observe(view, cell, view.isHit(row, col) ? HIT : MISS, 0);
+            }
+        }
+        if ((newSunk >= 0) != (sunkLength != 0)) return false;
+        if (newSunk >= 0) {
+            observe(view, newSunk, SUNK, sunkLength);
+        }
+        return true;
+    }
+
+    /**
+     * Keeps the layouts consistent with one shot and updates the statistics of the cells they cover.
+     *
+     * @param view the opponent's board.
+     * @param cell the cell fired at.
+     * @param outcome the outcome seen.
+     * @param sunkLength the length of the ship sunk by the shot, or 0.
+     * @since 1.0
+     */
+    private void observe(OpponentView view, int cell, byte outcome, int sunkLength) {
+        for (int l = 0; l < capacity; l++) {
+            if (!alive[l]) continue;
+            int ship = shipCovering(l, cell);
+            boolean consistent;
+            if (outcome == MISS) {
+                consistent = ship < 0;
+            } else if (ship < 0) {
+                consistent = false;
+            } else {
+                int unknown = unknownCells(l, ship);
+                consistent = outcome == HIT
+                        ? unknown > 1
+                        : unknown == 1 && spec.getShipLength(ship) == sunkLength && coversOnlySunk(view, l, ship);
+            }
+            if (!consistent) {
+                for (int s = 0; s < stride; s++) {
+                    addShip(l, s, -1);
+                }
+                alive[l] = false;
+                aliveCount--;
+                lastInvalidated++;
+                coveringShip[l] = -1;
+            } else {
+                if (ship >= 0) {
+                    addShip(l, ship, -1);
+                }
+                coveringShip[l] = ship;
+            }
+        }
+
+        known[cell] = outcome;
+        if (outcome == SUNK) {
+            knownAfloat[sunkLength]--;
+            for (int c = 0; c < known.length; c++) {
+                if (known[c] == HIT && view.isSunk(c / cols, c % cols)) {
+                    known[c] = SUNK;
+                }
+            }
+        }
+        for (int l = 0; l < capacity; l++) {
+            if (alive[l] && coveringShip[l] >= 0) {
+                addShip(l, coveringShip[l], 1);
+            }
+        }
+    }
+
+    /**
+     * Discards the population and samples a new one for a board.
+     *
+     * @param view the opponent's board.
+     * @since 1.0
+     */
+    private void rebuild(OpponentView view) {
+        Arrays.fill(alive, false);
+        Arrays.fill(outcomeCounts, 0);
+        aliveCount = 0;
+        for (int cell = 0; cell < known.length; cell++) {
+            int row = cell / cols;
+            int col = cell % cols;
+            if (!view.isShot(row, col)) {
+                known[cell] = UNKNOWN;
+            } else if (view.isSunk(row, col)) {
+                known[cell] = SUNK;
+            } else {
+                known[cell] = view.isHit(row, col) ? HIT : MISS;
+            }
+        }
+        Arrays.fill(knownAfloat, 0);
+        int afloat = view.getAfloatLengths(afloatLengths);
+        for (int i = 0; i < afloat; i++) {
+            knownAfloat[afloatLengths[i]]++;
+        }
+        lastView = view;
+    }
+
+    /**
+     * Samples consistent layouts into the free slots of the population, in parallel, until every
+     * slot is filled or the time is up.
+     *
+     * @param view the opponent's board.
+     * @param stopAt the {@link System#nanoTime()} at which sampling stops.
+     * @since 1.0
+     */
+    private void refill(OpponentView view, long stopAt) {
+        readConstraints(view);
+        int slots = 0;
+        for (int l = 0; l < capacity; l++) {
+            if (!alive[l]) refillSlots[slots++] = l;
+        }
+        int tasks = samplers.size();
+        for (int i = 0; i < tasks; i++) {
+            samplers.get(i).prepare(i, tasks, slots, stopAt);
+        }
+        if (tasks == 1) {
+            samplers.get(0).call();
+        } else {
+            ForkJoinPool.commonPool().invokeAll(samplers);
+        }
+        for (int k = 0; k < slots; k++) {
+            int l = refillSlots[k];
+            if (!alive[l]) continue;
+            aliveCount++;
+            lastSampled++;
+            for (int s = 0; s < stride; s++) {
+                addShip(l, s, 1);
+            }
+        }
+    }
+
+    /**
+     * Translates the known board into sampling constraints, as {@link MonteCarloStrategy} does.
+     */
+    private void readConstraints(OpponentView view) {
+        Arrays.fill(blocked, 0L);
+        Arrays.fill(required, 0L);
+        for (int cell = 0; cell < known.length; cell++) {
+            if (known[cell] == HIT) {
+                required[cell >>> 6] |= 1L << cell;
+            } else if (known[cell] != UNKNOWN) {
+                blocked[cell >>> 6] |= 1L << cell;
+            }
+        }
+        int afloat = view.getAfloatLengths(afloatLengths);
+        for (int ship = 0; ship < skipped.length; ship++) {
+            skipped[ship] = true;
+            for (int i = 0; i < afloat; i++) {
+                if (afloatLengths[i] == spec.getShipLength(ship)) {
+                    afloatLengths[i] = 0; // Each afloat ship is matched once
+                    skipped[ship] = false;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds or removes the predicted outcomes of the untargeted cells of one ship of a layout.
+     */
+    private void addShip(int layout, int ship, int sign) {
+        int anchor = layouts[layout * stride + ship];
+        if (anchor < 0) return;
+        int length = spec.getShipLength(ship);
+        int first = anchor >>> 1;
+        int step = PlacementGenerator.isHorizontal(anchor) ? 1 : cols;
+        int unknown = unknownCells(layout, ship);
+        int outcome = unknown == 1 ? length : 0; // Firing at the last unknown cell sinks the ship
+        for (int s = 0; s < length; s++) {
+            int cell = first + s * step;
+            if (known[cell] == UNKNOWN) {
+                outcomeCounts[cell * outcomes + outcome] += sign;
+            }
+        }
+    }
+
+    private int unknownCells(int layout, int ship) {
+        int anchor = layouts[layout * stride + ship];
+        int first = anchor >>> 1;
+        int step = PlacementGenerator.isHorizontal(anchor) ? 1 : cols;
+        int unknown = 0;
+        for (int s = 0; s < spec.getShipLength(ship); s++) {
+            if (known[first + s * step] == UNKNOWN) unknown++;
+        }
+        return unknown;
+    }
+
+    private boolean coversOnlySunk(OpponentView view, int layout, int ship) {
+        int anchor = layouts[layout * stride + ship];
+        int first = anchor >>> 1;
+        int step = PlacementGenerator.isHorizontal(anchor) ? 1 : cols;
+        for (int s = 0; s < spec.getShipLength(ship); s++) {
+            int cell = first + s * step;
+            if (!view.isSunk(cell / cols, cell % cols)) return false;
+        }
+        return true;
+    }
+
+    private int shipCovering(int layout, int cell) {
+        int row = cell / cols;
+        int col = cell % cols;
+        for (int ship = 0; ship < stride; ship++) {
+            int anchor = layouts[layout * stride + ship];
+            if (anchor < 0) continue;
+            int first = anchor >>> 1;
+            int firstRow = first / cols;
+            int firstCol = first % cols;
+            int length = spec.getShipLength(ship);
+            if (PlacementGenerator.isHorizontal(anchor)) {
+                if (row == firstRow && col >= firstCol && col < firstCol + length) return ship;
+            } else if (col == firstCol && row >= firstRow && row < firstRow + length) {
+                return ship;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Sampling task of one worker, which fills every {@code tasks}-th free slot of the population.
+     */
+    private final class Sampler implements Callable<Void> {
+        private final PlacementGenerator generator;
+        private final SplittableRandom random;
+        private final int[] layout;
+        private int first;
+        private int tasks;
+        private int slots;
+        private long stopAt;
+
+        Sampler(PlacementGenerator generator, SplittableRandom random) {
+            this.generator = generator;
+            this.random = random;
+            this.layout = new int[stride];
+        }
+
+        void prepare(int first, int tasks, int slots, long stopAt) {
+            generator.setConstraints(blocked, required, skipped);
+            this.first = first;
+            this.tasks = tasks;
+            this.slots = slots;
+            this.stopAt = stopAt;
+        }
+
+        @Override
+        public Void call() {
+            for (int k = first; k < slots && System.nanoTime() < stopAt; ) {
+                if (!generator.sample(random, ATTEMPTS_PER_SAMPLE, stopAt, layout)) continue;
+                int slot = refillSlots[k];
+                System.arraycopy(layout, 0, layouts, slot * stride, stride);
+                alive[slot] = true;
+                k += tasks;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generates large batches of random fleet layouts in parallel, without building any board.
+ * Layouts are written into a caller-provided {@code int[]} buffer as {@link #getStride()} consecutive
+ * anchors per layout, one per ship in spec order, using the encoding of {@link PlacementGenerator}.
+ * <p>
+ * A batch is split into fixed-size chunks. Every chunk draws from its own {@link SplittableRandom},
+ * split from a root seeded with the batch seed before any work starts, so the same seed always
+ * produces the same layouts no matter how many threads take part. Chunks run on the common
+ * fork-join pool and every worker thread keeps its own copy of the placement generator.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class LayoutBatchGenerator {
+    /**
+     * Number of layouts generated by each parallel task.
+     */
+    public static final int CHUNK_SIZE = 4096;
+
+    private final PlacementGenerator prototype;
+    private final ThreadLocal<PlacementGenerator> generators;
+    private volatile long lastCount;
+    private volatile long lastElapsedNanos;
+
+    /**
+     * Constructs a batch generator for a spec.
+     *
+     * @param spec the board dimensions and fleet of the layouts.
+     * @throws IllegalArgumentException if the fleet cannot be placed on the board.
+     * @since 1.0
+     */
+    public LayoutBatchGenerator(GameSpec spec) {
+        this(new PlacementGenerator(spec));
+    }
+
+    /**
+     * Constructs a batch generator whose workers copy the given placement generator.
+     *
+     * @param prototype the generator to copy for every worker thread; it is not used directly.
+     * @since 1.0
+     */
+    public LayoutBatchGenerator(PlacementGenerator prototype) {
+        this.prototype = prototype;
+        this.generators = ThreadLocal.withInitial(() -> new PlacementGenerator(prototype));
+    }
+
+    /**
+     * Fills a buffer with random layouts.
+     *
+     * @param seed the seed of the batch; equal seeds produce equal layouts.
+     * @param buffer the buffer receiving the layouts.
+     * @param offset the position in the buffer of the first anchor.
+     * @param count the number of layouts to generate.
+     * @throws IllegalArgumentException if the count is negative or the buffer is too small.
+     * @since 1.0
+     */
+    public void generate(long seed, int[] buffer, int offset, int count) {
+        int stride = getStride();
+        if (count < 0 || offset < 0 || (long) offset + (long) count * stride > buffer.length) {
+            throw new IllegalArgumentException("El buffer no tiene espacio para " + count + " ubicaciones.");
+        }
+        int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int k = 0; k < chunks; k++) {
+            randoms[k] = root.split();
+        }
+
+        long start = System.nanoTime();
+        IntStream.range(0, chunks).parallel().forEach(k -> {
+            PlacementGenerator generator = generators.get();
+            SplittableRandom random = randoms[k];
+            int first = k * CHUNK_SIZE;
+            int last = Math.min(count, first + CHUNK_SIZE);
+            for (int layout = first; layout < last; layout++) {
+                generator.generate(random, buffer, offset + layout * stride);
+            }
+        });
+        lastElapsedNanos = System.nanoTime() - start;
+        lastCount = count;
+    }
+
+    /**
+     * Allocates a buffer and fills it with random layouts.
+     *
+     * @param seed the seed of the batch; equal seeds produce equal layouts.
+     * @param count the number of layouts to generate.
+     * @return a buffer of {@code count * getStride()} anchors.
+     * @since 1.0
+     */
+    public int[] generate(long seed, int count) {
+        int[] buffer = new int[Math.multiplyExact(count, getStride())];
+        generate(seed, buffer, 0, count);
+        return buffer;
+    }
+
+    /**
+     * Retrieves the number of anchors of every layout in the buffer.
+     *
+     * @return the number of ships of the fleet.
+     * @since 1.0
+     */
+    public int getStride() {
+        return prototype.getSpec().getShipCount();
+    }
+
+    /**
+     * Retrieves the spec of the generated layouts.
+     *
+     * @return the spec.
+     * @since 1.0
+     */
+    public GameSpec getSpec() {
+        return prototype.getSpec();
+    }
+
+    /**
+     * Retrieves the throughput of the last batch.
+     *
+     * @return the layouts generated per second, or 0 if no batch has been generated yet.
+     * @since 1.0
+     */
+    public double getLayoutsPerSecond() {
+        long elapsed = lastElapsedNanos;
+        return elapsed == 0 ? 0 : lastCount * 1e9 / elapsed;
+    }
+}
@@ -0,0 +1,310 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+/**
+ * Searches for fleet layouts that are hard to find, by playing a reference shooter against them.
+ * A search races a batch of random candidates from a {@link LayoutBatchGenerator} in rounds. Every
+ * round plays the same number of games against each surviving candidate, in parallel on the common
+ * fork-join pool, keeps the half that took the most shots to sink, and doubles the games of the next
+ * round. The number of shots depends much more on the shooter's luck than on the layout, so the games
+ * go to the candidates still in the race instead of being spread evenly. The race stops when one
+ * candidate is left or the next round would not finish within the time budget, and the leader wins;
+ * if the deadline has already passed, no round is played and the first candidate is taken.
+ * <p>
+ * The reference shooter is the {@link ProbabilityDensityStrategy}, the core of the hard level, with
+ * its tie breaks seeded from the candidate, so a batch scores the same on any number of threads.
+ * Searching takes a noticeable fraction of a second, so the optimizer of a spec keeps the next layout
+ * ready: {@link #prepare()} searches it on a background thread, and {@link #placeNext(BitBoard)}
+ * places it and starts searching the one after. If the prepared search fails, or has not finished
+ * within its budget plus {@link #WAIT_GRACE_NANOS}, a random candidate is placed instead, and an
+ * unfinished search is kept for the next game.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class LayoutOptimizer {
+    /**
+     * Default time budget of a search.
+     */
+    public static final long DEFAULT_BUDGET_NANOS = 500_000_000L;
+
+    /**
+     * Number of candidates of a search per thread of the common fork-join pool.
+     */
+    public static final int CANDIDATES_PER_THREAD = 64;
+
+    /**
+     * Number of games played against every candidate in the first round of a search.
+     */
+    public static final int FIRST_ROUND_TRIALS = 2;
+
+    /**
+     * Time {@link #placeNext(BitBoard)} waits for a prepared search beyond its budget.
+     */
+    public static final long WAIT_GRACE_NANOS = 100_000_000L;
+
+    // Layouts are prepared between games, so a single background thread serves every optimizer
+    private static final ExecutorService PREPARER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "battleship-layout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Map<GameSpec, LayoutOptimizer> SHARED = new ConcurrentHashMap<>();
+
+    private final GameSpec spec;
+    private final int candidateCount;
+    private final long budgetNanos;
+    private final LayoutBatchGenerator candidates;
+    private final ThreadLocal<Shooter> shooters;
+    private final Random seeds = new Random();
+    private Future<int[]> next;
+    private volatile int lastCandidates;
+    private volatile double lastExpectedShots;
+    private volatile long lastElapsedNanos;
+
+    /**
+     * Constructs an optimizer.
+     *
+     * @param spec the board dimensions and fleet of the layouts.
+     * @param candidateCount the number of candidates of a search, rounded up to a power of two.
+     * @param budgetNanos the time budget of a search.
+     * @throws IllegalArgumentException if the candidates or the budget are not positive, or the fleet
+     *                                  cannot be placed on the board.
+     * @since 1.0
+     */
+    public LayoutOptimizer(GameSpec spec, int candidateCount, long budgetNanos) {
+        if (candidateCount <= 0 || candidateCount > 1 << 20 || budgetNanos <= 0) {
+            throw new IllegalArgumentException("Los candidatos y el presupuesto de tiempo deben ser positivos.");
+        }
+        this.spec = spec;
+        this.candidateCount = Math.max(2, Integer.highestOneBit(candidateCount - 1) << 1);
+        this.budgetNanos = budgetNanos;
+        this.candidates = new LayoutBatchGenerator(spec);
+        this.shooters = ThreadLocal.withInitial(() -> new Shooter(spec));
+    }
+
+    /**
+     * Retrieves the optimizer shared by every game of a spec, with {@link #CANDIDATES_PER_THREAD}
+     * candidates per thread and the default budget.
+     *
+     * @param spec the board dimensions and fleet of the layouts.
+     * @return the shared optimizer of the spec.
+     * @since 1.0
+     */
+    public static LayoutOptimizer forSpec(GameSpec spec) {
+        return SHARED.computeIfAbsent(spec, s -> new LayoutOptimizer(s,
+                CANDIDATES_PER_THREAD * ForkJoinPool.getCommonPoolParallelism(), DEFAULT_BUDGET_NANOS));
+    }
+
+    /**
+     * Searches for a hard layout.
+     *
+     * @param seed the seed of the candidates and of the reference shooter.
+     * @param deadlineNanos the {@link System#nanoTime()} by which the search must end.
+     * @return the anchors of the chosen layout, one per ship in spec order.
+     * @since 1.0
+     */
+    public int[] optimize(long seed, long deadlineNanos) {
+        long start = System.nanoTime();
+        int stride = candidates.getStride();
+        int count = candidateCount;
+        int[] layouts = candidates.generate(seed, count);
+        int[] alive = new int[count];
+        for (int k = 0; k < count; k++) {
+            alive[k] = k;
+        }
+        long[] shots = new long[count];
+        int[] games = new int[count];
+
+        int round = 0;
+        long roundNanos = 0;
+        while (alive.length > 1 && System.nanoTime() + roundNanos < deadlineNanos) {
+            long roundStart = System.nanoTime();
+            int trials = FIRST_ROUND_TRIALS << round;
+            int[] racing = alive;
+            int firstGame = games[racing[0]];
+            IntStream.range(0, racing.length).parallel().forEach(i -> {
+                int k = racing[i];
+                shots[k] += shooters.get().play(layouts, k * stride, seed + k, firstGame, trials);
+                games[k] += trials;
+            });
+            Integer[] order = new Integer[racing.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = racing[i];
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(shots[b], shots[a])); // Every racer played the same games
+            alive = new int[racing.length / 2];
+            for (int i = 0; i < alive.length; i++) {
+                alive[i] = order[i];
+            }
+            roundNanos = System.nanoTime() - roundStart;
+            round++;
+        }
+
+        int best = alive[0];
+        lastCandidates = count;
+        lastExpectedShots = games[best] == 0 ? 0 : (double) shots[best] / games[best];
+        lastElapsedNanos = System.nanoTime() - start;
+        return Arrays.copyOfRange(layouts, best * stride, (best + 1) * stride);
+    }
+
+    /**
+     * Starts searching the next layout on the background thread, unless it is already searched.
+     *
+     * @since 1.0
+     */
+    public synchronized void prepare() {
+        if (next == null) {
+            long seed = seeds.nextLong();
+            next = PREPARER.submit(() -> optimize(seed, System.nanoTime() + budgetNanos));
+        }
+    }
+
+    /**
+     * Places the prepared layout on a board, waiting at most the budget plus {@link #WAIT_GRACE_NANOS}
+     * for its search, and starts searching the next one. A random candidate is placed if the search
+     * failed or is still running; in the latter case its layout is kept for the next call.
+     *
+     * @param board the empty board receiving the fleet; it must have the spec's dimensions.
+     * @throws IllegalArgumentException if the board dimensions do not match the spec.
+     * @since 1.0
+     */
+    public void placeNext(BitBoard board) {
+        if (board.getRows() != spec.getRows() || board.getCols() != spec.getCols()) {
+            throw new IllegalArgumentException("El tablero no tiene las dimensiones de " + spec);
+        }
+        int[] layout;
+        synchronized (this) {
+            prepare();
+            try {
+                layout = next.get(budgetNanos + WAIT_GRACE_NANOS, TimeUnit.NANOSECONDS);
+                next = null;
+            } catch (TimeoutException e) {
+                layout = candidates.generate(seeds.nextLong(), 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                layout = candidates.generate(seeds.nextLong(), 1);
+            } catch (ExecutionException e) {
+                next = null;
+                layout = candidates.generate(seeds.nextLong(), 1);
+            }
+            prepare();
+        }
+        int cols = spec.getCols();
+        for (int ship = 0; ship < layout.length; ship++) {
+            int cell = layout[ship] >>> 1;
+            board.place(cell / cols, cell % cols, spec.getShipLength(ship), PlacementGenerator.isHorizontal(layout[ship]));
+        }
+    }
+
+    /**
+     * Retrieves the spec of the layouts.
+     *
+     * @return the spec.
+     * @since 1.0
+     */
+    public GameSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Retrieves the number of candidates screened by the last search.
+     *
+     * @return the number of candidates, or 0 if no search has finished yet.
+     * @since 1.0
+     */
+    public int getLastCandidates() {
+        return lastCandidates;
+    }
+
+    /**
+     * Retrieves the mean number of shots the reference shooter needed against the last layout found.
+     *
+     * @return the expected shots to sink the fleet, or 0 if no search has finished yet.
+     * @since 1.0
+     */
+    public double getLastExpectedShots() {
+        return lastExpectedShots;
+    }
+
+    /**
+     * Retrieves the duration of the last search.
+     *
+     * @return the elapsed nanoseconds, or 0 if no search has finished yet.
+     * @since 1.0
+     */
+    public long getLastElapsedNanos() {
+        return lastElapsedNanos;
+    }
+
+    /**
+     * The reference shooter of one worker thread, with the board it plays against.
+     */
+    private static final class Shooter {
+        private final GameSpec spec;
+        private final Random random = new Random();
+        private final ShotStrategy strategy;
+        private final BitBoard board;
+
+        Shooter(GameSpec spec) {
+            this.spec = spec;
+            this.strategy = new ProbabilityDensityStrategy(spec, random);
+            this.board = new BitBoard(spec);
+        }
+
+        /**
+         * Plays the reference shooter against a layout.
+         *
+         * @param layouts the buffer holding the layout.
+         * @param offset the position in the buffer of the layout's first anchor.
+         * @param seed the seed of the layout's games.
+         * @param firstGame the number of the first game, which seeds the shooter's tie breaks.
+         * @param games the number of games to play.
+         * @return the total number of shots to sink the fleet.
+         */
+        long play(int[] layouts, int offset, long seed, int firstGame, int games) {
+            int cols = spec.getCols();
+            long shots = 0;
+            for (int game = firstGame; game < firstGame + games; game++) {
+                board.clear();
+                for (int ship = 0; ship < spec.getShipCount(); ship++) {
+                    int anchor = layouts[offset + ship];
+                    int cell = anchor >>> 1;
+                    board.place(cell / cols, cell % cols, spec.getShipLength(ship), PlacementGenerator.isHorizontal(anchor));
+                }
+                TargetPool pool = new TargetPool(board);
+                OpponentView view = new OpponentView(board, pool);
+                random.setSeed(seed * 31 + game);
+                strategy.reset();
+                while (!board.allSunk()) {
+                    int target = strategy.chooseTarget(view, Long.MAX_VALUE);
+                    int row = view.rowOf(target);
+                    int col = view.colOf(target);
+                    pool.remove(row, col);
+                    board.shoot(row, col);
+                    shots++;
+                }
+            }
+            return shots;
+        }
+    }
+}
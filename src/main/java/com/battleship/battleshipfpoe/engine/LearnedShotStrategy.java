@@ -0,0 +1,71 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Fires at the untargeted cell that a {@link ShotPolicy} rates most likely to hold a ship.
+ * A decision takes a snapshot of the board, extracts the features of every untargeted cell into one
+ * preallocated array and keeps the best logit, breaking ties uniformly at random by reservoir
+ * sampling, so it allocates nothing and runs in a few microseconds on the standard board.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class LearnedShotStrategy implements ShotStrategy {
+    private final ShotPolicy policy;
+    private final RandomGenerator random;
+    private final ShotFeatures extractor;
+    private final float[] features = new float[ShotFeatures.COUNT];
+
+    /**
+     * Constructs a strategy that follows a policy.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @param policy the policy that scores the cells.
+     * @param random the source of randomness used to break ties.
+     * @since 1.0
+     */
+    public LearnedShotStrategy(GameSpec spec, ShotPolicy policy, RandomGenerator random) {
+        this.policy = policy;
+        this.random = random;
+        this.extractor = new ShotFeatures(spec);
+    }
+
+    @Override
+    public int chooseTarget(OpponentView view, long deadlineNanos) {
+        extractor.load(view);
+        int best = NO_TARGET;
+        float bestLogit = Float.NEGATIVE_INFINITY;
+        int ties = 0;
+        for (int position = 0; position < view.getTargetCount(); position++) {
+            int cell = view.getTargetAt(position);
+            extractor.extract(cell, features);
+            float logit = policy.logit(features);
+            if (logit < bestLogit) continue;
+            if (logit > bestLogit) {
+                bestLogit = logit;
+                ties = 0;
+            }
+            if (random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Retrieves the policy of the strategy.
+     *
+     * @return the policy.
+     * @since 1.0
+     */
+    public ShotPolicy getPolicy() {
+        return policy;
+    }
+}
@@ -0,0 +1,254 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Monte Carlo shooter that samples complete layouts of the afloat fleet.
+ * Every sample places the ships that are not sunk yet with the {@link PlacementGenerator}, avoiding
+ * misses and sunk cells and covering every unresolved hit; the strategy then fires at the untargeted
+ * cell covered by the most samples. Unlike {@link ProbabilityDensityStrategy}, which counts the
+ * placements of every ship on its own, the samples respect how the ships exclude each other, and the
+ * cost depends on the time budget instead of the size of the board.
+ * <p>
+ * Sampling runs on the common {@link ForkJoinPool}, one task per worker, each with its own generator,
+ * random number generator and hit counters, which are merged once the tasks finish. The search is
+ * anytime: workers stop when the decision deadline, minus a safety margin, is reached or when the
+ * sample quota is filled, and the decision uses whatever was sampled by then. The generator reads the
+ * clock while it searches, so a slow sample cannot carry a worker past the deadline. If no sample was
+ * drawn in time, a {@link ProbabilityDensityStrategy}, built on first use, answers instead.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class MonteCarloStrategy implements ShotStrategy {
+    /**
+     * Default maximum number of samples of a decision.
+     */
+    public static final int DEFAULT_MAX_SAMPLES = 20_000;
+
+    private static final int ATTEMPTS_PER_SAMPLE = 1024;
+    private static final long SAFETY_MARGIN_NANOS = 5_000_000L;
+
+    private final GameSpec spec;
+    private final SplittableRandom random;
+    private final int maxSamples;
+    private final List<Worker> workers;
+    private final int[] counts;
+    private final long[] blocked;
+    private final long[] required;
+    private final boolean[] skipped;
+    private final int[] afloatLengths;
+    private ProbabilityDensityStrategy density;
+    private long lastSamples;
+    private long lastNanos;
+
+    /**
+     * Constructs a Monte Carlo strategy with one worker per thread of the common pool.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @param seed the seed of the workers' random number generators.
+     * @since 1.0
+     */
+    public MonteCarloStrategy(GameSpec spec, long seed) {
+        this(spec, seed, ForkJoinPool.getCommonPoolParallelism(), DEFAULT_MAX_SAMPLES);
+    }
+
+    /**
+     * Constructs a Monte Carlo strategy.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @param seed the seed of the workers' random number generators.
+     * @param parallelism the number of sampling tasks of a decision.
+     * @param maxSamples the maximum number of samples of a decision.
+     * @throws IllegalArgumentException if the fleet cannot be placed on the board.
+     * @since 1.0
+     */
+    public MonteCarloStrategy(GameSpec spec, long seed, int parallelism, int maxSamples) {
+        this.spec = spec;
+        this.random = new SplittableRandom(seed);
+        this.maxSamples = maxSamples;
+        PlacementGenerator prototype = new PlacementGenerator(spec);
+        int tasks = Math.max(1, parallelism);
+        workers = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            workers.add(new Worker(new PlacementGenerator(prototype), random.split(),
+                    (maxSamples + i) / tasks));
+        }
+        int words = BitBoard.wordsFor(spec.getCellCount());
+        counts = new int[spec.getCellCount()];
+        blocked = new long[words];
+        required = new long[words];
+        skipped = new boolean[spec.getShipCount()];
+        afloatLengths = new int[spec.getShipCount()];
+    }
+
+    @Override
+    public void reset() {
+        if (density != null) {
+            density.reset();
+        }
+    }
+
+    @Override
+    public int chooseTarget(OpponentView view, long deadlineNanos) {
+        if (view.getRows() != spec.getRows() || view.getCols() != spec.getCols()) {
+            throw new IllegalArgumentException("El tablero no tiene las dimensiones de la estrategia.");
+        }
+        long start = System.nanoTime();
+        readConstraints(view);
+        long stopAt = deadlineNanos - Math.min(SAFETY_MARGIN_NANOS, (deadlineNanos - start) / 4);
+        for (Worker worker : workers) {
+            worker.prepare(blocked, required, skipped, stopAt);
+        }
+        if (workers.size() == 1) {
+            workers.get(0).call();
+        } else {
+            ForkJoinPool.commonPool().invokeAll(workers);
+        }
+
+        Arrays.fill(counts, 0);
+        long samples = 0;
+        for (Worker worker : workers) {
+            samples += worker.samples;
+            for (int cell = 0; cell < counts.length; cell++) {
+                counts[cell] += worker.counts[cell];
+            }
+        }
+        lastSamples = samples;
+        lastNanos = System.nanoTime() - start;
+
+        int best = NO_TARGET;
+        int bestCount = 0;
+        int ties = 0;
+        for (int cell = 0; cell < counts.length; cell++) {
+            if (counts[cell] == 0 || counts[cell] < bestCount || !view.isTarget(cell)) continue;
+            if (counts[cell] > bestCount) {
+                bestCount = counts[cell];
+                ties = 0;
+            }
+            if (random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        if (best == NO_TARGET) {
+            if (density == null) {
+                density = new ProbabilityDensityStrategy(spec, random.split());
+            }
+            return density.chooseTarget(view, deadlineNanos);
+        }
+        return best;
+    }
+
+    /**
+     * Retrieves the number of consistent layouts sampled by the last decision.
+     *
+     * @return the number of samples.
+     * @since 1.0
+     */
+    public long getLastSamples() {
+        return lastSamples;
+    }
+
+    /**
+     * Retrieves the sampling throughput of the last decision.
+     *
+     * @return the consistent layouts sampled per second, or 0 before the first decision.
+     * @since 1.0
+     */
+    public double getSamplesPerSecond() {
+        return lastNanos == 0 ? 0 : lastSamples * 1e9 / lastNanos;
+    }
+
+    /**
+     * Translates the view into sampling constraints: misses and sunk cells are blocked, hits on
+     * afloat ships are required, and the ships of the fleet matching the lengths already sunk are
+     * skipped.
+     *
+     * @param view the opponent's board.
+     * @since 1.0
+     */
+    private void readConstraints(OpponentView view) {
+        Arrays.fill(blocked, 0L);
+        Arrays.fill(required, 0L);
+        int cols = view.getCols();
+        for (int cell = 0; cell < counts.length; cell++) {
+            int row = cell / cols;
+            int col = cell % cols;
+            if (!view.isShot(row, col)) continue;
+            if (view.isOpenHit(row, col)) {
+                required[cell >>> 6] |= 1L << cell;
+            } else {
+                blocked[cell >>> 6] |= 1L << cell;
+            }
+        }
+        int afloat = view.getAfloatLengths(afloatLengths);
+        for (int ship = 0; ship < skipped.length; ship++) {
+            skipped[ship] = true;
+            for (int i = 0; i < afloat; i++) {
+                if (afloatLengths[i] == spec.getShipLength(ship)) {
+                    afloatLengths[i] = 0; // Each afloat ship is matched once
+                    skipped[ship] = false;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sampling task of one worker. The counters and the layout buffer are reused between decisions.
+     */
+    private final class Worker implements Callable<Void> {
+        private final PlacementGenerator generator;
+        private final SplittableRandom random;
+        private final int quota;
+        private final int[] counts;
+        private final int[] layout;
+        private long stopAt;
+        private int samples;
+
+        Worker(PlacementGenerator generator, SplittableRandom random, int quota) {
+            this.generator = generator;
+            this.random = random;
+            this.quota = quota;
+            this.counts = new int[spec.getCellCount()];
+            this.layout = new int[spec.getShipCount()];
+        }
+
+        void prepare(long[] blocked, long[] required, boolean[] skipped, long stopAt) {
+            generator.setConstraints(blocked, required, skipped);
+            this.stopAt = stopAt;
+        }
+
+        @Override
+        public Void call() {
+            Arrays.fill(counts, 0);
+            samples = 0;
+            int cols = spec.getCols();
+            while (samples < quota && System.nanoTime() < stopAt) {
+                if (!generator.sample(random, ATTEMPTS_PER_SAMPLE, stopAt, layout)) continue;
+                samples++;
+                for (int ship = 0; ship < layout.length; ship++) {
+                    int anchor = layout[ship];
+                    if (anchor < 0) continue;
+                    int cell = anchor >>> 1;
+                    int step = PlacementGenerator.isHorizontal(anchor) ? 1 : cols;
+                    for (int s = 0; s < spec.getShipLength(ship); s++) {
+                        counts[cell + s * step]++;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Precomputed first shots of a fleet, keyed by the shot history that leads to them.
+ * A history is hashed with the Zobrist keys of its visible cell states, so the hash only depends on
+ * what the shooter can see and not on the order of the shots. The book is built offline by
+ * {@link OpeningBookGenerator} and is read-only at runtime.
+ * <p>
+ * The binary format is big-endian: a header (magic, format version, rows, columns, ship count and
+ * lengths, seed of the Zobrist keys, maximum shots and entry count) followed by the hashes, sorted
+ * ascending, and then one {@code short} cell per hash. A lookup is a binary search straight on the
+ * buffer. Book files are memory-mapped, so loading costs nothing beyond reading the header; books
+ * packed inside a jar cannot be mapped and are copied into a direct buffer instead.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class OpeningBook {
+    /**
+     * Classpath location of the book of the standard game.
+     */
+    public static final String STANDARD_RESOURCE = "/com/battleship/battleshipfpoe/book/standard.book";
+
+    static final int MAGIC = 0x42534F42; // "BSOB"
+    static final int FORMAT_VERSION = 1;
+
+    private final ByteBuffer buffer;
+    private final GameSpec spec;
+    private final ZobristKeys keys;
+    private final int maxShots;
+    private final int entries;
+    private final int keysOffset;
+    private final int cellsOffset;
+
+    /**
+     * Constructs a book over a buffer holding a book in the binary format.
+     *
+     * @param buffer the book; it is read with absolute gets and never modified.
+     * @throws IllegalArgumentException if the buffer does not hold a book.
+     * @since 1.0
+     */
+    public OpeningBook(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.capacity() < 28 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("El archivo no es un libro de aperturas válido.");
+        }
+        int rows = buffer.getInt(8);
+        int cols = buffer.getInt(12);
+        int[] lengths = new int[buffer.getInt(16)];
+        int position = 20;
+        for (int i = 0; i < lengths.length; i++, position += 4) {
+            lengths[i] = buffer.getInt(position);
+        }
+        spec = new GameSpec(rows, cols, lengths);
+        keys = new ZobristKeys(spec.getCellCount(), buffer.getLong(position));
+        maxShots = buffer.getInt(position + 8);
+        entries = buffer.getInt(position + 12);
+        keysOffset = position + 16;
+        cellsOffset = keysOffset + entries * 8;
+        if ((long) cellsOffset + entries * 2L > buffer.capacity()) {
+            throw new IllegalArgumentException("El libro de aperturas está incompleto.");
+        }
+    }
+
+    /**
+     * Loads the book of the standard game for a spec.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @return the book, or null if the spec is not the standard one or the book is not available.
+     * @since 1.0
+     */
+    public static OpeningBook forSpec(GameSpec spec) {
+        if (!GameSpec.STANDARD.equals(spec)) return null;
+        OpeningBook book = StandardHolder.BOOK;
+        return book != null && book.spec.equals(spec) ? book : null;
+    }
+
+    /**
+     * Loads a book from the classpath, mapping it when it is a plain file.
+     *
+     * @param resource the absolute resource name of the book.
+     * @return the book, or null if the resource does not exist.
+     * @throws UncheckedIOException if the book cannot be read.
+     * @throws IllegalArgumentException if the resource does not hold a book.
+     * @since 1.0
+     */
+    public static OpeningBook load(String resource) {
+        URL url = OpeningBook.class.getResource(resource);
+        if (url == null) return null;
+        try {
+            if ("file".equals(url.getProtocol())) {
+                try (FileChannel channel = FileChannel.open(Path.of(url.toURI()), StandardOpenOption.READ)) {
+                    return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                }
+            }
+            try (InputStream in = url.openStream()) {
+                byte[] bytes = in.readAllBytes();
+                return new OpeningBook(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el libro de aperturas " + resource, e);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Ruta inválida del libro de aperturas: " + url, e);
+        }
+    }
+
+    /**
+     * Looks up the book shot for the board seen by the shooter.
+     * Boards with more shots than the book covers are rejected before hashing.
+     *
+     * @param view the opponent's board.
+     * @return the linear index of the book shot, or {@link ShotStrategy#NO_TARGET} if the history is
+     * not in the book.
+     * @since 1.0
+     */
+    public int lookup(OpponentView view) {
+        if (view.getCellCount() - view.getTargetCount() > maxShots
+                || view.getRows() != spec.getRows() || view.getCols() != spec.getCols()) {
+            return ShotStrategy.NO_TARGET;
+        }
+        return lookup(keys.hash(view));
+    }
+
+    /**
+     * Looks up the book shot of a history hash.
+     *
+     * @param hash the Zobrist hash of the history.
+     * @return the linear index of the book shot, or {@link ShotStrategy#NO_TARGET} if it is not in the book.
+     * @since 1.0
+     */
+    public int lookup(long hash) {
+        int low = 0;
+        int high = entries - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long key = buffer.getLong(keysOffset + middle * 8);
+            if (key < hash) {
+                low = middle + 1;
+            } else if (key > hash) {
+                high = middle - 1;
+            } else {
+                return buffer.getShort(cellsOffset + middle * 2);
+            }
+        }
+        return ShotStrategy.NO_TARGET;
+    }
+
+    /**
+     * Retrieves the spec the book was built for.
+     *
+     * @return the spec.
+     * @since 1.0
+     */
+    public GameSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Retrieves the number of histories in the book.
+     *
+     * @return the number of entries.
+     * @since 1.0
+     */
+    public int getEntryCount() {
+        return entries;
+    }
+
+    /**
+     * Retrieves the longest history in the book.
+     *
+     * @return the maximum number of shots of a history.
+     * @since 1.0
+     */
+    public int getMaxShots() {
+        return maxShots;
+    }
+
+    /**
+     * Loads the standard book on first use.
+     */
+    private static final class StandardHolder {
+        private static final OpeningBook BOOK = load(STANDARD_RESOURCE);
+    }
+}
@@ -0,0 +1,274 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Builds an {@link OpeningBook} offline.
+ * Starting from the empty board, the generator samples consistent layouts of the fleet for every
+ * history, picks the cell covered by the most samples (the lowest one on ties, so the book is stable)
+ * and expands the outcomes of that shot: a miss, a hit, and the sinking of a one-cell ship. Shots
+ * that would sink a longer ship end the branch, since the cells it covers are not known. Histories
+ * are expanded up to a maximum number of shots and only while the probability of reaching them stays
+ * above a threshold, so the book covers the common openings and stays small.
+ * <p>
+ * Every level of the tree is sampled in parallel on the common fork-join pool. The random number
+ * generator of a history is seeded from its hash, so equal arguments always build the same book.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class OpeningBookGenerator {
+    /**
+     * Default seed of the Zobrist keys.
+     */
+    public static final long DEFAULT_KEY_SEED = 0x5EA_BA771E5L;
+
+    private static final int ATTEMPTS_PER_SAMPLE = 1024;
+
+    private final GameSpec spec;
+    private final long keySeed;
+    private final int samples;
+    private final ZobristKeys keys;
+    private final ThreadLocal<PlacementGenerator> generators;
+
+    /**
+     * Constructs a generator.
+     *
+     * @param spec the board dimensions and fleet of the book.
+     * @param keySeed the seed of the Zobrist keys, stored in the book.
+     * @param samples the number of layouts sampled per history.
+     * @throws IllegalArgumentException if the fleet cannot be placed on the board.
+     * @since 1.0
+     */
+    public OpeningBookGenerator(GameSpec spec, long keySeed, int samples) {
+        this.spec = spec;
+        this.keySeed = keySeed;
+        this.samples = samples;
+        this.keys = new ZobristKeys(spec.getCellCount(), keySeed);
+        PlacementGenerator prototype = new PlacementGenerator(spec);
+        this.generators = ThreadLocal.withInitial(() -> new PlacementGenerator(prototype));
+    }
+
+    /**
+     * Builds the book and writes it in the binary format.
+     *
+     * @param maxShots the maximum number of shots of a history.
+     * @param minReach the minimum probability of reaching a history for it to be expanded.
+     * @param out the stream receiving the book; it is not closed.
+     * @return the number of histories written.
+     * @throws IOException if the book cannot be written.
+     * @since 1.0
+     */
+    public int write(int maxShots, double minReach, OutputStream out) throws IOException {
+        Map<Long, Integer> book = build(maxShots, minReach);
+        long[] hashes = new long[book.size()];
+        int n = 0;
+        for (long hash : book.keySet()) {
+            hashes[n++] = hash;
+        }
+        Arrays.sort(hashes);
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(OpeningBook.MAGIC);
+        data.writeInt(OpeningBook.FORMAT_VERSION);
+        data.writeInt(spec.getRows());
+        data.writeInt(spec.getCols());
+        data.writeInt(spec.getShipCount());
+        for (int length : spec.getShipLengths()) {
+            data.writeInt(length);
+        }
+        data.writeLong(keySeed);
+        data.writeInt(maxShots);
+        data.writeInt(hashes.length);
+        for (long hash : hashes) {
+            data.writeLong(hash);
+        }
+        for (long hash : hashes) {
+            data.writeShort(book.get(hash));
+        }
+        data.flush();
+        return hashes.length;
+    }
+
+    /**
+     * Expands the histories level by level.
+     *
+     * @param maxShots the maximum number of shots of a history.
+     * @param minReach the minimum probability of reaching a history for it to be expanded.
+     * @return the book shot of every history, by hash.
+     * @since 1.0
+     */
+    private Map<Long, Integer> build(int maxShots, double minReach) {
+        Map<Long, Integer> book = new HashMap<>();
+        List<Node> level = List.of(new Node(new byte[spec.getCellCount()], 0L, 1.0));
+        for (int shots = 0; shots < maxShots && !level.isEmpty(); shots++) {
+            level.parallelStream().forEach(this::evaluate);
+            List<Node> next = new ArrayList<>();
+            for (Node node : level) {
+                if (node.best == ShotStrategy.NO_TARGET) continue;
+                book.put(node.hash, node.best);
+                if (shots + 1 == maxShots) continue;
+                expand(node, ZobristKeys.MISS, node.missProbability, minReach, book, next);
+                expand(node, ZobristKeys.HIT, node.hitProbability, minReach, book, next);
+                expand(node, ZobristKeys.SUNK, node.sunkProbability, minReach, book, next);
+            }
+            level = next;
+        }
+        return book;
+    }
+
+    private void expand(Node node, byte state, double probability, double minReach, Map<Long, Integer> book, List<Node> next) {
+        double reach = node.reach * probability;
+        if (probability == 0 || reach < minReach) return;
+        long hash = node.hash ^ keys.key(node.best, state);
+        if (book.containsKey(hash)) return;
+        byte[] states = node.states.clone();
+        states[node.best] = state;
+        next.add(new Node(states, hash, reach));
+    }
+
+    /**
+     * Samples the layouts consistent with a history, picks its book shot and estimates the
+     * probability of every outcome of that shot.
+     *
+     * @param node the history.
+     * @since 1.0
+     */
+    private void evaluate(Node node) {
+        int cells = spec.getCellCount();
+        int words = BitBoard.wordsFor(cells);
+        long[] blocked = new long[words];
+        long[] required = new long[words];
+        boolean[] skipped = new boolean[spec.getShipCount()];
+        for (int cell = 0; cell < cells; cell++) {
+            byte state = node.states[cell];
+            if (state == ZobristKeys.HIT) {
+                required[cell >>> 6] |= 1L << cell;
+            } else if (state != 0) {
+                blocked[cell >>> 6] |= 1L << cell;
+            }
+            if (state == ZobristKeys.SUNK) {
+                skipOneCellShip(skipped);
+            }
+        }
+        PlacementGenerator generator = generators.get();
+        generator.setConstraints(blocked, required, skipped);
+
+        SplittableRandom random = new SplittableRandom(keySeed ^ node.hash);
+        int[] layout = new int[spec.getShipCount()];
+        int[] covered = new int[cells];
+        int[] sunkSingle = new int[cells];
+        int[] sunkLonger = new int[cells];
+        int cols = spec.getCols();
+        int drawn = 0;
+        for (int attempt = 0; drawn < samples && attempt < samples * 4; attempt++) {
+            if (!generator.sample(random, ATTEMPTS_PER_SAMPLE, layout)) continue;
+            drawn++;
+            for (int ship = 0; ship < layout.length; ship++) {
+                if (layout[ship] < 0) continue;
+                int start = layout[ship] >>> 1;
+                int step = PlacementGenerator.isHorizontal(layout[ship]) ? 1 : cols;
+                int length = spec.getShipLength(ship);
+                int unknown = 0;
+                int last = -1;
+                for (int s = 0; s < length; s++) {
+                    int cell = start + s * step;
+                    covered[cell]++;
+                    if (node.states[cell] == 0) {
+                        unknown++;
+                        last = cell;
+                    }
+                }
+                if (unknown == 1) { // One more hit sinks it
+                    if (length == 1) {
+                        sunkSingle[last]++;
+                    } else {
+                        sunkLonger[last]++;
+                    }
+                }
+            }
+        }
+
+        int best = ShotStrategy.NO_TARGET;
+        for (int cell = 0; cell < cells; cell++) {
+            if (node.states[cell] == 0 && covered[cell] > 0 && (best < 0 || covered[cell] > covered[best])) {
+                best = cell;
+            }
+        }
+        node.best = best;
+        if (best >= 0) {
+            node.missProbability = 1 - (double) covered[best] / drawn;
+            node.sunkProbability = (double) sunkSingle[best] / drawn;
+            node.hitProbability = (double) (covered[best] - sunkSingle[best] - sunkLonger[best]) / drawn;
+        }
+    }
+
+    private void skipOneCellShip(boolean[] skipped) {
+        for (int ship = 0; ship < skipped.length; ship++) {
+            if (!skipped[ship] && spec.getShipLength(ship) == 1) {
+                skipped[ship] = true;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Builds the book of the standard game.
+     *
+     * @param args the output file, the maximum shots per history (8 by default), the minimum reach
+     *             probability (0.002 by default) and the samples per history (100000 by default).
+     * @throws IOException if the book cannot be written.
+     * @since 1.0
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Path.of(args.length > 0 ? args[0] : "src/main/resources" + OpeningBook.STANDARD_RESOURCE);
+        int maxShots = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        double minReach = args.length > 2 ? Double.parseDouble(args[2]) : 0.002;
+        int samples = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+
+        long start = System.nanoTime();
+        OpeningBookGenerator generator = new OpeningBookGenerator(GameSpec.STANDARD, DEFAULT_KEY_SEED, samples);
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        int entries;
+        try (OutputStream out = Files.newOutputStream(path)) {
+            entries = generator.write(maxShots, minReach, out);
+        }
+        System.out.printf("Libro de aperturas: %d historias en %s (%.1f s)%n",
+                entries, path, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * A history being expanded, with the shot chosen for it and the probabilities of its outcomes.
+     */
+    private static final class Node {
+        private final byte[] states;
+        private final long hash;
+        private final double reach;
+        private int best = ShotStrategy.NO_TARGET;
+        private double missProbability;
+        private double hitProbability;
+        private double sunkProbability;
+
+        Node(byte[] states, long hash, double reach) {
+            this.states = states;
+            this.hash = hash;
+            this.reach = reach;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.battleship.battleshipfpoe.engine;
+
+/**
+ * Plays the first shots of a game from an {@link OpeningBook} and hands over to another strategy
+ * as soon as the history leaves the book. A book decision is a hash of the visible board and a
+ * binary search, so it takes no time from the deadline of the wrapped strategy.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class OpeningBookStrategy implements ShotStrategy {
+    private final OpeningBook book;
+    private final ShotStrategy delegate;
+    private long bookDecisions;
+
+    /**
+     * Constructs a strategy that opens from a book.
+     *
+     * @param book the book of the game's spec.
+     * @param delegate the strategy used once the history leaves the book.
+     * @since 1.0
+     */
+    public OpeningBookStrategy(OpeningBook book, ShotStrategy delegate) {
+        this.book = book;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int chooseTarget(OpponentView view, long deadlineNanos) {
+        int cell = book.lookup(view);
+        if (cell != NO_TARGET && view.isTarget(cell)) {
+            bookDecisions++;
+            return cell;
+        }
+        return delegate.chooseTarget(view, deadlineNanos);
+    }
+
+    @Override
+    public void reset() {
+        bookDecisions = 0;
+        delegate.reset();
+    }
+
+    /**
+     * Retrieves the number of decisions answered by the book since the last reset.
+     *
+     * @return the number of book decisions.
+     * @since 1.0
+     */
+    public long getBookDecisions() {
+        return bookDecisions;
+    }
+
+    /**
+     * Retrieves the strategy used once the history leaves the book.
+     *
+     * @return the wrapped strategy.
+     * @since 1.0
+     */
+    public ShotStrategy getDelegate() {
+        return delegate;
+    }
+}
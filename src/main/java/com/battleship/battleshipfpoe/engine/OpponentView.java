@@ -0,0 +1,252 @@
+package com.battleship.battleshipfpoe.engine;
+
+/**
+ * Read-only view of a board as seen by the side firing at it.
+ * It exposes what the shooter is allowed to know: which cells have been fired at, which shots hit
+ * or sank a ship, the cells still untargeted and the lengths of the ships still afloat. The
+ * position of ships that have not been hit is never revealed.
+ * <p>
+ * Views are live: they read straight from the board and its target pool, so one view can be kept
+ * for a whole game. None of the methods allocate.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class OpponentView {
+    private final BitBoard board;
+    private final TargetPool targets;
+    private final ShipIndex ships;
+
+    /**
+     * Constructs a view over a board and the pool of its untargeted cells.
+     *
+     * @param board the board being fired at.
+     * @param targets the untargeted cells of that board.
+     * @since 1.0
+     */
+    public OpponentView(BitBoard board, TargetPool targets) {
+        this.board = board;
+        this.targets = targets;
+        this.ships = board.getShips();
+    }
+
+    /**
+     * Creates a view over a private copy of the board and target pool of this one, for a reader that
+     * must not see them change while it reads.
+     *
+     * @return the snapshot.
+     * @since 1.0
+     * @see #copyFrom(OpponentView)
+     */
+    OpponentView snapshot() {
+        BitBoard copy = new BitBoard(board.getRows(), board.getCols());
+        copy.copyFrom(board);
+        TargetPool pool = new TargetPool(copy);
+        pool.copyFrom(targets);
+        return new OpponentView(copy, pool);
+    }
+
+    /**
+     * Brings a snapshot up to date with the view it was taken from.
+     *
+     * @param source the view the snapshot was taken from.
+     * @since 1.0
+     */
+    void copyFrom(OpponentView source) {
+        board.copyFrom(source.board);
+        targets.copyFrom(source.targets);
+    }
+
+    /**
+     * Retrieves the number of rows of the board.
+     *
+     * @return the number of rows.
+     * @since 1.0
+     */
+    public int getRows() {
+        return board.getRows();
+    }
+
+    /**
+     * Retrieves the number of columns of the board.
+     *
+     * @return the number of columns.
+     * @since 1.0
+     */
+    public int getCols() {
+        return board.getCols();
+    }
+
+    /**
+     * Retrieves the number of cells of the board.
+     *
+     * @return rows times columns.
+     * @since 1.0
+     */
+    public int getCellCount() {
+        return board.getRows() * board.getCols();
+    }
+
+    /**
+     * Retrieves the row of a linear cell index.
+     *
+     * @param cell the linear index ({@code row * cols + col}) of the cell.
+     * @return the row index.
+     * @since 1.0
+     */
+    public int rowOf(int cell) {
+        return cell / board.getCols();
+    }
+
+    /**
+     * Retrieves the column of a linear cell index.
+     *
+     * @param cell the linear index ({@code row * cols + col}) of the cell.
+     * @return the column index.
+     * @since 1.0
+     */
+    public int colOf(int cell) {
+        return cell % board.getCols();
+    }
+
+    /**
+     * Checks whether a cell has already been fired at.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return true if the cell has been shot.
+     * @since 1.0
+     */
+    public boolean isShot(int row, int col) {
+        return board.isShot(row, col);
+    }
+
+    /**
+     * Checks whether a shot at a cell hit a ship, sunk or not.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return true if the cell is a hit.
+     * @since 1.0
+     */
+    public boolean isHit(int row, int col) {
+        return board.isHit(row, col);
+    }
+
+    /**
+     * Checks whether a cell belongs to a ship that has been sunk.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return true if the cell is part of a sunk ship.
+     * @since 1.0
+     */
+    public boolean isSunk(int row, int col) {
+        return board.isSunk(row, col);
+    }
+
+    /**
+     * Checks whether a cell is a hit on a ship that is still afloat, i.e. a lead worth following.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return true if the cell is hit but not sunk.
+     * @since 1.0
+     */
+    public boolean isOpenHit(int row, int col) {
+        return board.isHit(row, col) && !board.isSunk(row, col);
+    }
+
+    /**
+     * Checks whether a cell can still be fired at.
+     *
+     * @param cell the linear index of the cell.
+     * @return true if the cell has not been fired at.
+     * @since 1.0
+     */
+    public boolean isTarget(int cell) {
+        return cell >= 0 && cell < getCellCount() && targets.contains(rowOf(cell), colOf(cell));
+    }
+
+    /**
+     * Retrieves the mutation counter of the board behind the view.
+     *
+     * @return the version of the board.
+     * @since 1.0
+     * @see BitBoard#getVersion()
+     */
+    public int getVersion() {
+        return board.getVersion();
+    }
+
+    /**
+     * Retrieves the number of cells that can still be fired at.
+     *
+     * @return the number of untargeted cells.
+     * @since 1.0
+     */
+    public int getTargetCount() {
+        return targets.size();
+    }
+
+    /**
+     * Retrieves an untargeted cell by its position in the target pool.
+     * Positions change as cells are fired at, so they are only meaningful within one decision.
+     *
+     * @param position the position, between 0 and {@link #getTargetCount()} - 1.
+     * @return the linear index of the cell.
+     * @since 1.0
+     */
+    public int getTargetAt(int position) {
+        return targets.cellAt(position);
+    }
+
+    /**
+     * Retrieves the number of ships that are still afloat.
+     *
+     * @return the number of ships not sunk yet.
+     * @since 1.0
+     */
+    public int getShipsAfloat() {
+        return ships.getShipsAfloat();
+    }
+
+    /**
+     * Writes the lengths of the ships still afloat. Only lengths are revealed, never positions.
+     *
+     * @param out the array receiving the lengths; it must hold at least {@link #getShipsAfloat()} entries.
+     * @return the number of lengths written.
+     * @since 1.0
+     */
+    public int getAfloatLengths(int[] out) {
+        int count = 0;
+        for (int id = 0; id < ships.getShipCount(); id++) {
+            if (!ships.isSunk(id)) {
+                out[count++] = ships.getLength(id);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the length of the shortest ship still afloat.
+     *
+     * @return the minimum afloat length, or 0 if every ship has been sunk.
+     * @since 1.0
+     */
+    public int getSmallestAfloatLength() {
+        int min = 0;
+        for (int id = 0; id < ships.getShipCount(); id++) {
+            if (!ships.isSunk(id) && (min == 0 || ships.getLength(id) < min)) {
+                min = ships.getLength(id);
+            }
+        }
+        return min;
+    }
+}
@@ -0,0 +1,681 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Constructive random fleet placement with a bounded worst-case time.
+ * For every ship, longest first, the generator enumerates the anchors that are legal with the
+ * ships already placed and picks one of them at random; when a ship has no legal anchor left it
+ * backtracks to the previous ship and tries another of its anchors.
+ * <p>
+ * Feasibility is decided once, when the generator is constructed, by an exhaustive search that
+ * skips equivalent orderings of equal-length ships. Fleets that cannot be placed are reported
+ * there instead of making every later placement spin. The layout found by that search is kept as
+ * a fallback: if a random search exceeds the attempt budget, a randomly mirrored copy of the
+ * fallback layout is returned, so {@link #generate(RandomGenerator, int[])} always terminates
+ * after at most {@code budget} anchor attempts.
+ * <p>
+ * If the feasibility search itself runs out of budget, feasibility is left unknown rather than the
+ * fleet being rejected. Random searches then restart up to {@link #UNKNOWN_RESTARTS} times, and the
+ * first layout they find becomes the fallback.
+ * <p>
+ * Samples consistent with what a shooter knows are built the same way, except that the hits on ships
+ * not sunk yet are covered first: each one gets a ship whose anchor is drawn among those that cover it,
+ * so a sample never depends on covering the hits by chance, however large the board.
+ * <p>
+ * Layouts are written as one anchor per ship, in spec order, encoded as
+ * {@code (row * cols + col) << 1 | (isHorizontal ? 0 : 1)}. A generator reuses its scratch
+ * buffers and is therefore not thread-safe; use one instance per thread.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class PlacementGenerator {
+    /**
+     * Default number of anchor attempts allowed for each search.
+     */
+    public static final int DEFAULT_BUDGET = 1 << 16;
+
+    /**
+     * Number of random searches tried per layout while no layout of the fleet is known.
+     */
+    public static final int UNKNOWN_RESTARTS = 16;
+
+    private static final int CLOCK_MASK = 255; // The deadline is read once every 256 attempts
+    private static final int HIT_SHIFT = 4;
+    private static final int MAX_WEIGHTED_HITS = 8;
+
+    private final GameSpec spec;
+    private final int rows;
+    private final int cols;
+    private final int budget;
+    private final int[] order;         // Ship indexes sorted by decreasing length
+    private final int words;
+    private final long[][] startsByLength; // Anchors that stay inside the board, per ship length
+    private final long[] candidates;   // Untried legal anchors, 2 * words per depth
+    private final int[] chosen;        // Current anchor of every ship, in spec order
+    private final int[] chosenKey;     // Position of every chosen anchor in the candidate bit set
+    private int[] fallback;            // Layout found by the feasibility search, or null if unknown
+    private final long[] occupied;     // Scratch occupancy, indexed row * cols + col
+    private final long[] occupiedByColumn; // Same plane, indexed col * rows + row
+    private final long[] blocked;      // Cells no sampled ship may cover, indexed row * cols + col
+    private final long[] blockedByColumn;
+    private final long[] required;     // Cells the sampled ships must cover
+    private final boolean[] skipped;   // Ships left out of the samples
+    private final boolean[] covering;  // Ships of the sample placed over a required cell
+    private boolean sampling;
+    private int attemptsLeft;
+    private long stopAt = Long.MAX_VALUE;
+
+    /**
+     * Constructs a generator for a spec with the default attempt budget.
+     *
+     * @param spec the board dimensions and fleet to place.
+     * @throws IllegalArgumentException if the fleet cannot be placed on the board.
+     * @since 1.0
+     */
+    public PlacementGenerator(GameSpec spec) {
+        this(spec, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Constructs a generator for a spec and checks that its fleet can be placed.
+     *
+     * @param spec the board dimensions and fleet to place.
+     * @param budget the maximum number of anchor attempts of every search.
+     * @throws IllegalArgumentException if the budget is not positive or the fleet cannot be placed on
+     *                                  the board.
+     * @since 1.0
+     */
+    public PlacementGenerator(GameSpec spec, int budget) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("El presupuesto de intentos debe ser positivo.");
+        }
+        this.spec = spec;
+        this.rows = spec.getRows();
+        this.cols = spec.getCols();
+        this.budget = budget;
+        int ships = spec.getShipCount();
+        order = new int[ships];
+        for (int i = 0; i < ships; i++) {
+            order[i] = i;
+        }
+        // Insertion sort by decreasing length, stable so equal ships keep their spec order
+        for (int i = 1; i < ships; i++) {
+            int ship = order[i];
+            int j = i - 1;
+            while (j >= 0 && spec.getShipLength(order[j]) < spec.getShipLength(ship)) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = ship;
+        }
+        words = BitBoard.wordsFor(spec.getCellCount());
+        startsByLength = new long[spec.getMaxShipLength() + 1][];
+        for (int i = 0; i < ships; i++) {
+            int length = spec.getShipLength(i);
+            if (startsByLength[length] == null) {
+                startsByLength[length] = starts(length);
+            }
+        }
+        candidates = new long[ships * 2 * words];
+        chosen = new int[ships];
+        chosenKey = new int[ships];
+        occupied = new long[words];
+        occupiedByColumn = new long[words];
+        blocked = new long[words];
+        blockedByColumn = new long[words];
+        required = new long[words];
+        skipped = new boolean[ships];
+        covering = new boolean[ships];
+
+        clearScratch();
+        attemptsLeft = budget;
+        if (search(0, null)) {
+            fallback = chosen.clone();
+        } else if (attemptsLeft >= 0) {
+            throw new IllegalArgumentException("La flota no se puede ubicar en el tablero: " + spec);
+        }
+    }
+
+    /**
+     * Constructs a generator for the same spec and budget as another one, reusing its feasibility
+     * check and fallback layout. Only the scratch buffers are allocated, which makes this the cheap
+     * way to give every worker thread its own generator.
+     *
+     * @param other the generator to copy.
+     * @since 1.0
+     */
+    public PlacementGenerator(PlacementGenerator other) {
+        this.spec = other.spec;
+        this.rows = other.rows;
+        this.cols = other.cols;
+        this.budget = other.budget;
+        this.order = other.order;
+        this.words = other.words;
+        this.startsByLength = other.startsByLength;
+        this.fallback = other.fallback;
+        int ships = spec.getShipCount();
+        candidates = new long[ships * 2 * words];
+        chosen = new int[ships];
+        chosenKey = new int[ships];
+        occupied = new long[words];
+        occupiedByColumn = new long[words];
+        blocked = new long[words];
+        blockedByColumn = new long[words];
+        required = new long[words];
+        skipped = new boolean[ships];
+        covering = new boolean[ships];
+    }
+
+    /**
+     * Generates a random layout of the fleet on an empty board.
+     *
+     * @param random the source of randomness.
+     * @param out the array receiving one encoded anchor per ship, in spec order.
+     * @throws IllegalStateException if no layout of the fleet is known and none is found within
+     *                               {@link #UNKNOWN_RESTARTS} searches.
+     * @since 1.0
+     */
+    public void generate(RandomGenerator random, int[] out) {
+        generate(random, out, 0);
+    }
+
+    /**
+     * Generates a random layout of the fleet on an empty board into a region of a buffer.
+     *
+     * @param random the source of randomness.
+     * @param out the buffer receiving one encoded anchor per ship, in spec order.
+     * @param offset the position of the first anchor in the buffer.
+     * @throws IllegalStateException if no layout of the fleet is known and none is found within
+     *                               {@link #UNKNOWN_RESTARTS} searches.
+     * @since 1.0
+     */
+    public void generate(RandomGenerator random, int[] out, int offset) {
+        int searches = fallback == null ? UNKNOWN_RESTARTS : 1;
+        for (int i = 0; i < searches; i++) {
+            clearScratch();
+            attemptsLeft = budget;
+            if (search(0, random)) {
+                if (fallback == null) fallback = chosen.clone();
+                System.arraycopy(chosen, 0, out, offset, chosen.length);
+                return;
+            }
+        }
+        if (fallback == null) {
+            throw new IllegalStateException("No se encontró una ubicación para la flota en "
+                    + searches + " búsquedas de " + budget + " intentos: " + spec);
+        }
+        mirrorFallback(random, out, offset);
+    }
+
+    /**
+     * Writes a randomly mirrored copy of the layout found by the feasibility search.
+     * Mirroring the rows or the columns keeps every placement inside the board and free of overlaps.
+     *
+     * @param random the source of randomness.
+     * @param out the buffer receiving one encoded anchor per ship, in spec order.
+     * @param offset the position of the first anchor in the buffer.
+     * @since 1.0
+     */
+    private void mirrorFallback(RandomGenerator random, int[] out, int offset) {
+        boolean flipRows = random.nextBoolean();
+        boolean flipCols = random.nextBoolean();
+        for (int ship = 0; ship < fallback.length; ship++) {
+            int anchor = fallback[ship];
+            int length = spec.getShipLength(ship);
+            boolean isHorizontal = isHorizontal(anchor);
+            int row = rowOf(anchor);
+            int col = colOf(anchor);
+            if (flipRows) row = rows - row - (isHorizontal ? 1 : length);
+            if (flipCols) col = cols - col - (isHorizontal ? length : 1);
+            out[offset + ship] = encode(row, col, isHorizontal);
+        }
+    }
+
+    /**
+     * Places a random layout of the fleet on a board, registering the ships in spec order.
+     * Ships already on the board are taken into account; the mirrored fallback layout and the
+     * restarts of an unknown fleet are only used when the board is empty.
+     *
+     * @param board the board to place the fleet on; it must have the spec's dimensions.
+     * @param random the source of randomness.
+     * @throws IllegalArgumentException if the board dimensions do not match the spec.
+     * @throws IllegalStateException if the ships already on the board leave no room for the fleet
+     *                               within the attempt budget, or if no layout of the fleet is known
+     *                               and none is found within {@link #UNKNOWN_RESTARTS} searches.
+     * @since 1.0
+     */
+    public void place(BitBoard board, RandomGenerator random) {
+        if (board.getRows() != rows || board.getCols() != cols) {
+            throw new IllegalArgumentException("El tablero no tiene las dimensiones de " + spec);
+        }
+        clearScratch();
+        boolean empty = true;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (board.isOccupied(row, col)) {
+                    mark(row, col, 1, true);
+                    empty = false;
+                }
+            }
+        }
+        int[] layout = chosen;
+        attemptsLeft = budget;
+        if (!search(0, random)) {
+            if (!empty) {
+                throw new IllegalStateException("No hay espacio para la flota en el tablero.");
+            }
+            layout = new int[chosen.length];
+            generate(random, layout, 0);
+        }
+        for (int ship = 0; ship < layout.length; ship++) {
+            int anchor = layout[ship];
+            board.place(rowOf(anchor), colOf(anchor), spec.getShipLength(ship), isHorizontal(anchor));
+        }
+    }
+
+    /**
+     * Sets the constraints of {@link #sample(RandomGenerator, int, int[])}, i.e. what a shooter knows
+     * about the opponent's board: the cells no afloat ship can cover (misses and sunk ships), the
+     * cells the afloat ships must cover (hits on ships not sunk yet) and the ships already sunk.
+     *
+     * @param blockedCells the blocked cells, as a plane indexed {@code row * cols + col}.
+     * @param requiredCells the cells that must be covered, as a plane indexed {@code row * cols + col}.
+     * @param skippedShips the ships, in spec order, that are left out of the samples.
+     * @since 1.0
+     */
+    public void setConstraints(long[] blockedCells, long[] requiredCells, boolean[] skippedShips) {
+        System.arraycopy(blockedCells, 0, blocked, 0, words);
+        System.arraycopy(requiredCells, 0, required, 0, words);
+        System.arraycopy(skippedShips, 0, skipped, 0, skipped.length);
+        Arrays.fill(blockedByColumn, 0L);
+        for (int w = 0; w < words; w++) {
+            for (long bits = blocked[w]; bits != 0; bits &= bits - 1) {
+                int cell = (w << 6) + Long.numberOfTrailingZeros(bits);
+                int index = (cell % cols) * rows + cell / cols;
+                blockedByColumn[index >>> 6] |= 1L << index;
+            }
+        }
+    }
+
+    /**
+     * Samples a random layout of the ships that are not skipped, consistent with the constraints set
+     * by {@link #setConstraints(long[], long[], boolean[])}, without a deadline.
+     *
+     * @param random the source of randomness.
+     * @param maxAttempts the maximum number of anchor attempts of the search.
+     * @param out the array receiving one encoded anchor per ship in spec order, or -1 for skipped ships.
+     * @return true if a consistent layout was written, false if the search failed.
+     * @since 1.0
+     * @see #sample(RandomGenerator, int, long, int[])
+     */
+    public boolean sample(RandomGenerator random, int maxAttempts, int[] out) {
+        return sample(random, maxAttempts, Long.MAX_VALUE, out);
+    }
+
+    /**
+     * Samples a random layout of the ships that are not skipped, consistent with the constraints set
+     * by {@link #setConstraints(long[], long[], boolean[])}. Every required cell is covered first, in
+     * order, by a ship not placed yet; its anchor is drawn among the legal ones that cover the cell,
+     * weighted by {@code 2^(4 * (h - 1))} for an anchor covering {@code h} required cells, so a run of
+     * hits tends to be covered by a single ship. An anchor lying only on required cells is never drawn,
+     * since that ship would already be sunk. The other ships are then placed with the same legality
+     * checks and backtracking as {@link #generate(RandomGenerator, int[])}, around the blocked cells and
+     * the ships already placed.
+     *
+     * @param random the source of randomness.
+     * @param maxAttempts the maximum number of anchor attempts of the search.
+     * @param stopAt the {@link System#nanoTime()} at which the search gives up, checked every few
+     *               attempts.
+     * @param out the array receiving one encoded anchor per ship in spec order, or -1 for skipped ships.
+     * @return true if a consistent layout was written, false if the search failed or ran out of time.
+     * @since 1.0
+     */
+    public boolean sample(RandomGenerator random, int maxAttempts, long stopAt, int[] out) {
+        System.arraycopy(blocked, 0, occupied, 0, words);
+        System.arraycopy(blockedByColumn, 0, occupiedByColumn, 0, words);
+        Arrays.fill(covering, false);
+        attemptsLeft = maxAttempts;
+        this.stopAt = stopAt;
+        sampling = true;
+        try {
+            if (!coverRequired(random) || !search(0, random)) return false;
+        } finally {
+            sampling = false;
+            this.stopAt = Long.MAX_VALUE;
+        }
+        for (int ship = 0; ship < chosen.length; ship++) {
+            out[ship] = skipped[ship] ? -1 : chosen[ship];
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the spec whose fleet this generator places.
+     *
+     * @return the spec.
+     * @since 1.0
+     */
+    public GameSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Encodes an anchor.
+     *
+     * @param row the starting row of the ship.
+     * @param col the starting column of the ship.
+     * @param isHorizontal true if the ship extends to the right, false if it extends downwards.
+     * @return the encoded anchor.
+     * @since 1.0
+     */
+    public int encode(int row, int col, boolean isHorizontal) {
+        return (row * cols + col) << 1 | (isHorizontal ? 0 : 1);
+    }
+
+    /**
+     * Retrieves the starting row of an encoded anchor.
+     *
+     * @param anchor the encoded anchor.
+     * @return the row index.
+     * @since 1.0
+     */
+    public int rowOf(int anchor) {
+        return (anchor >>> 1) / cols;
+    }
+
+    /**
+     * Retrieves the starting column of an encoded anchor.
+     *
+     * @param anchor the encoded anchor.
+     * @return the column index.
+     * @since 1.0
+     */
+    public int colOf(int anchor) {
+        return (anchor >>> 1) % cols;
+    }
+
+    /**
+     * Retrieves the orientation of an encoded anchor.
+     *
+     * @param anchor the encoded anchor.
+     * @return true if the ship extends to the right, false if it extends downwards.
+     * @since 1.0
+     */
+    public static boolean isHorizontal(int anchor) {
+        return (anchor & 1) == 0;
+    }
+
+    /**
+     * Places the ships from {@code depth} onwards, backtracking over the legal anchors of each one.
+     * Without a source of randomness the anchors are tried in order and equal-length ships only take
+     * increasing anchors, which makes the search exhaustive without repeating equivalent layouts.
+     *
+     * @param depth the position in {@link #order} of the next ship to place.
+     * @param random the source of randomness, or {@code null} for the exhaustive search.
+     * @return true if every remaining ship was placed, false if none fits or the budget ran out.
+     * @since 1.0
+     */
+    private boolean search(int depth, RandomGenerator random) {
+        if (depth == order.length) return true;
+        int ship = order[depth];
+        if (sampling && (skipped[ship] || covering[ship])) return search(depth + 1, random);
+        int length = spec.getShipLength(ship);
+        int minKey = -1;
+        if (random == null && depth > 0 && spec.getShipLength(order[depth - 1]) == length) {
+            minKey = chosenKey[order[depth - 1]];
+        }
+        int base = depth * 2 * words;
+        int count = enumerate(length, minKey, base);
+        while (count > 0) {
+            if (!attempt()) return false;
+            int key = select(base, random == null ? 0 : random.nextInt(count));
+            candidates[base + (key >>> 6)] &= ~(1L << key);
+            count--;
+            int row;
+            int col;
+            boolean isHorizontal = key < words << 6;
+            if (isHorizontal) {
+                row = key / cols;
+                col = key % cols;
+            } else {
+                int index = key - (words << 6);
+                row = index % rows;
+                col = index / rows;
+            }
+            mark(row, col, length, isHorizontal);
+            chosen[ship] = encode(row, col, isHorizontal);
+            chosenKey[ship] = key;
+            if (search(depth + 1, random)) return true;
+            unmark(row, col, length, isHorizontal);
+            if (attemptsLeft < 0) return false;
+        }
+        return false;
+    }
+
+    /**
+     * Spends one anchor attempt, reading the clock every {@code CLOCK_MASK + 1} attempts.
+     *
+     * @return false if the budget or the time ran out, which also ends every enclosing search.
+     * @since 1.0
+     */
+    private boolean attempt() {
+        if (--attemptsLeft < 0) return false;
+        if ((attemptsLeft & CLOCK_MASK) == 0 && System.nanoTime() >= stopAt) {
+            attemptsLeft = -1;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Covers every required cell that is not covered yet with a ship of the sample.
+     *
+     * @param random the source of randomness.
+     * @return false if a required cell cannot be covered or the budget or the time ran out.
+     * @since 1.0
+     */
+    private boolean coverRequired(RandomGenerator random) {
+        for (int w = 0; w < words; w++) {
+            long open;
+            while ((open = required[w] & ~occupied[w]) != 0) {
+                int cell = (w << 6) + Long.numberOfTrailingZeros(open);
+                if (!attempt()) return false;
+                long total = coverings(cell / cols, cell % cols, -1);
+                if (total == 0) return false;
+                coverings(cell / cols, cell % cols, random.nextLong(total));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Weighs the legal anchors of the ships not placed yet that cover a cell, or places one of them.
+     *
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @param pick the cumulative weight at which the anchor to place is found, or -1 to only weigh
+     *             the anchors.
+     * @return the total weight of the anchors, up to the placed one.
+     * @since 1.0
+     */
+    private long coverings(int row, int col, long pick) {
+        long total = 0;
+        for (int ship = 0; ship < covering.length; ship++) {
+            if (skipped[ship] || covering[ship]) continue;
+            int length = spec.getShipLength(ship);
+            for (int k = 0; k < length; k++) {
+                for (int v = 0; v < (length > 1 ? 2 : 1); v++) {
+                    boolean isHorizontal = v == 0;
+                    int r = isHorizontal ? row : row - k;
+                    int c = isHorizontal ? col - k : col;
+                    int hits = requiredCovered(r, c, length, isHorizontal);
+                    if (hits < 0) continue;
+                    total += 1L << (HIT_SHIFT * Math.min(hits - 1, MAX_WEIGHTED_HITS));
+                    if (pick >= 0 && total > pick) {
+                        mark(r, c, length, isHorizontal);
+                        chosen[ship] = encode(r, c, isHorizontal);
+                        covering[ship] = true;
+                        return total;
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Counts the required cells a ship would cover.
+     *
+     * @return the number of required cells, or -1 if the ship leaves the board, overlaps an occupied
+     *         cell or lies only on required cells.
+     */
+    private int requiredCovered(int row, int col, int length, boolean isHorizontal) {
+        if (row < 0 || col < 0 || (isHorizontal ? col + length > cols : row + length > rows)) return -1;
+        int hits = 0;
+        for (int k = 0; k < length; k++) {
+            int index = isHorizontal ? row * cols + col + k : (row + k) * cols + col;
+            if ((occupied[index >>> 6] & 1L << index) != 0) return -1;
+            if ((required[index >>> 6] & 1L << index) != 0) hits++;
+        }
+        return hits == length ? -1 : hits;
+    }
+
+    /**
+     * Computes the legal anchors of a ship for the current scratch occupancy.
+     * The candidates are stored as a bit set of {@code 2 * words} words: the horizontal anchors,
+     * indexed {@code row * cols + col}, followed by the vertical ones, indexed {@code col * rows + row}.
+     * An anchor is legal when it keeps the ship inside the board and none of the {@code length}
+     * consecutive bits starting at it is occupied, which is tested a whole word at a time.
+     *
+     * @param length the length of the ship.
+     * @param minKey only candidates after this position are kept, or -1 to keep them all.
+     * @param base the position in {@link #candidates} of the first word.
+     * @return the number of candidates.
+     * @since 1.0
+     */
+    private int enumerate(int length, int minKey, int base) {
+        long[] starts = startsByLength[length];
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            long blocked = 0;
+            long blockedByColumn = 0;
+            for (int shift = 0; shift < length; shift++) {
+                blocked |= shiftedWord(occupied, w, shift);
+                blockedByColumn |= shiftedWord(occupiedByColumn, w, shift);
+            }
+            candidates[base + w] = starts[w] & ~blocked;
+            candidates[base + words + w] = starts[words + w] & ~blockedByColumn;
+        }
+        if (minKey >= 0) {
+            int lastWord = minKey >>> 6;
+            for (int w = 0; w < lastWord; w++) {
+                candidates[base + w] = 0;
+            }
+            candidates[base + lastWord] &= -2L << minKey;
+        }
+        for (int w = 0; w < 2 * words; w++) {
+            count += Long.bitCount(candidates[base + w]);
+        }
+        return count;
+    }
+
+    /**
+     * Finds the position of the n-th candidate of a depth.
+     *
+     * @param base the position in {@link #candidates} of the first word.
+     * @param n the number of candidates to skip.
+     * @return the position of the candidate in the bit set.
+     * @since 1.0
+     */
+    private int select(int base, int n) {
+        int w = 0;
+        long word = candidates[base];
+        int bits = Long.bitCount(word);
+        while (n >= bits) {
+            n -= bits;
+            word = candidates[base + ++w];
+            bits = Long.bitCount(word);
+        }
+        for (; n > 0; n--) {
+            word &= word - 1;
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Reads word {@code w} of a plane shifted {@code shift} bits towards the lower indexes.
+     *
+     * @param plane the plane to read.
+     * @param w the index of the word.
+     * @param shift the number of bits to shift.
+     * @return the shifted word.
+     * @since 1.0
+     */
+    private long shiftedWord(long[] plane, int w, int shift) {
+        int source = w + (shift >>> 6);
+        int bits = shift & 63;
+        if (source >= words) return 0;
+        long word = plane[source] >>> bits;
+        if (bits != 0 && source + 1 < words) {
+            word |= plane[source + 1] << (64 - bits);
+        }
+        return word;
+    }
+
+    /**
+     * Builds the candidate bit set of the anchors that keep a ship of the given length inside the board.
+     * Ships of length one are only enumerated horizontally, so every cell is a single candidate.
+     *
+     * @param length the length of the ship.
+     * @return the horizontal starts followed by the vertical starts.
+     * @since 1.0
+     */
+    private long[] starts(int length) {
+        long[] starts = new long[2 * words];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (col + length <= cols) {
+                    int index = row * cols + col;
+                    starts[index >>> 6] |= 1L << index;
+                }
+                if (length > 1 && row + length <= rows) {
+                    int index = col * rows + row;
+                    starts[words + (index >>> 6)] |= 1L << index;
+                }
+            }
+        }
+        return starts;
+    }
+
+    private void mark(int row, int col, int length, boolean isHorizontal) {
+        for (int k = 0; k < length; k++) {
+            int i = isHorizontal ? row : row + k;
+            int j = isHorizontal ? col + k : col;
+            occupied[(i * cols + j) >>> 6] |= 1L << (i * cols + j);
+            occupiedByColumn[(j * rows + i) >>> 6] |= 1L << (j * rows + i);
+        }
+    }
+
+    private void unmark(int row, int col, int length, boolean isHorizontal) {
+        for (int k = 0; k < length; k++) {
+            int i = isHorizontal ? row : row + k;
+            int j = isHorizontal ? col + k : col;
+            occupied[(i * cols + j) >>> 6] &= ~(1L << (i * cols + j));
+            occupiedByColumn[(j * rows + i) >>> 6] &= ~(1L << (j * rows + i));
+        }
+    }
+
+    private void clearScratch() {
+        Arrays.fill(occupied, 0L);
+        Arrays.fill(occupiedByColumn, 0L);
+    }
+}
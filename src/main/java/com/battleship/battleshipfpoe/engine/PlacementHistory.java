@@ -0,0 +1,135 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.io.Serializable;
+
+/**
+ * Frequency model of where a player places their ships, learned from their finished layouts.
+ * For every ship length the model counts how often a ship of that length was anchored at each cell
+ * with each orientation, using the anchor encoding of {@link PlacementGenerator}. Recording a game
+ * increments one counter per ship, and the model has a fixed size that only depends on the board and
+ * the fleet, so saving and loading it costs the same after one game or after thousands.
+ * <p>
+ * Strategies turn the counts into integer prior weights with {@link #priorWeight}: a placement never
+ * used weighs 1, and one used in every recorded game weighs {@code 1 + LEARNING_WEIGHT}.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class PlacementHistory implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Extra prior weight of a placement used in every recorded game.
+     */
+    public static final int LEARNING_WEIGHT = 64;
+
+    private final int rows;
+    private final int cols;
+    private final int[][] counts; // Per length, per anchor (row * cols + col) << 1 | vertical
+    private int games;
+
+    /**
+     * Constructs an empty history for the boards of a spec.
+     *
+     * @param spec the board dimensions and fleet of the games.
+     * @since 1.0
+     */
+    public PlacementHistory(GameSpec spec) {
+        this.rows = spec.getRows();
+        this.cols = spec.getCols();
+        this.counts = new int[spec.getMaxShipLength() + 1][];
+        for (int length : spec.getShipLengths()) {
+            if (counts[length] == null) {
+                counts[length] = new int[spec.getCellCount() * 2];
+            }
+        }
+    }
+
+    /**
+     * Records the finished layout of one game, incrementing one counter per ship.
+     * Ships whose length the history does not know are ignored.
+     *
+     * @param ships the ships of the player's board.
+     * @throws IllegalArgumentException if the board does not have the dimensions of the history.
+     * @since 1.0
+     */
+    public void record(ShipIndex ships) {
+        for (int id = 0; id < ships.getShipCount(); id++) {
+            int length = ships.getLength(id);
+            int row = ships.getRow(id);
+            int col = ships.getCol(id);
+            if (row >= rows || col >= cols) {
+                throw new IllegalArgumentException("El barco no cabe en el tablero del historial.");
+            }
+            if (length < counts.length && counts[length] != null) {
+                counts[length][anchor(row, col, ships.isHorizontal(id))]++;
+            }
+        }
+        games++;
+    }
+
+    /**
+     * Retrieves how many recorded games had a ship of a length at a placement.
+     *
+     * @param length the length of the ship.
+     * @param row the row of the ship's first cell.
+     * @param col the column of the ship's first cell.
+     * @param isHorizontal true if the ship is horizontal.
+     * @return the number of games, 0 for lengths the history does not know.
+     * @since 1.0
+     */
+    public int getCount(int length, int row, int col, boolean isHorizontal) {
+        if (length >= counts.length || counts[length] == null) return 0;
+        return counts[length][anchor(row, col, isHorizontal)];
+    }
+
+    /**
+     * Computes the prior weight of a placement: 1 plus {@link #LEARNING_WEIGHT} times the fraction
+     * of recorded games that used it, rounded down. Every placement weighs 1 before the first game.
+     *
+     * @param length the length of the ship.
+     * @param row the row of the ship's first cell.
+     * @param col the column of the ship's first cell.
+     * @param isHorizontal true if the ship is horizontal.
+     * @return the prior weight, between 1 and {@code 1 + LEARNING_WEIGHT} times the ships of that length.
+     * @since 1.0
+     */
+    public int priorWeight(int length, int row, int col, boolean isHorizontal) {
+        return games == 0 ? 1 : 1 + (int) ((long) LEARNING_WEIGHT * getCount(length, row, col, isHorizontal) / games);
+    }
+
+    /**
+     * Retrieves the number of games recorded.
+     *
+     * @return the number of games.
+     * @since 1.0
+     */
+    public int getGames() {
+        return games;
+    }
+
+    /**
+     * Checks whether the history was learned on boards of a spec.
+     *
+     * @param spec the spec to check.
+     * @return true if the dimensions match and the history knows every ship length of the fleet.
+     * @since 1.0
+     */
+    public boolean matches(GameSpec spec) {
+        if (spec.getRows() != rows || spec.getCols() != cols) return false;
+        for (int length : spec.getShipLengths()) {
+            if (length >= counts.length || counts[length] == null) return false;
+        }
+        return true;
+    }
+
+    private int anchor(int row, int col, boolean isHorizontal) {
+        return (row * cols + col) << 1 | (isHorizontal ? 0 : 1);
+    }
+}
@@ -0,0 +1,324 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Probability-density shooter over the remaining fleet.
+ * For every ship length of the fleet the strategy precomputes all horizontal and vertical placements
+ * on the board, together with an inverted index from each cell to the placements that cover it. A
+ * placement is legal while it avoids every miss (-1) and every sunk cell (3); legal placements that
+ * cover unresolved hits (2) weigh {@code 2^(4 * hits)}, so the density concentrates around open
+ * hits. The density of a cell is the weighted number of legal placements covering it, multiplied by
+ * the number of afloat ships of each length, and the strategy fires at the densest untargeted cell.
+ * When a {@link PlacementHistory} of the opponent is given, every placement is further weighted by its
+ * prior weight, so the density leans towards where the opponent has placed ships before.
+ * <p>
+ * The per-length densities are kept up to date incrementally: between decisions only the cells whose
+ * state changed are visited, and only the placements covering them are killed or reweighted. Misses
+ * and sunk cells never become legal again, so a placement is removed at most once per game. Weights
+ * are integers, which keeps the incremental sums exact. A decision then costs one pass over the cells
+ * per ship length and allocates nothing.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ProbabilityDensityStrategy implements ShotStrategy {
+    private static final int HIT_SHIFT = 4;
+    private static final int MAX_WEIGHTED_HITS = 8;
+    private static final byte UNKNOWN = 0;
+    private static final byte OPEN_HIT = 1;
+    private static final byte BLOCKED = 2;
+
+    private final RandomGenerator random;
+    private final int rows;
+    private final int cols;
+    private final int cellCount;
+    private final int[] lengths;           // Distinct ship lengths of the fleet
+    private final int[] placementKind;     // Index in lengths of every placement
+    private final int[] placementOffset;   // First entry of every placement in placementCells
+    private final int[] placementCells;
+    private final int[] cellStart;         // Inverted index: placements covering each cell
+    private final int[] cellPlacements;
+    private final boolean[] alive;
+    private final int[] hitsCovered;
+    private final int[] prior;             // Prior weight of every placement, 1 without history
+    private final long[][] density;        // Weighted legal placements per length and cell
+    private final byte[] state;
+    private final int[] afloatLengths;
+    private final int[] multiplicity;      // Afloat ships per length index
+    private OpponentView lastView;
+
+    /**
+     * Constructs a density strategy for a spec, precomputing every placement of its fleet.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @param random the source of randomness used to break ties.
+     * @since 1.0
+     */
+    public ProbabilityDensityStrategy(GameSpec spec, RandomGenerator random) {
+        this(spec, random, null);
+    }
+
+    /**
+     * Constructs a density strategy for a spec that weights every placement by how often the
+     * opponent has used it.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @param random the source of randomness used to break ties.
+     * @param history the placements of the opponent in earlier games, or null to weight them equally.
+     * @since 1.0
+     */
+    public ProbabilityDensityStrategy(GameSpec spec, RandomGenerator random, PlacementHistory history) {
+        this.random = random;
+        this.rows = spec.getRows();
+        this.cols = spec.getCols();
+        this.cellCount = spec.getCellCount();
+
+        int[] distinct = new int[spec.getShipCount()];
+        int kinds = 0;
+        for (int i = 0; i < spec.getShipCount(); i++) {
+            int length = spec.getShipLength(i);
+            boolean seen = false;
+            for (int k = 0; k < kinds; k++) {
+                seen |= distinct[k] == length;
+            }
+            if (!seen) {
+                distinct[kinds++] = length;
+            }
+        }
+        lengths = Arrays.copyOf(distinct, kinds);
+
+        // Placements per length: horizontal ones, then vertical ones for ships longer than one cell
+        int placements = 0;
+        int entries = 0;
+        for (int length : lengths) {
+            int count = horizontalCount(length) + (length > 1 ? verticalCount(length) : 0);
+            placements += count;
+            entries += count * length;
+        }
+        placementKind = new int[placements];
+        placementOffset = new int[placements + 1];
+        placementCells = new int[entries];
+        prior = new int[placements];
+        boolean learned = history != null && history.matches(spec);
+        int[] coverCount = new int[cellCount];
+        int p = 0;
+        int e = 0;
+        for (int k = 0; k < lengths.length; k++) {
+            int length = lengths[k];
+            for (int vertical = 0; vertical < (length > 1 ? 2 : 1); vertical++) {
+                int maxRow = vertical == 0 ? rows : rows - length + 1;
+                int maxCol = vertical == 0 ? cols - length + 1 : cols;
+                for (int row = 0; row < maxRow; row++) {
+                    for (int col = 0; col < maxCol; col++) {
+                        placementKind[p] = k;
+                        placementOffset[p] = e;
+                        prior[p] = learned ? history.priorWeight(length, row, col, vertical == 0) : 1;
+                        for (int s = 0; s < length; s++) {
+                            int cell = vertical == 0 ? row * cols + col + s : (row + s) * cols + col;
+                            placementCells[e++] = cell;
+                            coverCount[cell]++;
+                        }
+                        p++;
+                    }
+                }
+            }
+        }
+        placementOffset[placements] = e;
+
+        cellStart = new int[cellCount + 1];
+        for (int cell = 0; cell < cellCount; cell++) {
+            cellStart[cell + 1] = cellStart[cell] + coverCount[cell];
+        }
+        cellPlacements = new int[entries];
+        int[] fill = new int[cellCount];
+        for (int q = 0; q < placements; q++) {
+            for (int i = placementOffset[q]; i < placementOffset[q + 1]; i++) {
+                int cell = placementCells[i];
+                cellPlacements[cellStart[cell] + fill[cell]++] = q;
+            }
+        }
+
+        alive = new boolean[placements];
+        hitsCovered = new int[placements];
+        density = new long[lengths.length][cellCount];
+        state = new byte[cellCount];
+        afloatLengths = new int[spec.getShipCount()];
+        multiplicity = new int[lengths.length];
+        rebuild();
+    }
+
+    @Override
+    public void reset() {
+        lastView = null;
+    }
+
+    @Override
+    public int chooseTarget(OpponentView view, long deadlineNanos) {
+        if (view.getRows() != rows || view.getCols() != cols) {
+            throw new IllegalArgumentException("El tablero no tiene las dimensiones de la estrategia.");
+        }
+        if (view != lastView || !sync(view)) {
+            rebuild();
+            lastView = view;
+            sync(view);
+        }
+
+        Arrays.fill(multiplicity, 0);
+        int afloat = view.getAfloatLengths(afloatLengths);
+        for (int i = 0; i < afloat; i++) {
+            for (int k = 0; k < lengths.length; k++) {
+                if (lengths[k] == afloatLengths[i]) {
+                    multiplicity[k]++;
+                }
+            }
+        }
+
+        int best = NO_TARGET;
+        long bestScore = 0;
+        int ties = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (state[cell] != UNKNOWN) continue;
+            long score = 0;
+            for (int k = 0; k < lengths.length; k++) {
+                score += multiplicity[k] * density[k][cell];
+            }
+            if (score <= 0 || score < bestScore) continue;
+            if (score > bestScore) {
+                bestScore = score;
+                ties = 0;
+            }
+            if (random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Retrieves the current density of a cell, i.e. the weighted number of legal placements of the
+     * afloat ships that cover it, as computed by the last decision.
+     *
+     * @param cell the linear index of the cell.
+     * @return the density of the cell.
+     * @since 1.0
+     */
+    public long getDensity(int cell) {
+        long score = 0;
+        for (int k = 0; k < lengths.length; k++) {
+            score += multiplicity[k] * density[k][cell];
+        }
+        return score;
+    }
+
+    /**
+     * Applies the cells whose state changed since the last decision.
+     *
+     * @param view the opponent's board.
+     * @return false if a cell went back to an earlier state, which means a new game started.
+     * @since 1.0
+     */
+    private boolean sync(OpponentView view) {
+        for (int cell = 0; cell < cellCount; cell++) {
+            int row = cell / cols;
+            int col = cell % cols;
+            byte now;
+            if (!view.isShot(row, col)) {
+                now = UNKNOWN;
+            } else if (view.isHit(row, col) && !view.isSunk(row, col)) {
+                now = OPEN_HIT;
+            } else {
+                now = BLOCKED;
+            }
+            byte before = state[cell];
+            if (now == before) continue;
+            if (now < before) return false;
+            if (now == OPEN_HIT) {
+                addHit(cell);
+            } else {
+                block(cell);
+            }
+            state[cell] = now;
+        }
+        return true;
+    }
+
+    /**
+     * Reweights the legal placements covering a cell that has just been hit.
+     *
+     * @param cell the linear index of the cell.
+     * @since 1.0
+     */
+    private void addHit(int cell) {
+        for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+            int p = cellPlacements[i];
+            long before = weight(p);
+            hitsCovered[p]++;
+            if (alive[p]) {
+                long delta = weight(p) - before;
+                if (delta != 0) {
+                    addToDensity(p, delta);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the legal placements covering a cell that has become a miss or part of a sunk ship.
+     *
+     * @param cell the linear index of the cell.
+     * @since 1.0
+     */
+    private void block(int cell) {
+        for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+            int p = cellPlacements[i];
+            if (alive[p]) {
+                alive[p] = false;
+                addToDensity(p, -weight(p));
+            }
+        }
+    }
+
+    private void addToDensity(int p, long delta) {
+        long[] plane = density[placementKind[p]];
+        for (int i = placementOffset[p]; i < placementOffset[p + 1]; i++) {
+            plane[placementCells[i]] += delta;
+        }
+    }
+
+    private long weight(int p) {
+        return (long) prior[p] << (HIT_SHIFT * Math.min(hitsCovered[p], MAX_WEIGHTED_HITS));
+    }
+
+    /**
+     * Marks every placement as legal again and recounts the densities of an empty board.
+     *
+     * @since 1.0
+     */
+    private void rebuild() {
+        Arrays.fill(alive, true);
+        Arrays.fill(hitsCovered, 0);
+        Arrays.fill(state, UNKNOWN);
+        for (long[] plane : density) {
+            Arrays.fill(plane, 0L);
+        }
+        for (int p = 0; p < alive.length; p++) {
+            addToDensity(p, prior[p]);
+        }
+    }
+
+    private int horizontalCount(int length) {
+        return length > cols ? 0 : rows * (cols - length + 1);
+    }
+
+    private int verticalCount(int length) {
+        return length > rows ? 0 : (rows - length + 1) * cols;
+    }
+}
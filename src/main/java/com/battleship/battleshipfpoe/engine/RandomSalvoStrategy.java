@@ -0,0 +1,66 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Fires every shot of a salvo at a different untargeted cell chosen uniformly at random.
+ * Like the {@link RandomShotStrategy}, it answers without allocating, which makes it the fallback
+ * that completes the salvos of the other strategies.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class RandomSalvoStrategy implements SalvoStrategy {
+    private final RandomGenerator random;
+
+    /**
+     * Constructs a random salvo strategy.
+     *
+     * @param random the source of randomness.
+     * @since 1.0
+     */
+    public RandomSalvoStrategy(RandomGenerator random) {
+        this.random = random;
+    }
+
+    @Override
+    public int chooseSalvo(OpponentView view, int count, int[] out, long deadlineNanos) {
+        return complete(view, out, 0, count);
+    }
+
+    /**
+     * Fills the rest of a salvo with random untargeted cells that are not in it yet.
+     *
+     * @param view the opponent's board as seen by the shooter.
+     * @param out the salvo, whose first {@code from} cells are already chosen.
+     * @param from the number of cells already chosen.
+     * @param count the number of shots of the salvo.
+     * @return the number of cells of the salvo, which is fewer than {@code count} only if there are
+     * not enough untargeted cells.
+     * @since 1.0
+     */
+    public int complete(OpponentView view, int[] out, int from, int count) {
+        int targets = view.getTargetCount();
+        int picked = from;
+        while (picked < Math.min(count, targets)) {
+            int cell = view.getTargetAt(random.nextInt(targets));
+            if (!contains(out, picked, cell)) {
+                out[picked++] = cell;
+            }
+        }
+        return picked;
+    }
+
+    private static boolean contains(int[] cells, int count, int cell) {
+        for (int i = 0; i < count; i++) {
+            if (cells[i] == cell) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Fires at an untargeted cell chosen uniformly at random.
+ * It answers in constant time without allocating, which makes it the fallback of every
+ * {@link ShotPlanner}.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class RandomShotStrategy implements ShotStrategy {
+    private final RandomGenerator random;
+
+    /**
+     * Constructs a random strategy.
+     *
+     * @param random the source of randomness.
+     * @since 1.0
+     */
+    public RandomShotStrategy(RandomGenerator random) {
+        this.random = random;
+    }
+
+    @Override
+    public int chooseTarget(OpponentView view, long deadlineNanos) {
+        int count = view.getTargetCount();
+        return count == 0 ? NO_TARGET : view.getTargetAt(random.nextInt(count));
+    }
+}
@@ -0,0 +1,135 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.List;
+
+/**
+ * Outcome of a salvo resolved by {@link GameEngine#fireSalvo(Side, int[])}: the cell and outcome of
+ * every shot, in the order they were given, the ships the salvo sank and whether it won the game.
+ * When several shots of a salvo hit the same ship, only the last one is reported as
+ * {@link ShotOutcome#SUNK}.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class SalvoResult {
+    private final Side shooter;
+    private final int[] rows;
+    private final int[] cols;
+    private final ShotOutcome[] outcomes;
+    private final List<ShipPlacement> sunkShips;
+    private final boolean winning;
+
+    /**
+     * Constructs the result of a salvo.
+     *
+     * @param shooter the side that fired the salvo.
+     * @param rows the row of every shot.
+     * @param cols the column of every shot.
+     * @param outcomes the outcome of every shot.
+     * @param sunkShips the ships sunk by the salvo, in the order they sank.
+     * @param winning true if the salvo sank the last ship of the opponent.
+     * @since 1.0
+     */
+    SalvoResult(Side shooter, int[] rows, int[] cols, ShotOutcome[] outcomes, List<ShipPlacement> sunkShips,
+                boolean winning) {
+        this.shooter = shooter;
+        this.rows = rows;
+        this.cols = cols;
+        this.outcomes = outcomes;
+        this.sunkShips = List.copyOf(sunkShips);
+        this.winning = winning;
+    }
+
+    /**
+     * Retrieves the side that fired the salvo.
+     *
+     * @return the shooter.
+     * @since 1.0
+     */
+    public Side getShooter() {
+        return shooter;
+    }
+
+    /**
+     * Retrieves the number of shots of the salvo.
+     *
+     * @return the number of shots.
+     * @since 1.0
+     */
+    public int getShotCount() {
+        return outcomes.length;
+    }
+
+    /**
+     * Retrieves the row of a shot.
+     *
+     * @param shot the position of the shot in the salvo.
+     * @return the row of the shot.
+     * @since 1.0
+     */
+    public int getRow(int shot) {
+        return rows[shot];
+    }
+
+    /**
+     * Retrieves the column of a shot.
+     *
+     * @param shot the position of the shot in the salvo.
+     * @return the column of the shot.
+     * @since 1.0
+     */
+    public int getCol(int shot) {
+        return cols[shot];
+    }
+
+    /**
+     * Retrieves the outcome of a shot.
+     *
+     * @param shot the position of the shot in the salvo.
+     * @return the outcome of the shot.
+     * @since 1.0
+     */
+    public ShotOutcome getOutcome(int shot) {
+        return outcomes[shot];
+    }
+
+    /**
+     * Counts the shots of the salvo that hit a ship, sunk or not.
+     *
+     * @return the number of hits.
+     * @since 1.0
+     */
+    public int getHits() {
+        int hits = 0;
+        for (ShotOutcome outcome : outcomes) {
+            if (outcome != ShotOutcome.MISS) hits++;
+        }
+        return hits;
+    }
+
+    /**
+     * Retrieves the ships sunk by the salvo.
+     *
+     * @return the unmodifiable list of sunk ships, in the order they sank.
+     * @since 1.0
+     */
+    public List<ShipPlacement> getSunkShips() {
+        return sunkShips;
+    }
+
+    /**
+     * Checks whether the salvo sank the last ship of the opponent.
+     *
+     * @return true if the salvo won the game.
+     * @since 1.0
+     */
+    public boolean isWinning() {
+        return winning;
+    }
+}
@@ -0,0 +1,39 @@
+package com.battleship.battleshipfpoe.engine;
+
+/**
+ * Decides where the machine fires its next salvo.
+ * Unlike a {@link ShotStrategy}, which answers one cell at a time, a salvo strategy sees the whole
+ * salvo before any shot lands, so it can choose its cells jointly: two shots that would find the same
+ * ship are worth less than two that would find different ones.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public interface SalvoStrategy {
+    /**
+     * Chooses the cells of the next salvo.
+     *
+     * @param view the opponent's board as seen by the shooter.
+     * @param count the number of shots of the salvo.
+     * @param out the array receiving the linear indexes of different untargeted cells.
+     * @param deadlineNanos the {@link System#nanoTime()} value by which the decision should be made.
+     * @return the number of cells written, which may be fewer than {@code count} if the strategy ran
+     * out of answers.
+     * @since 1.0
+     */
+    int chooseSalvo(OpponentView view, int count, int[] out, long deadlineNanos);
+
+    /**
+     * Discards any state kept from a previous game.
+     *
+     * @since 1.0
+     */
+    default void reset() {
+    }
+}
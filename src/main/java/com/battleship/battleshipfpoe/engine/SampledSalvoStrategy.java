@@ -0,0 +1,284 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Chooses whole salvos from sampled layouts of the afloat fleet.
+ * The layouts are sampled as in {@link MonteCarloStrategy}, consistent with every shot seen so far,
+ * and the salvo is built greedily. Every shot goes to the untargeted cell with the most layouts in
+ * which it hits, plus the layouts in which it finds a ship that the earlier shots of the salvo do not
+ * find. A cell next to a cell already chosen is worth less when both would find the same ship, so the
+ * salvo spreads over the ships it can find instead of firing at the densest cells, which tend to sit
+ * on the same ships; in self-play it needs slightly fewer salvos than the top cells of the
+ * {@link ProbabilityDensityStrategy}. The score of a salvo is submodular, so the greedy salvo is
+ * within a factor {@code 1 - 1/e} of the best one.
+ * <p>
+ * Sampling runs on the common {@link ForkJoinPool}, one task per worker, until the quota is filled or
+ * the deadline, minus a safety margin, is reached.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class SampledSalvoStrategy implements SalvoStrategy {
+    /**
+     * Default maximum number of layouts sampled per salvo.
+     */
+    public static final int DEFAULT_MAX_SAMPLES = 4096;
+
+    private static final int ATTEMPTS_PER_SAMPLE = 1024;
+    private static final long SAFETY_MARGIN_NANOS = 10_000_000L; // Leaves time to build the salvo
+
+    private final GameSpec spec;
+    private final int cols;
+    private final int stride;
+    private final SplittableRandom random;
+    private final List<Worker> workers;
+    private final int[] layouts;
+    private final boolean[] found;      // Per layout and ship: already found by the salvo
+    private final int[] coverage;
+    private final int[] gains;
+    private final boolean[] chosen;
+    private final long[] blocked;
+    private final long[] required;
+    private final boolean[] skipped;
+    private final int[] afloatLengths;
+    private int lastSamples;
+
+    /**
+     * Constructs a salvo strategy with the default number of samples and one worker per thread of
+     * the common pool.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @param seed the seed of the workers and of the tie breaks.
+     * @since 1.0
+     */
+    public SampledSalvoStrategy(GameSpec spec, long seed) {
+        this(spec, seed, ForkJoinPool.getCommonPoolParallelism(), DEFAULT_MAX_SAMPLES);
+    }
+
+    /**
+     * Constructs a salvo strategy.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @param seed the seed of the workers and of the tie breaks.
+     * @param parallelism the number of sampling tasks of a salvo.
+     * @param maxSamples the maximum number of layouts sampled per salvo.
+     * @throws IllegalArgumentException if the fleet cannot be placed on the board.
+     * @since 1.0
+     */
+    public SampledSalvoStrategy(GameSpec spec, long seed, int parallelism, int maxSamples) {
+        this.spec = spec;
+        this.cols = spec.getCols();
+        this.stride = spec.getShipCount();
+        this.random = new SplittableRandom(seed);
+        PlacementGenerator prototype = new PlacementGenerator(spec);
+        int tasks = Math.max(1, parallelism);
+        workers = new ArrayList<>(tasks);
+        int offset = 0;
+        for (int i = 0; i < tasks; i++) {
+            int quota = (maxSamples + i) / tasks;
+            workers.add(new Worker(new PlacementGenerator(prototype), random.split(), offset, quota));
+            offset += quota;
+        }
+        int cells = spec.getCellCount();
+        int words = BitBoard.wordsFor(cells);
+        layouts = new int[Math.multiplyExact(maxSamples, stride)];
+        found = new boolean[layouts.length];
+        coverage = new int[cells];
+        gains = new int[cells];
+        chosen = new boolean[cells];
+        blocked = new long[words];
+        required = new long[words];
+        skipped = new boolean[stride];
+        afloatLengths = new int[stride];
+    }
+
+    @Override
+    public int chooseSalvo(OpponentView view, int count, int[] out, long deadlineNanos) {
+        if (view.getRows() != spec.getRows() || view.getCols() != cols) {
+            throw new IllegalArgumentException("El tablero no tiene las dimensiones de la estrategia.");
+        }
+        long start = System.nanoTime();
+        readConstraints(view);
+        long stopAt = deadlineNanos - Math.min(SAFETY_MARGIN_NANOS, (deadlineNanos - start) / 4);
+        for (Worker worker : workers) {
+            worker.prepare(stopAt);
+        }
+        if (workers.size() == 1) {
+            workers.get(0).call();
+        } else {
+            ForkJoinPool.commonPool().invokeAll(workers);
+        }
+
+        lastSamples = 0;
+        Arrays.fill(coverage, 0);
+        for (Worker worker : workers) {
+            lastSamples += worker.samples;
+            for (int l = worker.offset; l < worker.offset + worker.samples; l++) {
+                Arrays.fill(found, l * stride, (l + 1) * stride, false);
+                for (int ship = 0; ship < stride; ship++) {
+                    addShip(coverage, l, ship, 1);
+                }
+            }
+        }
+        // Before the first shot no ship is found, so every cell gains its coverage
+        System.arraycopy(coverage, 0, gains, 0, gains.length);
+        Arrays.fill(chosen, false);
+        int picked = 0;
+        while (picked < count) {
+            int best = bestCell(view);
+            if (best == ShotStrategy.NO_TARGET) break;
+            out[picked++] = best;
+            chosen[best] = true;
+            for (Worker worker : workers) {
+                for (int l = worker.offset; l < worker.offset + worker.samples; l++) {
+                    int ship = shipCovering(l, best);
+                    if (ship < 0 || found[l * stride + ship]) continue;
+                    found[l * stride + ship] = true;
+                    addShip(gains, l, ship, -1);
+                }
+            }
+        }
+        return picked;
+    }
+
+    /**
+     * Retrieves the number of layouts sampled for the last salvo.
+     *
+     * @return the number of samples.
+     * @since 1.0
+     */
+    public int getLastSamples() {
+        return lastSamples;
+    }
+
+    /**
+     * Picks the untargeted cell not in the salvo yet with the highest sum of coverage and gain,
+     * breaking ties at random.
+     */
+    private int bestCell(OpponentView view) {
+        int best = ShotStrategy.NO_TARGET;
+        int bestScore = -1;
+        int ties = 0;
+        for (int p = 0; p < view.getTargetCount(); p++) {
+            int cell = view.getTargetAt(p);
+            if (chosen[cell]) continue;
+            int score = coverage[cell] + gains[cell];
+            if (score < bestScore) continue;
+            if (score > bestScore) {
+                bestScore = score;
+                ties = 0;
+            }
+            if (random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    private void addShip(int[] counts, int layout, int ship, int sign) {
+        int anchor = layouts[layout * stride + ship];
+        if (anchor < 0) return;
+        int first = anchor >>> 1;
+        int step = PlacementGenerator.isHorizontal(anchor) ? 1 : cols;
+        for (int s = 0; s < spec.getShipLength(ship); s++) {
+            counts[first + s * step] += sign;
+        }
+    }
+
+    private int shipCovering(int layout, int cell) {
+        int row = cell / cols;
+        int col = cell % cols;
+        for (int ship = 0; ship < stride; ship++) {
+            int anchor = layouts[layout * stride + ship];
+            if (anchor < 0) continue;
+            int first = anchor >>> 1;
+            int firstRow = first / cols;
+            int firstCol = first % cols;
+            int length = spec.getShipLength(ship);
+            if (PlacementGenerator.isHorizontal(anchor)) {
+                if (row == firstRow && col >= firstCol && col < firstCol + length) return ship;
+            } else if (col == firstCol && row >= firstRow && row < firstRow + length) {
+                return ship;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Translates the view into sampling constraints, as {@link MonteCarloStrategy} does.
+     */
+    private void readConstraints(OpponentView view) {
+        Arrays.fill(blocked, 0L);
+        Arrays.fill(required, 0L);
+        for (int cell = 0; cell < coverage.length; cell++) {
+            int row = cell / cols;
+            int col = cell % cols;
+            if (!view.isShot(row, col)) continue;
+            if (view.isOpenHit(row, col)) {
+                required[cell >>> 6] |= 1L << cell;
+            } else {
+                blocked[cell >>> 6] |= 1L << cell;
+            }
+        }
+        int afloat = view.getAfloatLengths(afloatLengths);
+        for (int ship = 0; ship < skipped.length; ship++) {
+            skipped[ship] = true;
+            for (int i = 0; i < afloat; i++) {
+                if (afloatLengths[i] == spec.getShipLength(ship)) {
+                    afloatLengths[i] = 0; // Each afloat ship is matched once
+                    skipped[ship] = false;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sampling task of one worker, which fills its own block of the layouts.
+     */
+    private final class Worker implements Callable<Void> {
+        private final PlacementGenerator generator;
+        private final SplittableRandom random;
+        private final int offset;
+        private final int quota;
+        private final int[] layout;
+        private long stopAt;
+        private int samples;
+
+        Worker(PlacementGenerator generator, SplittableRandom random, int offset, int quota) {
+            this.generator = generator;
+            this.random = random;
+            this.offset = offset;
+            this.quota = quota;
+            this.layout = new int[stride];
+        }
+
+        void prepare(long stopAt) {
+            generator.setConstraints(blocked, required, skipped);
+            this.stopAt = stopAt;
+        }
+
+        @Override
+        public Void call() {
+            samples = 0;
+            while (samples < quota && System.nanoTime() < stopAt) {
+                if (!generator.sample(random, ATTEMPTS_PER_SAMPLE, stopAt, layout)) continue;
+                System.arraycopy(layout, 0, layouts, (offset + samples) * stride, stride);
+                samples++;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.Arrays;
+
+/**
+ * Density kernel written with plain loops, used when the Vector API is not available.
+ * The board is processed as one flat array. For every orientation the kernel first marks the cells
+ * where a placement starts, i.e. where the next {@code length} cells along the orientation are all
+ * free, and then adds to every cell the starts of the {@code length} placements that could cover it.
+ * Starts that would wrap into the next row are cleared, so the sums never cross the edge of the board.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+final class ScalarDensityKernel implements DensityKernel {
+    private final int rows;
+    private final int cols;
+    private final int[] starts;
+
+    /**
+     * Constructs a kernel for boards of some dimensions.
+     *
+     * @param rows the number of rows.
+     * @param cols the number of columns.
+     * @throws IllegalArgumentException if a dimension is not positive.
+     * @since 1.0
+     */
+    ScalarDensityKernel(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Dimensiones inválidas del tablero: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.starts = new int[Math.multiplyExact(rows, cols)];
+    }
+
+    @Override
+    public void accumulate(int[] free, int length, int weight, int[] density) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Longitud inválida del barco: " + length);
+        }
+        int cells = starts.length;
+        if (length == 1) { // A single cell has one placement
+            for (int i = 0; i < cells; i++) {
+                density[i] += weight * free[i];
+            }
+            return;
+        }
+
+        // Horizontal placements
+        int last = cells - length + 1;
+        for (int i = 0; i < last; i++) {
+            int start = free[i];
+            for (int k = 1; k < length; k++) {
+                start &= free[i + k];
+            }
+            starts[i] = start;
+        }
+        clearWrappedStarts(length, Math.max(0, last));
+        for (int i = 0; i < cells; i++) {
+            int sum = 0;
+            for (int k = 0; k < length && k <= i; k++) {
+                sum += starts[i - k];
+            }
+            density[i] += weight * sum;
+        }
+
+        // Vertical placements
+        int span = (length - 1) * cols;
+        last = Math.max(0, cells - span);
+        for (int i = 0; i < last; i++) {
+            int start = free[i];
+            for (int k = 1; k < length; k++) {
+                start &= free[i + k * cols];
+            }
+            starts[i] = start;
+        }
+        Arrays.fill(starts, last, cells, 0);
+        for (int i = 0; i < cells; i++) {
+            int sum = 0;
+            for (int k = 0; k < length && k * cols <= i; k++) {
+                sum += starts[i - k * cols];
+            }
+            density[i] += weight * sum;
+        }
+    }
+
+    /**
+     * Clears the horizontal starts whose placement would leave their row, and the ones past the last
+     * cell where a placement fits.
+     */
+    private void clearWrappedStarts(int length, int last) {
+        Arrays.fill(starts, last, starts.length, 0);
+        int firstWrapped = Math.max(0, cols - length + 1);
+        for (int row = 0; row < rows; row++) {
+            Arrays.fill(starts, row * cols + firstWrapped, (row + 1) * cols, 0);
+        }
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+}
@@ -0,0 +1,444 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ship-occupancy index for a board.
+ * Maps every ship cell to the id of the ship that occupies it and keeps, for every ship, its anchor,
+ * orientation, length and the number of segments that are still afloat. Ids are assigned in
+ * placement order starting at 0, so resolving a hit, detecting a sinking and detecting the end
+ * of the game are all constant-time operations.
+ * <p>
+ * The number of sunk ships and of afloat cells are kept as live counters updated on every hit,
+ * and {@link FleetListener}s can subscribe to them instead of rescanning the board.
+ * <p>
+ * The cell-to-ship map is an open-addressing hash table keyed by the linear cell index, so its
+ * size follows the number of ship cells and not the area of the board.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ShipIndex implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Id returned for cells that do not hold any ship.
+     */
+    public static final int NONE = -1;
+
+    private final int cols;
+    private int[] cellKeys; // cell index + 1, 0 marks an empty slot
+    private int[] cellShips;
+    private int cellMask;
+    private int indexedCells;
+    private int[] shipRows;
+    private int[] shipCols;
+    private int[] lengths;
+    private int[] remaining;
+    private boolean[] horizontal;
+    private int shipCount;
+    private int shipsAfloat;
+    private int afloatCells;
+    private transient List<FleetListener> listeners;
+
+    /**
+     * Constructs an empty index sized for the standard fleet.
+     *
+     * @param cols the number of columns of the board.
+     * @since 1.0
+     */
+    public ShipIndex(int cols) {
+        this(cols, GameSpec.STANDARD.getShipCount(), GameSpec.STANDARD.getTotalShipCells());
+    }
+
+    /**
+     * Constructs an empty index sized for the fleet of a spec.
+     *
+     * @param spec the spec of the game.
+     * @since 1.0
+     */
+    public ShipIndex(GameSpec spec) {
+        this(spec.getCols(), spec.getShipCount(), spec.getTotalShipCells());
+    }
+
+    /**
+     * Constructs an empty index for the given number of ships and ship cells.
+     * The index grows if more ships are registered.
+     *
+     * @param cols the number of columns of the board.
+     * @param expectedShips the expected number of ships.
+     * @param expectedCells the expected number of ship cells.
+     * @since 1.0
+     */
+    public ShipIndex(int cols, int expectedShips, int expectedCells) {
+        this.cols = cols;
+        int slots = Integer.highestOneBit(Math.max(16, expectedCells * 2 - 1)) << 1;
+        cellKeys = new int[slots];
+        cellShips = new int[slots];
+        cellMask = slots - 1;
+        int capacity = Math.max(1, expectedShips);
+        shipRows = new int[capacity];
+        shipCols = new int[capacity];
+        lengths = new int[capacity];
+        remaining = new int[capacity];
+        horizontal = new boolean[capacity];
+    }
+
+    /**
+     * Registers a ship and indexes every cell it occupies.
+     *
+     * @param row the starting row of the ship.
+     * @param col the starting column of the ship.
+     * @param length the number of cells of the ship.
+     * @param isHorizontal true if the ship extends to the right, false if it extends downwards.
+     * @return the id assigned to the ship.
+     * @since 1.0
+     */
+    public int add(int row, int col, int length, boolean isHorizontal) {
+        if (shipCount == lengths.length) {
+            int capacity = shipCount * 2;
+            shipRows = Arrays.copyOf(shipRows, capacity);
+            shipCols = Arrays.copyOf(shipCols, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            remaining = Arrays.copyOf(remaining, capacity);
+            horizontal = Arrays.copyOf(horizontal, capacity);
+        }
+        int id = shipCount++;
+        shipRows[id] = row;
+        shipCols[id] = col;
+        lengths[id] = length;
+        remaining[id] = length;
+        horizontal[id] = isHorizontal;
+        shipsAfloat++;
+        afloatCells += length;
+
+        for (int k = 0; k < length; k++) {
+            putCell(isHorizontal ? row * cols + col + k : (row + k) * cols + col, id);
+        }
+        fireFleetChanged();
+        return id;
+    }
+
+    /**
+     * Records a hit on a cell that has not been hit before.
+     *
+     * @param cell the linear index ({@code row * cols + col}) of the cell.
+     * @return the id of the ship that was hit, or {@link #NONE} if the cell is water.
+     * @since 1.0
+     */
+    public int registerHit(int cell) {
+        int id = shipAtCell(cell);
+        if (id != NONE) {
+            afloatCells--;
+            if (--remaining[id] == 0) {
+                shipsAfloat--;
+            }
+            fireFleetChanged();
+        }
+        return id;
+    }
+
+    /**
+     * Records hits on several cells that have not been hit before, notifying the listeners once
+     * for the whole batch instead of once per hit.
+     *
+     * @param cells the linear indexes of the cells.
+     * @param count the number of cells to read from {@code cells}.
+     * @param ids the array receiving, for every cell, the id of the ship that was hit, or {@link #NONE}.
+     * @return the number of cells that hit a ship.
+     * @since 1.0
+     */
+    public int registerHits(int[] cells, int count, int[] ids) {
+        int hits = 0;
+        for (int i = 0; i < count; i++) {
+            int id = shipAtCell(cells[i]);
+            ids[i] = id;
+            if (id == NONE) continue;
+            hits++;
+            afloatCells--;
+            if (--remaining[id] == 0) {
+                shipsAfloat--;
+            }
+        }
+        if (hits > 0) {
+            fireFleetChanged();
+        }
+        return hits;
+    }
+
+    /**
+     * Removes every ship from the index.
+     *
+     * @since 1.0
+     */
+    public void clear() {
+        Arrays.fill(cellKeys, 0);
+        indexedCells = 0;
+        shipCount = 0;
+        shipsAfloat = 0;
+        afloatCells = 0;
+        fireFleetChanged();
+    }
+
+    /**
+     * Makes this index a copy of another one, reusing its arrays when they have the same size. The
+     * listeners are not copied or notified.
+     *
+     * @param other the index to copy, for a board with the same number of columns.
+     * @since 1.0
+     */
+    void copyFrom(ShipIndex other) {
+        cellKeys = copyOf(other.cellKeys, cellKeys);
+        cellShips = copyOf(other.cellShips, cellShips);
+        cellMask = other.cellMask;
+        indexedCells = other.indexedCells;
+        shipRows = copyOf(other.shipRows, shipRows);
+        shipCols = copyOf(other.shipCols, shipCols);
+        lengths = copyOf(other.lengths, lengths);
+        remaining = copyOf(other.remaining, remaining);
+        horizontal = other.horizontal.length == horizontal.length ? horizontal : new boolean[other.horizontal.length];
+        System.arraycopy(other.horizontal, 0, horizontal, 0, horizontal.length);
+        shipCount = other.shipCount;
+        shipsAfloat = other.shipsAfloat;
+        afloatCells = other.afloatCells;
+    }
+
+    private static int[] copyOf(int[] source, int[] target) {
+        if (target.length != source.length) return source.clone();
+        System.arraycopy(source, 0, target, 0, source.length);
+        return target;
+    }
+
+    /**
+     * Subscribes a listener to the fleet counters.
+     *
+     * @param listener the listener to notify on every change.
+     * @since 1.0
+     */
+    public void addListener(FleetListener listener) {
+        if (listeners == null) {
+            listeners = new ArrayList<>();
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Unsubscribes a listener from the fleet counters.
+     *
+     * @param listener the listener to remove.
+     * @since 1.0
+     */
+    public void removeListener(FleetListener listener) {
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+
+    /**
+     * Notifies every subscribed listener of the current counters.
+     *
+     * @since 1.0
+     */
+    private void fireFleetChanged() {
+        if (listeners == null) return;
+        int sunkShips = getSunkCount();
+        for (FleetListener listener : listeners) {
+            listener.fleetChanged(sunkShips, afloatCells);
+        }
+    }
+
+    /**
+     * Retrieves the ship occupying a cell.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return the id of the ship, or {@link #NONE} if the cell is water.
+     * @since 1.0
+     */
+    public int shipAt(int row, int col) {
+        return shipAtCell(row * cols + col);
+    }
+
+    /**
+     * Retrieves the ship occupying a cell given its linear index.
+     *
+     * @param cell the linear index ({@code row * cols + col}) of the cell.
+     * @return the id of the ship, or {@link #NONE} if the cell is water.
+     * @since 1.0
+     */
+    public int shipAtCell(int cell) {
+        int key = cell + 1;
+        for (int slot = slotOf(key); ; slot = (slot + 1) & cellMask) {
+            int current = cellKeys[slot];
+            if (current == key) return cellShips[slot];
+            if (current == 0) return NONE;
+        }
+    }
+
+    /**
+     * Maps a cell to a ship in the hash table, growing it when it gets half full.
+     *
+     * @param cell the linear index of the cell.
+     * @param id the id of the ship.
+     * @since 1.0
+     */
+    private void putCell(int cell, int id) {
+        if ((indexedCells + 1) * 2 > cellKeys.length) {
+            int[] oldKeys = cellKeys;
+            int[] oldShips = cellShips;
+            cellKeys = new int[oldKeys.length * 2];
+            cellShips = new int[oldKeys.length * 2];
+            cellMask = cellKeys.length - 1;
+            indexedCells = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) putCell(oldKeys[i] - 1, oldShips[i]);
+            }
+        }
+        int key = cell + 1;
+        int slot = slotOf(key);
+        while (cellKeys[slot] != 0 && cellKeys[slot] != key) {
+            slot = (slot + 1) & cellMask;
+        }
+        if (cellKeys[slot] == 0) indexedCells++;
+        cellKeys[slot] = key;
+        cellShips[slot] = id;
+    }
+
+    /**
+     * Computes the home slot of a key by mixing its bits.
+     *
+     * @param key the key to hash.
+     * @return the slot index.
+     * @since 1.0
+     */
+    private int slotOf(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & cellMask;
+    }
+
+    /**
+     * Checks whether every segment of a ship has been hit.
+     *
+     * @param id the id of the ship.
+     * @return true if the ship is sunk, false otherwise.
+     * @since 1.0
+     */
+    public boolean isSunk(int id) {
+        return remaining[id] == 0;
+    }
+
+    /**
+     * Checks whether every registered ship has been sunk.
+     * A board without ships is never considered defeated.
+     *
+     * @return true if at least one ship was registered and none remains afloat.
+     * @since 1.0
+     */
+    public boolean allSunk() {
+        return shipCount > 0 && shipsAfloat == 0;
+    }
+
+    /**
+     * Retrieves the starting row of a ship.
+     *
+     * @param id the id of the ship.
+     * @return the starting row.
+     * @since 1.0
+     */
+    public int getRow(int id) {
+        return shipRows[id];
+    }
+
+    /**
+     * Retrieves the starting column of a ship.
+     *
+     * @param id the id of the ship.
+     * @return the starting column.
+     * @since 1.0
+     */
+    public int getCol(int id) {
+        return shipCols[id];
+    }
+
+    /**
+     * Retrieves the length of a ship.
+     *
+     * @param id the id of the ship.
+     * @return the number of cells of the ship.
+     * @since 1.0
+     */
+    public int getLength(int id) {
+        return lengths[id];
+    }
+
+    /**
+     * Checks the orientation of a ship.
+     *
+     * @param id the id of the ship.
+     * @return true if the ship is horizontal, false if vertical.
+     * @since 1.0
+     */
+    public boolean isHorizontal(int id) {
+        return horizontal[id];
+    }
+
+    /**
+     * Retrieves the number of segments of a ship that have not been hit.
+     *
+     * @param id the id of the ship.
+     * @return the remaining segments.
+     * @since 1.0
+     */
+    public int getRemaining(int id) {
+        return remaining[id];
+    }
+
+    /**
+     * Retrieves the number of registered ships.
+     *
+     * @return the number of ships.
+     * @since 1.0
+     */
+    public int getShipCount() {
+        return shipCount;
+    }
+
+    /**
+     * Retrieves the number of ships that still have at least one segment afloat.
+     *
+     * @return the number of ships afloat.
+     * @since 1.0
+     */
+    public int getShipsAfloat() {
+        return shipsAfloat;
+    }
+
+    /**
+     * Retrieves the number of ships that have been sunk.
+     *
+     * @return the number of sunk ships.
+     * @since 1.0
+     */
+    public int getSunkCount() {
+        return shipCount - shipsAfloat;
+    }
+
+    /**
+     * Retrieves the number of ship cells that have not been hit yet.
+     *
+     * @return the number of afloat cells.
+     * @since 1.0
+     */
+    public int getAfloatCells() {
+        return afloatCells;
+    }
+}
@@ -0,0 +1,167 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.io.Serializable;
+
+/**
+ * Immutable position of a ship on a board: its type, starting cell, orientation and length.
+ * Placements are shared by the boards, the reveal overlay and persistence, so a fleet can be
+ * rebuilt, drawn or saved without going through strings.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ShipPlacement implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final ShipType type;
+    private final int row;
+    private final int col;
+    private final int length;
+    private final boolean horizontal;
+
+    /**
+     * Constructs a placement whose type is derived from its length.
+     *
+     * @param row the starting row of the ship.
+     * @param col the starting column of the ship.
+     * @param length the number of cells of the ship.
+     * @param isHorizontal true if the ship extends to the right, false if it extends downwards.
+     * @since 1.0
+     */
+    public ShipPlacement(int row, int col, int length, boolean isHorizontal) {
+        this(ShipType.forLength(length), row, col, length, isHorizontal);
+    }
+
+    /**
+     * Constructs a placement.
+     *
+     * @param type the type of the ship.
+     * @param row the starting row of the ship.
+     * @param col the starting column of the ship.
+     * @param length the number of cells of the ship.
+     * @param isHorizontal true if the ship extends to the right, false if it extends downwards.
+     * @throws IllegalArgumentException if the starting cell is negative or the length is not positive.
+     * @since 1.0
+     */
+    public ShipPlacement(ShipType type, int row, int col, int length, boolean isHorizontal) {
+        if (row < 0 || col < 0 || length <= 0) {
+            throw new IllegalArgumentException("Ubicación de barco inválida: (" + row + "," + col + "), longitud " + length);
+        }
+        this.type = type;
+        this.row = row;
+        this.col = col;
+        this.length = length;
+        this.horizontal = isHorizontal;
+    }
+
+    /**
+     * Builds the placement of a ship registered in a {@link ShipIndex}.
+     *
+     * @param ships the index holding the ship.
+     * @param id the id of the ship.
+     * @return the placement of the ship.
+     * @since 1.0
+     */
+    public static ShipPlacement of(ShipIndex ships, int id) {
+        return new ShipPlacement(ships.getRow(id), ships.getCol(id), ships.getLength(id), ships.isHorizontal(id));
+    }
+
+    /**
+     * Retrieves the type of the ship.
+     *
+     * @return the ship type.
+     * @since 1.0
+     */
+    public ShipType getType() {
+        return type;
+    }
+
+    /**
+     * Retrieves the starting row of the ship.
+     *
+     * @return the row index.
+     * @since 1.0
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Retrieves the starting column of the ship.
+     *
+     * @return the column index.
+     * @since 1.0
+     */
+    public int getCol() {
+        return col;
+    }
+
+    /**
+     * Retrieves the row of the last cell of the ship.
+     *
+     * @return the ending row index.
+     * @since 1.0
+     */
+    public int getEndRow() {
+        return horizontal ? row : row + length - 1;
+    }
+
+    /**
+     * Retrieves the column of the last cell of the ship.
+     *
+     * @return the ending column index.
+     * @since 1.0
+     */
+    public int getEndCol() {
+        return horizontal ? col + length - 1 : col;
+    }
+
+    /**
+     * Retrieves the length of the ship.
+     *
+     * @return the number of cells of the ship.
+     * @since 1.0
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Checks the orientation of the ship.
+     *
+     * @return true if the ship extends to the right, false if it extends downwards.
+     * @since 1.0
+     */
+    public boolean isHorizontal() {
+        return horizontal;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ShipPlacement)) return false;
+        ShipPlacement other = (ShipPlacement) o;
+        return type == other.type && row == other.row && col == other.col
+                && length == other.length && horizontal == other.horizontal;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = type.hashCode();
+        result = 31 * result + row;
+        result = 31 * result + col;
+        result = 31 * result + length;
+        return 31 * result + (horizontal ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return type.getDisplayName() + " (" + row + "," + col + ")-(" + getEndRow() + "," + getEndCol() + ")";
+    }
+}
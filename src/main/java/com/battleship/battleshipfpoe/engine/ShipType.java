@@ -0,0 +1,61 @@
+package com.battleship.battleshipfpoe.engine;
+
+/**
+ * Types of ship of the fleet, identified by their length. The ships of custom fleets whose length
+ * is not in the standard fleet share the generic type.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public enum ShipType {
+    AIRCRAFT_CARRIER("Portaviones"),
+    SUBMARINE("Submarino"),
+    DESTROYER("Destructor"),
+    FRIGATE("Fragata"),
+    GENERIC("Barco");
+
+    private final String displayName;
+
+    ShipType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Retrieves the type of a ship from its length.
+     * Lengths outside the standard fleet are reported with the generic type.
+     *
+     * @param length the number of cells of the ship.
+     * @return the type of the ship.
+     * @since 1.0
+     */
+    public static ShipType forLength(int length) {
+        switch (length) {
+            case 4:
+                return AIRCRAFT_CARRIER;
+            case 3:
+                return SUBMARINE;
+            case 2:
+                return DESTROYER;
+            case 1:
+                return FRIGATE;
+            default:
+                return GENERIC;
+        }
+    }
+
+    /**
+     * Retrieves the name shown to the player for this type.
+     *
+     * @return the display name.
+     * @since 1.0
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,207 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.Arrays;
+
+/**
+ * Extracts the features of the cells of a position for the {@link ShotPolicy}.
+ * {@link #load(OpponentView)} takes a snapshot of the visible board and of the lengths still afloat,
+ * and {@link #extract(int, float[])} describes one untargeted cell from it: how many placements of the
+ * afloat ships could cover the cell, how many of those would also cover open hits, and what lies next
+ * to the cell. The placements of every cell are counted at once by a {@link DensityKernel} when the
+ * position is loaded. Every buffer is allocated by the constructor, so extracting never allocates.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+final class ShotFeatures {
+    /**
+     * Number of features of a cell.
+     */
+    static final int COUNT = 12;
+
+    private static final byte UNKNOWN = 0;
+    private static final byte OPEN_HIT = 1;
+    private static final byte BLOCKED = 2; // A miss or a sunk ship
+    private static final byte SUNK = 3;
+
+    private static final int[] ROW_STEPS = {0, 0, 1, -1};
+    private static final int[] COL_STEPS = {1, -1, 0, 0};
+
+    private final int rows;
+    private final int cols;
+    private final byte[] state;
+    private final int[] lengthCounts; // Afloat ships of each length
+    private final int[] afloat;
+    private final DensityKernel kernel;
+    private final int[] free;
+    private final int[] placementCounts;
+    private int maxLength;
+    private int fleetCells;
+    private boolean anyOpenHit;
+
+    /**
+     * Constructs an extractor for boards of a spec.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @since 1.0
+     */
+    ShotFeatures(GameSpec spec) {
+        this.rows = spec.getRows();
+        this.cols = spec.getCols();
+        this.state = new byte[spec.getCellCount()];
+        this.lengthCounts = new int[spec.getMaxShipLength() + 1];
+        this.afloat = new int[spec.getShipCount()];
+        this.kernel = DensityKernel.create(rows, cols);
+        this.free = new int[spec.getCellCount()];
+        this.placementCounts = new int[spec.getCellCount()];
+    }
+
+    /**
+     * Takes a snapshot of a position.
+     *
+     * @param view the opponent's board.
+     * @throws IllegalArgumentException if the board does not have the dimensions of the spec.
+     * @since 1.0
+     */
+    void load(OpponentView view) {
+        if (view.getRows() != rows || view.getCols() != cols) {
+            throw new IllegalArgumentException("El tablero no tiene las dimensiones de la política.");
+        }
+        anyOpenHit = false;
+        for (int row = 0, cell = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++, cell++) {
+                if (!view.isShot(row, col)) {
+                    state[cell] = UNKNOWN;
+                } else if (view.isSunk(row, col)) {
+                    state[cell] = SUNK;
+                } else if (view.isHit(row, col)) {
+                    state[cell] = OPEN_HIT;
+                    anyOpenHit = true;
+                } else {
+                    state[cell] = BLOCKED;
+                }
+                free[cell] = state[cell] < BLOCKED ? 1 : 0;
+            }
+        }
+        Arrays.fill(lengthCounts, 0);
+        int count = view.getAfloatLengths(afloat);
+        maxLength = 0;
+        fleetCells = 0;
+        for (int i = 0; i < count; i++) {
+            lengthCounts[afloat[i]]++;
+            maxLength = Math.max(maxLength, afloat[i]);
+            fleetCells += afloat[i];
+        }
+        Arrays.fill(placementCounts, 0);
+        for (int length = 1; length <= maxLength; length++) {
+            if (lengthCounts[length] > 0) {
+                kernel.accumulate(free, length, lengthCounts[length], placementCounts);
+            }
+        }
+    }
+
+    /**
+     * Writes the features of an untargeted cell of the loaded position.
+     *
+     * @param cell the cell, indexed {@code row * cols + col}.
+     * @param out the array receiving the {@link #COUNT} features.
+     * @since 1.0
+     */
+    void extract(int cell, float[] out) {
+        int row = cell / cols;
+        int col = cell % cols;
+        int placements = placementCounts[cell];
+        int withHit = 0;
+        int withTwoHits = 0;
+        for (int length = 2; anyOpenHit && length <= maxLength; length++) { // Open hits are on longer ships
+            int ships = lengthCounts[length];
+            if (ships == 0) continue;
+            for (int axis = 0; axis < 2; axis++) {
+                int rowStep = axis == 0 ? 0 : 1;
+                int colStep = axis == 0 ? 1 : 0;
+                for (int first = -length + 1; first <= 0; first++) {
+                    int hits = windowHits(row + first * rowStep, col + first * colStep, rowStep, colStep, length);
+                    if (hits < 0) continue;
+                    if (hits >= 1) withHit += ships;
+                    if (hits >= 2) withTwoHits += ships;
+                }
+            }
+        }
+
+        int adjacentHits = 0;
+        int lineExtensions = 0;
+        int acrossLines = 0;
+        int adjacentMisses = 0;
+        int adjacentSunk = 0;
+        int adjacentEdges = 0;
+        for (int d = 0; d < 4; d++) {
+            int r = row + ROW_STEPS[d];
+            int c = col + COL_STEPS[d];
+            if (r < 0 || r >= rows || c < 0 || c >= cols) {
+                adjacentEdges++;
+                continue;
+            }
+            byte next = state[r * cols + c];
+            if (next == BLOCKED) {
+                adjacentMisses++;
+            } else if (next == SUNK) {
+                adjacentSunk++;
+            } else if (next == OPEN_HIT) {
+                adjacentHits++;
+                if (stateAt(r + ROW_STEPS[d], c + COL_STEPS[d]) == OPEN_HIT) {
+                    lineExtensions++;
+                }
+                int across = d < 2 ? 2 : 0; // The other axis
+                if (stateAt(r + ROW_STEPS[across], c + COL_STEPS[across]) == OPEN_HIT
+                        || stateAt(r + ROW_STEPS[across + 1], c + COL_STEPS[across + 1]) == OPEN_HIT) {
+                    acrossLines++;
+                }
+            }
+        }
+
+        float scale = fleetCells == 0 ? 1 : 1f / fleetCells;
+        out[0] = 1;
+        out[1] = placements * scale;
+        out[2] = anyOpenHit ? 0 : placements * scale;
+        out[3] = withHit * scale;
+        out[4] = withTwoHits * scale;
+        out[5] = adjacentHits;
+        out[6] = lineExtensions;
+        out[7] = acrossLines;
+        out[8] = adjacentMisses;
+        out[9] = adjacentSunk;
+        out[10] = adjacentEdges;
+        out[11] = placements == 0 ? 1 : 0;
+    }
+
+    /**
+     * Counts the open hits of a window of cells.
+     *
+     * @return the number of open hits, or -1 if the window leaves the board or covers a blocked cell.
+     */
+    private int windowHits(int row, int col, int rowStep, int colStep, int length) {
+        int lastRow = row + (length - 1) * rowStep;
+        int lastCol = col + (length - 1) * colStep;
+        if (row < 0 || col < 0 || lastRow >= rows || lastCol >= cols) return -1;
+        int hits = 0;
+        int cell = row * cols + col;
+        int step = rowStep * cols + colStep;
+        for (int s = 0; s < length; s++, cell += step) {
+            byte value = state[cell];
+            if (value >= BLOCKED) return -1;
+            hits += value;
+        }
+        return hits;
+    }
+
+    private byte stateAt(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return BLOCKED;
+        return state[row * cols + col];
+    }
+}
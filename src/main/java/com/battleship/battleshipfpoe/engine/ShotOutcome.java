@@ -0,0 +1,20 @@
+package com.battleship.battleshipfpoe.engine;
+
+/**
+ * Result of a single shot: water, a hit on a ship that is still afloat,
+ * or the hit that sinks a ship.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public enum ShotOutcome {
+    MISS,
+    HIT,
+    SUNK
+}
@@ -0,0 +1,427 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs a {@link ShotStrategy} under a per-move time budget.
+ * Every decision is timed and its allocations are measured on the thread that takes it. When the
+ * strategy returns no target or a cell that cannot be fired at, the fallback strategy answers instead.
+ * When it misses its deadline {@link #MAX_CONSECUTIVE_MISSES} times in a row, the planner stops calling
+ * it and uses the fallback for the rest of the game.
+ * <p>
+ * Strategies only check their deadline between steps, so one of them can overrun it. The strategy
+ * therefore runs on a background daemon thread, and the caller waits for it at most the budget plus
+ * {@link #GRACE_NANOS}; past that the decision counts as a miss and the fallback answers on the
+ * calling thread. The late decision keeps running until the strategy returns, and its result is
+ * discarded, so a slow strategy can delay the machine's shots but never block the user interface.
+ * <p>
+ * The strategy never reads the caller's board: every decision reads a private snapshot of the view,
+ * brought up to date on the calling thread before the decision starts, while no other decision of the
+ * planner runs. A late or discarded decision that is still running therefore sees a board that does
+ * not change under it, and the shots fired meanwhile cannot tear the state of incremental strategies.
+ * While such a decision holds the strategy, the snapshot cannot be updated, so the fallback answers
+ * and nothing is speculated until it returns.
+ * <p>
+ * The first decision of a turn can be taken ahead of time with {@link #speculate(OpponentView)}: while
+ * the opponent is thinking the board being fired at cannot change, so the strategy runs on a
+ * background daemon thread and {@link #nextTarget(OpponentView)} picks the answer up as soon as the
+ * turn arrives. A speculation is tagged with the view, the version of its board and the number of
+ * untargeted cells it saw; when any of them differs at claim time the result is stale, so it is
+ * cancelled and discarded and the decision is taken again. Every call into the strategy, and every
+ * update of the snapshot, holds the planner's lock, since strategies are not thread-safe.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ShotPlanner {
+    /**
+     * Default time budget of a decision, in nanoseconds.
+     */
+    public static final long DEFAULT_BUDGET_NANOS = 50_000_000L;
+
+    /**
+     * Number of consecutive deadline misses after which the strategy is replaced by the fallback.
+     */
+    public static final int MAX_CONSECUTIVE_MISSES = 3;
+
+    /**
+     * Time a decision is waited for past its budget, in nanoseconds, before the fallback answers.
+     */
+    public static final long GRACE_NANOS = 25_000_000L;
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+
+    // One game runs at a time, so a single background thread serves every planner and decisions
+    // queue behind a late one instead of running the same strategy twice
+    private static final ExecutorService SPECULATOR = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "battleship-speculation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ShotStrategy strategy;
+    private final ShotStrategy fallback;
+    private final long budgetNanos;
+    private final ShotStats stats;
+    private final ReentrantLock strategyLock = new ReentrantLock();
+    private int consecutiveMisses;
+    private Speculation speculation;
+    // Guarded by strategyLock: the view the snapshot was taken from, and what it last saw of it
+    private OpponentView source;
+    private OpponentView snapshot;
+    private int snapshotVersion;
+    private int snapshotTargets;
+
+    /**
+     * Constructs a planner with the default time budget.
+     *
+     * @param strategy the strategy that takes the decisions.
+     * @param fallback the cheap strategy used when the main one fails.
+     * @since 1.0
+     */
+    public ShotPlanner(ShotStrategy strategy, ShotStrategy fallback) {
+        this(strategy, fallback, DEFAULT_BUDGET_NANOS);
+    }
+
+    /**
+     * Constructs a planner.
+     *
+     * @param strategy the strategy that takes the decisions.
+     * @param fallback the cheap strategy used when the main one fails.
+     * @param budgetNanos the time budget of every decision, in nanoseconds.
+     * @since 1.0
+     */
+    public ShotPlanner(ShotStrategy strategy, ShotStrategy fallback, long budgetNanos) {
+        this.strategy = strategy;
+        this.fallback = fallback;
+        this.budgetNanos = budgetNanos;
+        this.stats = new ShotStats();
+    }
+
+    /**
+     * Chooses the next cell to fire at, waiting at most the budget plus {@link #GRACE_NANOS} for the
+     * strategy.
+     *
+     * @param view the opponent's board as seen by the shooter.
+     * @return the linear index of an untargeted cell.
+     * @throws IllegalStateException if no cell is left to fire at.
+     * @since 1.0
+     */
+    public int nextTarget(OpponentView view) {
+        if (view.getTargetCount() == 0) {
+            throw new IllegalStateException("No quedan celdas por atacar.");
+        }
+        int speculated = claimSpeculation(view);
+        if (speculated != ShotStrategy.NO_TARGET) {
+            return speculated;
+        }
+        if (isDemoted()) {
+            return fallbackTarget(view, 0);
+        }
+        Speculation decision = submit(view);
+        if (decision == null) {
+            return fallbackTarget(view, 0);
+        }
+        long start = System.nanoTime();
+        try {
+            if (!await(decision)) {
+                return fallbackTarget(view, System.nanoTime() - start);
+            }
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            decision.cancelled = true;
+            return fallbackTarget(view, System.nanoTime() - start);
+        }
+        long waited = System.nanoTime() - start;
+        checkDeadline(decision.nanos);
+        if (!view.isTarget(decision.cell)) {
+            return fallbackTarget(view, waited);
+        }
+        stats.record(waited, decision.allocated);
+        return decision.cell;
+    }
+
+    /**
+     * Starts taking the next decision in the background, while the opponent has the turn.
+     * Any previous speculation is cancelled. Nothing is started when no cell is left or when the
+     * strategy has been demoted, since the fallback is cheap enough to run on demand.
+     *
+     * @param view the board the next decision will fire at; it must not change until the decision
+     *             is claimed, or the result will be discarded.
+     * @since 1.0
+     */
+    public void speculate(OpponentView view) {
+        cancelSpeculation();
+        if (view.getTargetCount() == 0 || isDemoted()) return;
+        speculation = submit(view);
+    }
+
+    /**
+     * Cancels the decision being taken in the background, if any, and discards its result.
+     * A decision already running is left to reach its deadline, so this never blocks.
+     *
+     * @since 1.0
+     */
+    public void cancelSpeculation() {
+        Speculation current = speculation;
+        speculation = null;
+        if (current != null) {
+            current.cancelled = true;
+            current.future.cancel(false);
+        }
+    }
+
+    /**
+     * Prepares the planner and its strategies for a new game. If a late decision is still running,
+     * this waits for the strategy to return.
+     *
+     * @since 1.0
+     */
+    public void reset() {
+        cancelSpeculation();
+        strategyLock.lock();
+        try {
+            strategy.reset();
+            fallback.reset();
+        } finally {
+            strategyLock.unlock();
+        }
+        stats.reset();
+        consecutiveMisses = 0;
+    }
+
+    /**
+     * Checks whether the strategy has been replaced by the fallback for missing too many deadlines.
+     *
+     * @return true if the fallback takes every decision.
+     * @since 1.0
+     */
+    public boolean isDemoted() {
+        return consecutiveMisses >= MAX_CONSECUTIVE_MISSES;
+    }
+
+    /**
+     * Retrieves the strategy that takes the decisions while it meets its deadlines.
+     *
+     * @return the main strategy.
+     * @since 1.0
+     */
+    public ShotStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Retrieves the statistics of the decisions taken so far.
+     *
+     * @return the live statistics.
+     * @since 1.0
+     */
+    public ShotStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Takes the result of the speculation started for this view, waiting for it if it is still
+     * running. Stale or failed speculations are discarded, and the fallback answers for one that is
+     * still running past the budget plus {@link #GRACE_NANOS}.
+     *
+     * @param view the board the decision fires at.
+     * @return the speculated or fallback cell, or {@link ShotStrategy#NO_TARGET} if the decision must
+     * be taken now.
+     * @since 1.0
+     */
+    private int claimSpeculation(OpponentView view) {
+        Speculation claimed = speculation;
+        speculation = null;
+        if (claimed == null) return ShotStrategy.NO_TARGET;
+        if (claimed.view != view || claimed.version != view.getVersion()
+                || claimed.targets != view.getTargetCount() || isDemoted()) {
+            claimed.cancelled = true;
+            claimed.future.cancel(false);
+            stats.recordDiscardedSpeculation();
+            return ShotStrategy.NO_TARGET;
+        }
+        long start = System.nanoTime();
+        try {
+            if (!await(claimed)) {
+                return fallbackTarget(view, System.nanoTime() - start);
+            }
+        } catch (ExecutionException e) {
+            return ShotStrategy.NO_TARGET; // Taken again in the foreground, where the failure surfaces
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ShotStrategy.NO_TARGET;
+        }
+        long waited = System.nanoTime() - start;
+        checkDeadline(claimed.nanos);
+        if (!view.isTarget(claimed.cell)) {
+            stats.recordDiscardedSpeculation();
+            return ShotStrategy.NO_TARGET;
+        }
+        stats.recordSpeculation();
+        stats.record(waited, claimed.allocated);
+        return claimed.cell;
+    }
+
+    /**
+     * Brings the snapshot up to date with a view and starts a decision of the strategy on it, on the
+     * background thread.
+     *
+     * @param view the board the decision fires at.
+     * @return the pending decision, or null if a late decision still holds the strategy.
+     * @since 1.0
+     */
+    private Speculation submit(OpponentView view) {
+        if (!strategyLock.tryLock()) return null;
+        OpponentView board;
+        try {
+            board = snapshotOf(view);
+        } finally {
+            strategyLock.unlock();
+        }
+        Speculation decision = new Speculation(view, view.getVersion(), view.getTargetCount());
+        decision.future = SPECULATOR.submit(() -> {
+            strategyLock.lock();
+            try {
+                if (decision.cancelled) return; // Its snapshot may already show a later board
+                long allocatedBefore = allocatedBytes();
+                long start = System.nanoTime();
+                decision.cell = strategy.chooseTarget(board, start + budgetNanos);
+                decision.nanos = System.nanoTime() - start;
+                decision.allocated = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+            } finally {
+                strategyLock.unlock();
+            }
+        });
+        return decision;
+    }
+
+    /**
+     * Retrieves the snapshot of a view, copying what changed since the last decision. The snapshot is
+     * the same object for every decision on the same view, so incremental strategies keep their state.
+     * Must be called with the strategy lock held.
+     *
+     * @param view the view the decision fires at.
+     * @return the up-to-date snapshot.
+     * @since 1.0
+     */
+    private OpponentView snapshotOf(OpponentView view) {
+        if (view != source) {
+            snapshot = view.snapshot();
+            source = view;
+        } else if (view.getVersion() != snapshotVersion || view.getTargetCount() != snapshotTargets) {
+            snapshot.copyFrom(view);
+        }
+        snapshotVersion = view.getVersion();
+        snapshotTargets = view.getTargetCount();
+        return snapshot;
+    }
+
+    /**
+     * Waits for a decision at most the budget plus {@link #GRACE_NANOS}. A decision that is still
+     * running then is cancelled and counted as a deadline miss.
+     *
+     * @param decision the pending decision.
+     * @return true if the decision completed in time.
+     * @throws ExecutionException if the strategy failed.
+     * @throws InterruptedException if the caller was interrupted while waiting.
+     * @since 1.0
+     */
+    private boolean await(Speculation decision) throws ExecutionException, InterruptedException {
+        try {
+            decision.future.get(budgetNanos + GRACE_NANOS, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            decision.cancelled = true;
+            decision.future.cancel(false);
+            stats.recordDeadlineMiss();
+            consecutiveMisses++;
+            return false;
+        }
+    }
+
+    /**
+     * Lets the fallback strategy take the decision on the calling thread.
+     *
+     * @param view the board the decision fires at.
+     * @param waited the time already spent on the decision, in nanoseconds.
+     * @return the linear index of an untargeted cell.
+     * @since 1.0
+     */
+    private int fallbackTarget(OpponentView view, long waited) {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        int cell = fallback.chooseTarget(view, Long.MAX_VALUE);
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+        stats.recordFallback();
+        stats.record(waited + elapsed, allocated);
+        return cell;
+    }
+
+    private static RuntimeException failure(Throwable cause) {
+        if (cause instanceof RuntimeException) return (RuntimeException) cause;
+        if (cause instanceof Error) throw (Error) cause;
+        return new IllegalStateException("La estrategia de la máquina falló.", cause);
+    }
+
+    private void checkDeadline(long elapsed) {
+        if (elapsed > budgetNanos) {
+            stats.recordDeadlineMiss();
+            consecutiveMisses++;
+        } else {
+            consecutiveMisses = 0;
+        }
+    }
+
+    private static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A decision taken in the background, tagged with the view, the version of its board and the number
+     * of untargeted cells it saw.
+     * The result fields are written under the strategy lock and read after the future completes.
+     */
+    private static final class Speculation {
+        private final OpponentView view;
+        private final int version;
+        private final int targets;
+        private Future<?> future;
+        private volatile boolean cancelled;
+        private int cell = ShotStrategy.NO_TARGET;
+        private long nanos;
+        private long allocated;
+
+        Speculation(OpponentView view, int version, int targets) {
+            this.view = view;
+            this.version = version;
+            this.targets = targets;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Learned scorer of the cells of a position: a logistic regression over the local features of
+ * {@link ShotFeatures}, which estimates the probability that an untargeted cell holds a ship.
+ * The weights are trained offline by the {@link ShotPolicyTrainer} and shipped as a resource of a
+ * few dozen bytes. Since the logistic function is increasing, the {@link LearnedShotStrategy} ranks
+ * the cells by their {@link #logit} and never evaluates the exponential.
+ * <p>
+ * The binary format is big-endian: the magic number, the format version, the number of features, the
+ * number of games the policy was trained on and the weights as floats.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ShotPolicy {
+    /**
+     * Classpath resource of the policy trained on the standard game.
+     */
+    public static final String STANDARD_RESOURCE = "/com/battleship/battleshipfpoe/policy/standard.policy";
+
+    /**
+     * Magic number of the binary format ("BSPL").
+     */
+    public static final int MAGIC = 0x4253504C;
+
+    /**
+     * Version of the binary format.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private final float[] weights;
+    private final long trainedGames;
+
+    /**
+     * Constructs a policy from its weights.
+     *
+     * @param weights the weight of every feature; the array is copied.
+     * @param trainedGames the number of games the policy was trained on.
+     * @throws IllegalArgumentException if the number of weights does not match the features.
+     * @since 1.0
+     */
+    public ShotPolicy(float[] weights, long trainedGames) {
+        if (weights.length != ShotFeatures.COUNT) {
+            throw new IllegalArgumentException("La política debe tener " + ShotFeatures.COUNT + " pesos.");
+        }
+        this.weights = weights.clone();
+        this.trainedGames = trainedGames;
+    }
+
+    /**
+     * Retrieves the shipped policy of a spec. Only the standard game has one.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @return the policy, or null if the spec has none or its resource is missing.
+     * @since 1.0
+     */
+    public static ShotPolicy forSpec(GameSpec spec) {
+        return GameSpec.STANDARD.equals(spec) ? StandardHolder.POLICY : null;
+    }
+
+    /**
+     * Reads a policy in the binary format.
+     *
+     * @param in the stream holding the policy; it is not closed.
+     * @return the policy.
+     * @throws IOException if the stream cannot be read.
+     * @throws IllegalArgumentException if the stream does not hold a policy of the current format.
+     * @since 1.0
+     */
+    public static ShotPolicy read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IllegalArgumentException("El archivo no es una política de disparo.");
+        }
+        int version = data.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Versión no soportada de la política de disparo: " + version);
+        }
+        int count = data.readInt();
+        long trainedGames = data.readLong();
+        if (count != ShotFeatures.COUNT) {
+            throw new IllegalArgumentException("La política tiene " + count + " pesos en lugar de " + ShotFeatures.COUNT);
+        }
+        float[] weights = new float[count];
+        for (int i = 0; i < count; i++) {
+            weights[i] = data.readFloat();
+        }
+        return new ShotPolicy(weights, trainedGames);
+    }
+
+    /**
+     * Writes the policy in the binary format.
+     *
+     * @param out the stream receiving the policy; it is not closed.
+     * @throws IOException if the policy cannot be written.
+     * @since 1.0
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(weights.length);
+        data.writeLong(trainedGames);
+        for (float weight : weights) {
+            data.writeFloat(weight);
+        }
+        data.flush();
+    }
+
+    /**
+     * Computes the log-odds that a cell holds a ship.
+     *
+     * @param features the features of the cell.
+     * @return the logit of the cell.
+     * @since 1.0
+     */
+    public float logit(float[] features) {
+        float sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i] * features[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Retrieves the weight of a feature.
+     *
+     * @param feature the index of the feature.
+     * @return the weight.
+     * @since 1.0
+     */
+    public float getWeight(int feature) {
+        return weights[feature];
+    }
+
+    /**
+     * Retrieves the number of games the policy was trained on.
+     *
+     * @return the number of games.
+     * @since 1.0
+     */
+    public long getTrainedGames() {
+        return trainedGames;
+    }
+
+    private static ShotPolicy load(String resource) {
+        try (InputStream in = ShotPolicy.class.getResourceAsStream(resource)) {
+            return in == null ? null : read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer la política de disparo " + resource, e);
+        }
+    }
+
+    // Loaded on first use, so games that never use the policy never read it
+    private static final class StandardHolder {
+        private static final ShotPolicy POLICY = load(STANDARD_RESOURCE);
+    }
+}
@@ -0,0 +1,71 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Measures the decisions of the {@link LearnedShotStrategy}: how many shots it needs to sink a
+ * random fleet, and how long and how many allocated bytes a decision takes through a
+ * {@link ShotPlanner}. The games are played after a warm-up, so the timings reflect compiled code.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ShotPolicyBenchmark {
+    private ShotPolicyBenchmark() {
+    }
+
+    /**
+     * Plays a policy against random fleets.
+     *
+     * @param spec the board dimensions and fleet of the games.
+     * @param policy the policy to measure.
+     * @param games the number of games.
+     * @param seed the seed of the fleets and of the tie breaks.
+     * @return the planner that took the decisions, whose statistics hold the timings.
+     * @since 1.0
+     */
+    public static ShotPlanner play(GameSpec spec, ShotPolicy policy, int games, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ShotPlanner planner = new ShotPlanner(new LearnedShotStrategy(spec, policy, random),
+                new RandomShotStrategy(random));
+        BitBoard board = new BitBoard(spec);
+        for (int game = 0; game < games; game++) {
+            board.clear();
+            FleetPlacer.placeRandomFleet(board, spec, random);
+            TargetPool pool = new TargetPool(board);
+            OpponentView view = new OpponentView(board, pool);
+            planner.getStrategy().reset(); // Resetting the planner would also clear its statistics
+            while (!board.allSunk()) {
+                int cell = planner.nextTarget(view);
+                pool.remove(view.rowOf(cell), view.colOf(cell));
+                board.shoot(view.rowOf(cell), view.colOf(cell));
+            }
+        }
+        return planner;
+    }
+
+    /**
+     * Prints the shots per game and the cost of a decision of the standard policy.
+     *
+     * @param args the number of games, 2000 by default.
+     * @since 1.0
+     */
+    public static void main(String[] args) {
+        ShotPolicy policy = ShotPolicy.forSpec(GameSpec.STANDARD);
+        if (policy == null) {
+            System.out.println("No se encontró la política de disparo " + ShotPolicy.STANDARD_RESOURCE);
+            return;
+        }
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        play(GameSpec.STANDARD, policy, games / 4, 0); // Warm up
+        ShotStats stats = play(GameSpec.STANDARD, policy, games, 1).getStats();
+        System.out.printf("Disparos por partida: %.2f (%d partidas)%n", (double) stats.getDecisions() / games, games);
+        System.out.println(stats);
+    }
+}
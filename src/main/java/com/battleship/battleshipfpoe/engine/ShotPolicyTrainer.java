@@ -0,0 +1,211 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Trains a {@link ShotPolicy} offline from self-play.
+ * Every game hides a random fleet and lets the current policy shoot at it, with a fraction of random
+ * shots so the positions are not only the ones the policy likes. At every position some untargeted
+ * cells are drawn, and the weights take one AdaGrad step of the logistic loss towards whether each
+ * cell really holds a ship. Games are generated, learned and discarded one at a time, so the memory
+ * used does not grow with the number of games; a seed reproduces the whole run.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ShotPolicyTrainer {
+    /**
+     * Default step size of AdaGrad.
+     */
+    public static final double DEFAULT_LEARNING_RATE = 0.1;
+
+    /**
+     * Default fraction of shots fired at random instead of following the policy.
+     */
+    public static final double DEFAULT_EXPLORATION = 0.2;
+
+    /**
+     * Number of untargeted cells learned from at every position.
+     */
+    public static final int SAMPLES_PER_POSITION = 8;
+
+    private final GameSpec spec;
+    private final SplittableRandom random;
+    private final double learningRate;
+    private final double exploration;
+    private final ShotFeatures extractor;
+    private final float[] features = new float[ShotFeatures.COUNT];
+    private final float[] weights = new float[ShotFeatures.COUNT];
+    private final double[] squaredGradients = new double[ShotFeatures.COUNT];
+    private final BitBoard board;
+    private long games;
+    private long samples;
+    private double lossSum;
+    private long shots;
+
+    /**
+     * Constructs a trainer that starts from a policy that knows nothing.
+     *
+     * @param spec the board dimensions and fleet of the games.
+     * @param seed the seed of the layouts and of the exploration.
+     * @param learningRate the step size of AdaGrad.
+     * @param exploration the fraction of shots fired at random.
+     * @since 1.0
+     */
+    public ShotPolicyTrainer(GameSpec spec, long seed, double learningRate, double exploration) {
+        this.spec = spec;
+        this.random = new SplittableRandom(seed);
+        this.learningRate = learningRate;
+        this.exploration = exploration;
+        this.extractor = new ShotFeatures(spec);
+        this.board = new BitBoard(spec);
+    }
+
+    /**
+     * Plays and learns from a number of games.
+     *
+     * @param count the number of games.
+     * @since 1.0
+     */
+    public void train(int count) {
+        for (int game = 0; game < count; game++) {
+            board.clear();
+            FleetPlacer.placeRandomFleet(board, spec, random);
+            TargetPool pool = new TargetPool(board);
+            OpponentView view = new OpponentView(board, pool);
+            LearnedShotStrategy shooter = new LearnedShotStrategy(spec, getPolicy(), random);
+            while (!board.allSunk()) {
+                learn(view);
+                int cell = random.nextDouble() < exploration
+                        ? view.getTargetAt(random.nextInt(view.getTargetCount()))
+                        : shooter.chooseTarget(view, Long.MAX_VALUE);
+                int row = view.rowOf(cell);
+                int col = view.colOf(cell);
+                pool.remove(row, col);
+                board.shoot(row, col);
+                shots++;
+            }
+            games++;
+        }
+    }
+
+    /**
+     * Takes one step towards the truth of some untargeted cells of a position.
+     *
+     * @param view the board being played.
+     * @since 1.0
+     */
+    private void learn(OpponentView view) {
+        extractor.load(view);
+        int targets = view.getTargetCount();
+        for (int s = 0; s < SAMPLES_PER_POSITION; s++) {
+            int cell = view.getTargetAt(random.nextInt(targets));
+            extractor.extract(cell, features);
+            double logit = 0;
+            for (int i = 0; i < weights.length; i++) {
+                logit += weights[i] * features[i];
+            }
+            double probability = 1 / (1 + Math.exp(-logit));
+            boolean ship = board.isOccupied(view.rowOf(cell), view.colOf(cell));
+            lossSum -= Math.log(Math.max(1e-12, ship ? probability : 1 - probability));
+            samples++;
+            double error = probability - (ship ? 1 : 0);
+            for (int i = 0; i < weights.length; i++) {
+                double gradient = error * features[i];
+                if (gradient == 0) continue;
+                squaredGradients[i] += gradient * gradient;
+                weights[i] -= (float) (learningRate * gradient / Math.sqrt(squaredGradients[i]));
+            }
+        }
+    }
+
+    /**
+     * Retrieves a snapshot of the policy learned so far.
+     *
+     * @return the policy.
+     * @since 1.0
+     */
+    public ShotPolicy getPolicy() {
+        return new ShotPolicy(weights, games);
+    }
+
+    /**
+     * Retrieves the mean logistic loss of the samples learned from since the last report, and starts a
+     * new report.
+     *
+     * @return the mean loss, or 0 if no sample was learned from.
+     * @since 1.0
+     */
+    public double takeLoss() {
+        double loss = samples == 0 ? 0 : lossSum / samples;
+        lossSum = 0;
+        samples = 0;
+        return loss;
+    }
+
+    /**
+     * Retrieves the mean number of shots per game since the last report, and starts a new report.
+     * The shots include the random ones, so this is only a trend.
+     *
+     * @param reportGames the number of games played since the last report.
+     * @return the mean number of shots.
+     * @since 1.0
+     */
+    public double takeShots(int reportGames) {
+        double mean = reportGames == 0 ? 0 : (double) shots / reportGames;
+        shots = 0;
+        return mean;
+    }
+
+    /**
+     * Retrieves the number of games trained on.
+     *
+     * @return the number of games.
+     * @since 1.0
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Trains the policy of the standard game and writes it.
+     *
+     * @param args the output file, the number of games (20000 by default), the seed (1 by default),
+     *             the learning rate and the exploration.
+     * @throws IOException if the policy cannot be written.
+     * @since 1.0
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Path.of(args.length > 0 ? args[0] : "src/main/resources" + ShotPolicy.STANDARD_RESOURCE);
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        double learningRate = args.length > 3 ? Double.parseDouble(args[3]) : DEFAULT_LEARNING_RATE;
+        double exploration = args.length > 4 ? Double.parseDouble(args[4]) : DEFAULT_EXPLORATION;
+
+        long start = System.nanoTime();
+        ShotPolicyTrainer trainer = new ShotPolicyTrainer(GameSpec.STANDARD, seed, learningRate, exploration);
+        int report = Math.max(1, games / 10);
+        for (int done = 0; done < games; done += report) {
+            int batch = Math.min(report, games - done);
+            trainer.train(batch);
+            System.out.printf("%d partidas: pérdida=%.4f, disparos=%.2f%n",
+                    trainer.getGames(), trainer.takeLoss(), trainer.takeShots(batch));
+        }
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (OutputStream out = Files.newOutputStream(path)) {
+            trainer.getPolicy().write(out);
+        }
+        System.out.printf("Política de disparo: %d partidas en %s (%.1f s)%n",
+                trainer.getGames(), path, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,171 @@
+package com.battleship.battleshipfpoe.engine;
+
+/**
+ * Running statistics of the decisions taken by a {@link ShotPlanner}: how many there were, how long
+ * they took, how many bytes they allocated, how many missed their deadline and how many were
+ * answered by the fallback strategy.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ShotStats {
+    private long decisions;
+    private long totalNanos;
+    private long maxNanos;
+    private long totalAllocatedBytes;
+    private long deadlineMisses;
+    private long fallbacks;
+    private long speculations;
+    private long discardedSpeculations;
+
+    /**
+     * Constructs empty statistics. Only the planner keeps them.
+     *
+     * @since 1.0
+     */
+    ShotStats() {
+    }
+
+    /**
+     * Records one decision.
+     *
+     * @param nanos the time the decision took.
+     * @param allocatedBytes the bytes allocated while deciding, or a negative value if unknown.
+     * @since 1.0
+     */
+    void record(long nanos, long allocatedBytes) {
+        decisions++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+        if (allocatedBytes > 0) {
+            totalAllocatedBytes += allocatedBytes;
+        }
+    }
+
+    void recordDeadlineMiss() {
+        deadlineMisses++;
+    }
+
+    void recordFallback() {
+        fallbacks++;
+    }
+
+    void recordSpeculation() {
+        speculations++;
+    }
+
+    void recordDiscardedSpeculation() {
+        discardedSpeculations++;
+    }
+
+    /**
+     * Discards every recorded decision.
+     *
+     * @since 1.0
+     */
+    public void reset() {
+        decisions = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+        totalAllocatedBytes = 0;
+        deadlineMisses = 0;
+        fallbacks = 0;
+        speculations = 0;
+        discardedSpeculations = 0;
+    }
+
+    /**
+     * Retrieves the number of decisions recorded.
+     *
+     * @return the number of decisions.
+     * @since 1.0
+     */
+    public long getDecisions() {
+        return decisions;
+    }
+
+    /**
+     * Retrieves the mean time per decision.
+     *
+     * @return the average nanoseconds per decision, or 0 if there were none.
+     * @since 1.0
+     */
+    public double getAverageNanos() {
+        return decisions == 0 ? 0 : (double) totalNanos / decisions;
+    }
+
+    /**
+     * Retrieves the time of the slowest decision.
+     *
+     * @return the maximum nanoseconds of a decision.
+     * @since 1.0
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Retrieves the mean allocation per decision.
+     * It is 0 when the JVM cannot measure per-thread allocations.
+     *
+     * @return the average bytes allocated per decision.
+     * @since 1.0
+     */
+    public double getAverageAllocatedBytes() {
+        return decisions == 0 ? 0 : (double) totalAllocatedBytes / decisions;
+    }
+
+    /**
+     * Retrieves the number of decisions that took longer than their deadline.
+     *
+     * @return the number of deadline misses.
+     * @since 1.0
+     */
+    public long getDeadlineMisses() {
+        return deadlineMisses;
+    }
+
+    /**
+     * Retrieves the number of decisions answered by the fallback strategy.
+     *
+     * @return the number of fallbacks.
+     * @since 1.0
+     */
+    public long getFallbacks() {
+        return fallbacks;
+    }
+
+    /**
+     * Retrieves the number of decisions taken ahead of time, while the opponent had the turn.
+     * Their recorded time is only the wait once the turn arrived.
+     *
+     * @return the number of speculated decisions used.
+     * @since 1.0
+     */
+    public long getSpeculations() {
+        return speculations;
+    }
+
+    /**
+     * Retrieves the number of decisions taken ahead of time that were stale when the turn arrived.
+     *
+     * @return the number of discarded speculations.
+     * @since 1.0
+     */
+    public long getDiscardedSpeculations() {
+        return discardedSpeculations;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("decisiones=%d, media=%.1f us, max=%.1f us, bytes/decision=%.0f, fuera de plazo=%d, respaldo=%d, anticipadas=%d, descartadas=%d",
+                decisions, getAverageNanos() / 1e3, maxNanos / 1e3, getAverageAllocatedBytes(), deadlineMisses, fallbacks,
+                speculations, discardedSpeculations);
+    }
+}
@@ -0,0 +1,43 @@
+package com.battleship.battleshipfpoe.engine;
+
+/**
+ * Decides where the machine fires next.
+ * A strategy receives a read-only view of the opponent's board and a deadline, and returns the
+ * linear index ({@code row * cols + col}) of an untargeted cell. Strategies are cooperative: long
+ * searches are expected to check the deadline and return their best answer so far when it passes.
+ * A {@link ShotPlanner} measures every decision and replaces late or invalid answers with a cheap
+ * fallback strategy.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public interface ShotStrategy {
+    /**
+     * Value returned when a strategy has no answer, which makes the planner use its fallback.
+     */
+    int NO_TARGET = -1;
+
+    /**
+     * Chooses the next cell to fire at.
+     *
+     * @param view the opponent's board as seen by the shooter.
+     * @param deadlineNanos the {@link System#nanoTime()} value by which the decision should be made.
+     * @return the linear index of an untargeted cell, or {@link #NO_TARGET}.
+     * @since 1.0
+     */
+    int chooseTarget(OpponentView view, long deadlineNanos);
+
+    /**
+     * Discards any state kept from a previous game.
+     *
+     * @since 1.0
+     */
+    default void reset() {
+    }
+}
@@ -0,0 +1,29 @@
+package com.battleship.battleshipfpoe.engine;
+
+/**
+ * Identifies the two sides of a Battleship game.
+ * Each side owns a board and fires at the board of its opponent.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public enum Side {
+    PLAYER,
+    MACHINE;
+
+    /**
+     * Retrieves the opposing side.
+     *
+     * @return the side this side fires at.
+     * @since 1.0
+     */
+    public Side opponent() {
+        return this == PLAYER ? MACHINE : PLAYER;
+    }
+}
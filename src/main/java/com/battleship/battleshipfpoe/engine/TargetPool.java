@@ -0,0 +1,146 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Set of the cells of a board that have not been fired at yet.
+ * The cells are kept in a dense array with a position index, so membership tests, removals
+ * (swap with the last element) and uniform random selection all take constant time, no matter
+ * how many shots have already been fired.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class TargetPool {
+    private final int cols;
+    private final int[] cells;
+    private final int[] positions; // position of each cell in cells, -1 once it has been removed
+    private int size;
+
+    /**
+     * Constructs a pool holding every cell of a board that has not been shot yet.
+     *
+     * @param board the board whose untargeted cells are tracked.
+     * @since 1.0
+     */
+    public TargetPool(BitBoard board) {
+        this.cols = board.getCols();
+        int cellCount = board.getRows() * cols;
+        cells = new int[cellCount];
+        positions = new int[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (board.isShot(cell / cols, cell % cols)) {
+                positions[cell] = -1;
+            } else {
+                positions[cell] = size;
+                cells[size++] = cell;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a cell has not been fired at yet.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return true if the cell is still in the pool.
+     * @since 1.0
+     */
+    public boolean contains(int row, int col) {
+        return positions[row * cols + col] >= 0;
+    }
+
+    /**
+     * Removes a cell from the pool by swapping the last cell into its slot.
+     * Removing a cell that is no longer in the pool has no effect.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @since 1.0
+     */
+    public void remove(int row, int col) {
+        int cell = row * cols + col;
+        int position = positions[cell];
+        if (position < 0) return;
+        int last = cells[--size];
+        cells[position] = last;
+        positions[last] = position;
+        positions[cell] = -1;
+    }
+
+    /**
+     * Makes this pool a copy of another one over a board of the same size, keeping its order.
+     *
+     * @param other the pool to copy.
+     * @since 1.0
+     */
+    void copyFrom(TargetPool other) {
+        System.arraycopy(other.cells, 0, cells, 0, other.size);
+        System.arraycopy(other.positions, 0, positions, 0, positions.length);
+        size = other.size;
+    }
+
+    /**
+     * Picks an untargeted cell uniformly at random, without removing it.
+     *
+     * @param random the source of randomness.
+     * @return the linear index ({@code row * cols + col}) of the cell.
+     * @throws IllegalStateException if every cell has already been fired at.
+     * @since 1.0
+     */
+    public int randomCell(RandomGenerator random) {
+        if (size == 0) {
+            throw new IllegalStateException("No quedan celdas por atacar.");
+        }
+        return cells[random.nextInt(size)];
+    }
+
+    /**
+     * Retrieves the cell stored at a position of the dense array.
+     *
+     * @param position the position, between 0 and {@link #size()} - 1.
+     * @return the linear index of the cell.
+     * @since 1.0
+     */
+    public int cellAt(int position) {
+        return cells[position];
+    }
+
+    /**
+     * Retrieves the row of a linear cell index.
+     *
+     * @param cell the linear index of the cell.
+     * @return the row index.
+     * @since 1.0
+     */
+    public int rowOf(int cell) {
+        return cell / cols;
+    }
+
+    /**
+     * Retrieves the column of a linear cell index.
+     *
+     * @param cell the linear index of the cell.
+     * @return the column index.
+     * @since 1.0
+     */
+    public int colOf(int cell) {
+        return cell % cols;
+    }
+
+    /**
+     * Retrieves the number of untargeted cells.
+     *
+     * @return the size of the pool.
+     * @since 1.0
+     */
+    public int size() {
+        return size;
+    }
+}
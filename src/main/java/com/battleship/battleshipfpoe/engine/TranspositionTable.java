@@ -0,0 +1,233 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size memo of solved positions, keyed by the Zobrist hash of the visible board.
+ * The table is split into buckets of two slots. The first slot keeps the entry that took the most
+ * work to compute, measured as the number of layouts searched, so expensive positions survive; the
+ * second slot always takes the newest entry that does not beat it. An entry is either the exact value
+ * of its position, with the best cell, or a lower bound found when the search was cut off.
+ * <p>
+ * The arrays are allocated once, so probing and storing never allocate. Probes, hits, stores and
+ * replacements are counted to report the hit rate.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class TranspositionTable {
+    /**
+     * Default number of entries.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final byte EMPTY = 0;
+    private static final byte EXACT = 1;
+    private static final byte LOWER_BOUND = 2;
+
+    private final long[] keys;
+    private final double[] values;
+    private final short[] cells;
+    private final int[] weights;
+    private final byte[] bounds;
+    private final int bucketMask;
+    private long probes;
+    private long hits;
+    private long stores;
+    private long replacements;
+
+    /**
+     * Constructs a table.
+     *
+     * @param capacity the number of entries, rounded up to a power of two of at least 2.
+     * @throws IllegalArgumentException if the capacity is not positive or too large.
+     * @since 1.0
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacidad inválida de la tabla de transposición: " + capacity);
+        }
+        int size = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        keys = new long[size];
+        values = new double[size];
+        cells = new short[size];
+        weights = new int[size];
+        bounds = new byte[size];
+        bucketMask = size / 2 - 1;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key the hash of the position.
+     * @return the slot holding the position, or -1 if it is not in the table.
+     * @since 1.0
+     */
+    int probe(long key) {
+        probes++;
+        int slot = bucketOf(key);
+        if (bounds[slot] == EMPTY || keys[slot] != key) {
+            slot++;
+            if (bounds[slot] == EMPTY || keys[slot] != key) return -1;
+        }
+        hits++;
+        return slot;
+    }
+
+    double valueAt(int slot) {
+        return values[slot];
+    }
+
+    int cellAt(int slot) {
+        return cells[slot];
+    }
+
+    boolean isExactAt(int slot) {
+        return bounds[slot] == EXACT;
+    }
+
+    /**
+     * Stores a position, applying the replacement policy of the bucket.
+     *
+     * @param key the hash of the position.
+     * @param value the expected number of shots, or a lower bound of it.
+     * @param cell the best cell of an exact value, or {@link ShotStrategy#NO_TARGET}.
+     * @param weight the work it took to compute the value.
+     * @param exact true if the value is exact, false if it is a lower bound.
+     * @since 1.0
+     */
+    void store(long key, double value, int cell, int weight, boolean exact) {
+        stores++;
+        int first = bucketOf(key);
+        int slot;
+        if (keys[first] == key && bounds[first] != EMPTY) {
+            slot = first;
+        } else if (keys[first + 1] == key && bounds[first + 1] != EMPTY) {
+            slot = first + 1;
+        } else if (bounds[first] == EMPTY || weight >= weights[first]) {
+            if (bounds[first] != EMPTY) { // The deeper entry moves down to the always-replace slot
+                if (bounds[first + 1] != EMPTY) {
+                    replacements++;
+                }
+                copy(first, first + 1);
+            }
+            slot = first;
+        } else {
+            if (bounds[first + 1] != EMPTY) {
+                replacements++;
+            }
+            slot = first + 1;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        cells[slot] = (short) cell;
+        weights[slot] = weight;
+        bounds[slot] = exact ? EXACT : LOWER_BOUND;
+    }
+
+    /**
+     * Discards every entry and the statistics.
+     *
+     * @since 1.0
+     */
+    public void clear() {
+        Arrays.fill(bounds, EMPTY);
+        resetStats();
+    }
+
+    /**
+     * Discards the statistics, keeping the entries.
+     *
+     * @since 1.0
+     */
+    public void resetStats() {
+        probes = 0;
+        hits = 0;
+        stores = 0;
+        replacements = 0;
+    }
+
+    /**
+     * Retrieves the number of entries of the table.
+     *
+     * @return the capacity.
+     * @since 1.0
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    /**
+     * Retrieves the number of lookups.
+     *
+     * @return the number of probes.
+     * @since 1.0
+     */
+    public long getProbes() {
+        return probes;
+    }
+
+    /**
+     * Retrieves the number of lookups that found their position.
+     *
+     * @return the number of hits.
+     * @since 1.0
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Retrieves the fraction of lookups that found their position.
+     *
+     * @return the hit rate, or 0 if there were no probes.
+     * @since 1.0
+     */
+    public double getHitRate() {
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+    /**
+     * Retrieves the number of positions stored.
+     *
+     * @return the number of stores.
+     * @since 1.0
+     */
+    public long getStores() {
+        return stores;
+    }
+
+    /**
+     * Retrieves the number of entries evicted to make room for another position.
+     *
+     * @return the number of replacements.
+     * @since 1.0
+     */
+    public long getReplacements() {
+        return replacements;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("entradas=%d, consultas=%d, aciertos=%.1f%%, guardados=%d, reemplazos=%d",
+                keys.length, probes, getHitRate() * 100, stores, replacements);
+    }
+
+    private int bucketOf(long key) {
+        return ((int) (key ^ key >>> 32) & bucketMask) << 1;
+    }
+
+    private void copy(int from, int to) {
+        keys[to] = keys[from];
+        values[to] = values[from];
+        cells[to] = cells[from];
+        weights[to] = weights[from];
+        bounds[to] = bounds[from];
+    }
+}
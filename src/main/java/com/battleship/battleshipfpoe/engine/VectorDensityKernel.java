@@ -0,0 +1,149 @@
+package com.battleship.battleshipfpoe.engine;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * Density kernel that slides the placement windows across the board in SIMD lanes with the Vector
+ * API. It runs the algorithm of {@link ScalarDensityKernel} on the flat board, so a vector covers
+ * consecutive cells, possibly of several rows: the starts of a placement are the lane-wise AND of the
+ * board shifted by every offset of the window, and the counts are the lane-wise sum of the starts
+ * shifted back. The cells that do not fill a whole vector are processed one at a time.
+ * <p>
+ * This class is only loaded when {@link DensityKernel#isVectorAvailable()} is true.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+final class VectorDensityKernel implements DensityKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private final int rows;
+    private final int cols;
+    private final int[] starts;
+
+    /**
+     * Constructs a kernel for boards of some dimensions.
+     *
+     * @param rows the number of rows.
+     * @param cols the number of columns.
+     * @throws IllegalArgumentException if a dimension is not positive.
+     * @since 1.0
+     */
+    VectorDensityKernel(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Dimensiones inválidas del tablero: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.starts = new int[Math.multiplyExact(rows, cols)];
+    }
+
+    @Override
+    public void accumulate(int[] free, int length, int weight, int[] density) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Longitud inválida del barco: " + length);
+        }
+        int cells = starts.length;
+        int lanes = SPECIES.length();
+        if (length == 1) { // A single cell has one placement
+            int i = 0;
+            for (int bound = SPECIES.loopBound(cells); i < bound; i += lanes) {
+                IntVector.fromArray(SPECIES, free, i).mul(weight)
+                        .add(IntVector.fromArray(SPECIES, density, i))
+                        .intoArray(density, i);
+            }
+            for (; i < cells; i++) {
+                density[i] += weight * free[i];
+            }
+            return;
+        }
+
+        // Horizontal placements
+        int last = Math.max(0, cells - length + 1);
+        findStarts(free, last, length, 1);
+        Arrays.fill(starts, last, cells, 0);
+        int firstWrapped = Math.max(0, cols - length + 1);
+        for (int row = 0; row < rows; row++) {
+            Arrays.fill(starts, row * cols + firstWrapped, (row + 1) * cols, 0);
+        }
+        addCoverage(length, 1, weight, density);
+
+        // Vertical placements
+        last = Math.max(0, cells - (length - 1) * cols);
+        findStarts(free, last, length, cols);
+        Arrays.fill(starts, last, cells, 0);
+        addCoverage(length, cols, weight, density);
+    }
+
+    /**
+     * Marks the cells before {@code last} where the next {@code length} cells, {@code step} apart, are free.
+     */
+    private void findStarts(int[] free, int last, int length, int step) {
+        int lanes = SPECIES.length();
+        int i = 0;
+        for (int bound = SPECIES.loopBound(last); i < bound; i += lanes) {
+            IntVector start = IntVector.fromArray(SPECIES, free, i);
+            for (int k = 1; k < length; k++) {
+                start = start.and(IntVector.fromArray(SPECIES, free, i + k * step));
+            }
+            start.intoArray(starts, i);
+        }
+        for (; i < last; i++) {
+            int start = free[i];
+            for (int k = 1; k < length; k++) {
+                start &= free[i + k * step];
+            }
+            starts[i] = start;
+        }
+    }
+
+    /**
+     * Adds to every cell the weighted starts of the placements that cover it.
+     */
+    private void addCoverage(int length, int step, int weight, int[] density) {
+        int cells = starts.length;
+        int lanes = SPECIES.length();
+        int first = Math.min(cells, (length - 1) * step); // Every window of the later cells is on the board
+        for (int i = 0; i < first; i++) {
+            int sum = 0;
+            for (int k = 0; k < length && k * step <= i; k++) {
+                sum += starts[i - k * step];
+            }
+            density[i] += weight * sum;
+        }
+        int i = first;
+        for (int bound = first + SPECIES.loopBound(cells - first); i < bound; i += lanes) {
+            IntVector sum = IntVector.fromArray(SPECIES, starts, i);
+            for (int k = 1; k < length; k++) {
+                sum = sum.add(IntVector.fromArray(SPECIES, starts, i - k * step));
+            }
+            sum.mul(weight).add(IntVector.fromArray(SPECIES, density, i)).intoArray(density, i);
+        }
+        for (; i < cells; i++) {
+            int sum = 0;
+            for (int k = 0; k < length; k++) {
+                sum += starts[i - k * step];
+            }
+            density[i] += weight * sum;
+        }
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+}
@@ -0,0 +1,379 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estimates the player's chance to win from the current position by playing it out many times in
+ * the background. The player's fleet is known, so its rollouts use the real one; the machine's
+ * afloat ships are hidden from the player, so every rollout samples a layout of them consistent with
+ * the player's shots, as {@link MonteCarloStrategy} does, and the estimate never leaks where they are.
+ * The player is expected to play like the reference bot of the {@link DifficultyCalibrator}, and the
+ * machine like the rollout strategy of its difficulty; in a salvo game both choose their salvos with a
+ * small {@link SampledSalvoStrategy}, or at random for the easy machine.
+ * <p>
+ * Rollouts run on a bounded pool of daemon threads and the estimate refines as they finish, up to
+ * {@link #MAX_ROLLOUTS} per position. {@link #restart(GameEngine)} takes a snapshot of the position,
+ * including the side to move, on the calling thread, so it must be called after the shots land and the
+ * engine has applied the turn rules, not from inside the engine's events; the rollouts of the previous
+ * position stop at their next turn and their results are dropped.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class WinEstimator {
+    /**
+     * Maximum number of rollouts of a position, enough for a standard error of about one point.
+     */
+    public static final int MAX_ROLLOUTS = 2000;
+
+    /**
+     * Number of layouts sampled per salvo in the rollouts of a salvo game.
+     */
+    public static final int SALVO_SAMPLES = 32;
+
+    /**
+     * Time budget of a salvo in the rollouts, in nanoseconds. Salvos need one, since the sampler
+     * only stops at its deadline when the layouts left are hard to find.
+     */
+    public static final long SALVO_BUDGET_NANOS = 4_000_000L;
+
+    /**
+     * Number of rollout threads, which leaves half of the processors to the game.
+     */
+    public static final int PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    // Shared by every estimator, since one game runs at a time
+    private static final ExecutorService ROLLOUTS = Executors.newFixedThreadPool(PARALLELISM, task -> {
+        Thread thread = new Thread(task, "battleship-rollout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final GameSpec spec;
+    private final Difficulty difficulty;
+    private final PlacementGenerator prototype;
+    private final SplittableRandom random;
+    private final List<Future<?>> running;
+    private volatile Batch batch;
+
+    /**
+     * Constructs an estimator for games against a machine of the given difficulty.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @param difficulty the difficulty level of the machine.
+     * @param seed the seed of the rollouts.
+     * @since 1.0
+     */
+    public WinEstimator(GameSpec spec, Difficulty difficulty, long seed) {
+        this.spec = spec;
+        this.difficulty = difficulty;
+        this.prototype = new PlacementGenerator(spec);
+        this.random = new SplittableRandom(seed);
+        this.running = new ArrayList<>(PARALLELISM);
+    }
+
+    /**
+     * Stops the rollouts of the previous position and starts playing out the current one. The
+     * position is copied before this method returns, so the engine can go on right away.
+     *
+     * @param engine the engine running the game.
+     * @since 1.0
+     */
+    public void restart(GameEngine engine) {
+        stop();
+        Batch next = new Batch(new Position(engine));
+        batch = next;
+        if (engine.isGameOver()) {
+            next.settle(engine.getWinner() == Side.PLAYER);
+            return;
+        }
+        for (int i = 0; i < PARALLELISM; i++) {
+            running.add(ROLLOUTS.submit(new Rollouts(next, random.split())));
+        }
+    }
+
+    /**
+     * Stops the rollouts of the current position. The last estimate is kept.
+     *
+     * @since 1.0
+     */
+    public void stop() {
+        Batch current = batch;
+        if (current != null) {
+            current.stopped = true;
+        }
+        for (Future<?> future : running) {
+            future.cancel(false);
+        }
+        running.clear();
+    }
+
+    /**
+     * Retrieves the share of the rollouts of the current position won by the player.
+     *
+     * @return the chance of the player to win, or {@link Double#NaN} before the first rollout ends.
+     * @since 1.0
+     */
+    public double getWinProbability() {
+        Batch current = batch;
+        return current == null ? Double.NaN : current.getWinProbability();
+    }
+
+    /**
+     * Retrieves the number of rollouts of the current position played so far.
+     *
+     * @return the number of finished rollouts.
+     * @since 1.0
+     */
+    public int getRollouts() {
+        Batch current = batch;
+        return current == null ? 0 : current.getGames();
+    }
+
+    /**
+     * Snapshot of a position, taken on the thread that runs the game. The player's fleet is copied
+     * whole, while of the machine's fleet only what the player has seen is kept: its sunk ships and the
+     * constraints its afloat ships must satisfy.
+     */
+    private final class Position {
+        private final List<ShipPlacement> playerFleet;
+        private final List<ShipPlacement> machineSunk;
+        private final int[] playerShots;
+        private final int[] machineShots;
+        private final long[] blocked;
+        private final long[] required;
+        private final boolean[] skipped;
+        private final boolean salvo;
+        private final Side turn;
+
+        Position(GameEngine engine) {
+            BitBoard playerBoard = engine.getBoard(Side.PLAYER);
+            BitBoard machineBoard = engine.getBoard(Side.MACHINE);
+            ShipIndex playerShips = playerBoard.getShips();
+            ShipIndex machineShips = machineBoard.getShips();
+            playerFleet = new ArrayList<>(playerShips.getShipCount());
+            for (int id = 0; id < playerShips.getShipCount(); id++) {
+                playerFleet.add(ShipPlacement.of(playerShips, id));
+            }
+            machineSunk = new ArrayList<>(machineShips.getSunkCount());
+            for (int id = 0; id < machineShips.getShipCount(); id++) {
+                if (machineShips.isSunk(id)) {
+                    machineSunk.add(ShipPlacement.of(machineShips, id));
+                }
+            }
+            playerShots = shotCells(playerBoard);
+            machineShots = shotCells(machineBoard);
+
+            int words = BitBoard.wordsFor(spec.getCellCount());
+            blocked = new long[words];
+            required = new long[words];
+            OpponentView view = engine.getView(Side.MACHINE);
+            for (int cell : machineShots) {
+                if (view.isOpenHit(view.rowOf(cell), view.colOf(cell))) {
+                    required[cell >>> 6] |= 1L << cell;
+                } else {
+                    blocked[cell >>> 6] |= 1L << cell;
+                }
+            }
+            int[] afloatLengths = new int[spec.getShipCount()];
+            int afloat = view.getAfloatLengths(afloatLengths);
+            skipped = new boolean[spec.getShipCount()];
+            for (int ship = 0; ship < skipped.length; ship++) {
+                skipped[ship] = true;
+                for (int i = 0; i < afloat; i++) {
+                    if (afloatLengths[i] == spec.getShipLength(ship)) {
+                        afloatLengths[i] = 0; // Each afloat ship is matched once
+                        skipped[ship] = false;
+                        break;
+                    }
+                }
+            }
+            salvo = engine.isSalvo();
+            turn = engine.getTurn();
+        }
+
+        private int[] shotCells(BitBoard board) {
+            int[] cells = new int[spec.getCellCount()];
+            int count = 0;
+            for (int cell = 0; cell < cells.length; cell++) {
+                if (board.isShot(cell / spec.getCols(), cell % spec.getCols())) {
+                    cells[count++] = cell;
+                }
+            }
+            return Arrays.copyOf(cells, count);
+        }
+    }
+
+    /**
+     * Rollouts of one position and their tally.
+     */
+    private static final class Batch {
+        private final Position position;
+        private final AtomicInteger started;
+        private volatile boolean stopped;
+        private int games;
+        private int playerWins;
+
+        Batch(Position position) {
+            this.position = position;
+            this.started = new AtomicInteger();
+        }
+
+        /**
+         * Claims the next rollout, unless the position has been played out enough or replaced.
+         */
+        boolean claim() {
+            return !stopped && started.getAndIncrement() < MAX_ROLLOUTS;
+        }
+
+        synchronized void record(boolean playerWon) {
+            games++;
+            if (playerWon) playerWins++;
+        }
+
+        synchronized void settle(boolean playerWon) {
+            games = 1;
+            playerWins = playerWon ? 1 : 0;
+        }
+
+        synchronized double getWinProbability() {
+            return games == 0 ? Double.NaN : (double) playerWins / games;
+        }
+
+        synchronized int getGames() {
+            return games;
+        }
+    }
+
+    /**
+     * Task of one rollout thread, which plays out a position with its own strategies until the batch
+     * is full or stopped.
+     */
+    private final class Rollouts implements Runnable {
+        private final Batch batch;
+        private final Position position;
+        private final SplittableRandom random;
+        private final PlacementGenerator generator;
+        private final int[] layout;
+        private final ShotStrategy playerStrategy;
+        private final ShotStrategy machineStrategy;
+        private final SalvoStrategy playerSalvos;
+        private final SalvoStrategy machineSalvos;
+        private final RandomSalvoStrategy salvoFallback;
+
+        Rollouts(Batch batch, SplittableRandom random) {
+            this.batch = batch;
+            this.position = batch.position;
+            this.random = random;
+            this.generator = new PlacementGenerator(prototype);
+            this.layout = new int[spec.getShipCount()];
+            generator.setConstraints(position.blocked, position.required, position.skipped);
+            if (position.salvo) {
+                playerStrategy = null;
+                machineStrategy = null;
+                playerSalvos = new SampledSalvoStrategy(spec, random.nextLong(), 1, SALVO_SAMPLES);
+                machineSalvos = difficulty == Difficulty.EASY ? new RandomSalvoStrategy(random.split())
+                        : new SampledSalvoStrategy(spec, random.nextLong(), 1, SALVO_SAMPLES);
+            } else {
+                SplittableRandom referenceRandom = random.split();
+                playerStrategy = new HandicapStrategy(new HuntTargetStrategy(referenceRandom),
+                        DifficultyCalibrator.REFERENCE_BLUNDER_RATE, referenceRandom.split());
+                machineStrategy = difficulty.createRolloutStrategy(spec, random.split());
+                playerSalvos = null;
+                machineSalvos = null;
+            }
+            this.salvoFallback = new RandomSalvoStrategy(random.split());
+        }
+
+        @Override
+        public void run() {
+            while (!batch.stopped) {
+                GameEngine engine = resume();
+                if (engine == null) continue;
+                if (!batch.claim()) return;
+                Side winner = playOut(engine);
+                if (winner == null) return;
+                batch.record(winner == Side.PLAYER);
+            }
+        }
+
+        /**
+         * Rebuilds the position with a sampled layout of the machine's afloat ships. The generator
+         * never lays an afloat ship entirely on open hits, so the rollout starts with the ships the
+         * player has seen sunk and no other.
+         *
+         * @return the engine of the rollout, or null if no layout was found.
+         */
+        private GameEngine resume() {
+            if (!generator.sample(random, PlacementGenerator.DEFAULT_BUDGET, layout)) return null;
+            BitBoard machineBoard = new BitBoard(spec);
+            for (ShipPlacement ship : position.machineSunk) {
+                machineBoard.place(ship);
+            }
+            for (int ship = 0; ship < layout.length; ship++) {
+                int anchor = layout[ship];
+                if (anchor < 0) continue;
+                machineBoard.place(generator.rowOf(anchor), generator.colOf(anchor), spec.getShipLength(ship),
+                        PlacementGenerator.isHorizontal(anchor));
+            }
+            for (int cell : position.machineShots) {
+                machineBoard.shoot(cell / spec.getCols(), cell % spec.getCols());
+            }
+
+            BitBoard playerBoard = new BitBoard(spec);
+            for (ShipPlacement ship : position.playerFleet) {
+                playerBoard.place(ship);
+            }
+            for (int cell : position.playerShots) {
+                playerBoard.shoot(cell / spec.getCols(), cell % spec.getCols());
+            }
+            return new GameEngine(playerBoard, machineBoard, position.salvo, position.turn);
+        }
+
+        /**
+         * Plays the rollout to the end.
+         *
+         * @return the winner, or null if the batch was stopped first.
+         */
+        private Side playOut(GameEngine engine) {
+            if (position.salvo) {
+                playerSalvos.reset();
+                machineSalvos.reset();
+            } else {
+                playerStrategy.reset();
+                machineStrategy.reset();
+            }
+            while (!engine.isGameOver()) {
+                if (batch.stopped) return null;
+                Side shooter = engine.getTurn();
+                OpponentView view = engine.getView(shooter.opponent());
+                if (position.salvo) {
+                    int count = engine.getSalvoSize(shooter);
+                    int[] cells = new int[count];
+                    SalvoStrategy strategy = shooter == Side.PLAYER ? playerSalvos : machineSalvos;
+                    int chosen = strategy.chooseSalvo(view, count, cells, System.nanoTime() + SALVO_BUDGET_NANOS);
+                    salvoFallback.complete(view, cells, chosen, count);
+                    engine.fireSalvo(shooter, cells);
+                } else {
+                    ShotStrategy strategy = shooter == Side.PLAYER ? playerStrategy : machineStrategy;
+                    int cell = strategy.chooseTarget(view, Long.MAX_VALUE);
+                    engine.fire(shooter, view.rowOf(cell), view.colOf(cell));
+                }
+            }
+            return engine.getWinner();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.battleship.battleshipfpoe.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys of the visible state of a board.
+ * Every cell fired at contributes the key of its state (miss, hit on an afloat ship or sunk ship) and
+ * the keys are combined with XOR, so the hash of a board only depends on what the shooter can see and
+ * not on the order of the shots, and a shot updates it with one or a few XORs.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+final class ZobristKeys {
+    static final byte MISS = 1;
+    static final byte HIT = 2;
+    static final byte SUNK = 3;
+
+    private final long[] keys;
+
+    /**
+     * Draws the keys of every cell and state.
+     *
+     * @param cellCount the number of cells of the board.
+     * @param seed the seed of the keys; equal seeds draw equal keys.
+     * @since 1.0
+     */
+    ZobristKeys(int cellCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        keys = new long[cellCount * 3];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Retrieves the key of a cell in a state.
+     *
+     * @param cell the linear index of the cell.
+     * @param state {@link #MISS}, {@link #HIT} or {@link #SUNK}.
+     * @return the key.
+     * @since 1.0
+     */
+    long key(int cell, byte state) {
+        return keys[cell * 3 + state - 1];
+    }
+
+    /**
+     * Hashes the visible state of a board.
+     *
+     * @param view the opponent's board; it must have the cell count of the keys.
+     * @return the XOR of the keys of every cell fired at.
+     * @since 1.0
+     */
+    long hash(OpponentView view) {
+        long hash = 0;
+        int cols = view.getCols();
+        for (int cell = 0; cell < keys.length / 3; cell++) {
+            int row = cell / cols;
+            int col = cell % cols;
+            if (!view.isShot(row, col)) continue;
+            hash ^= key(cell, view.isSunk(row, col) ? SUNK : view.isHit(row, col) ? HIT : MISS);
+        }
+        return hash;
+    }
+}
@@ -1,9 +1,9 @@
 package com.battleship.battleshipfpoe.model;
 
-
+import com.battleship.battleshipfpoe.engine.BitBoard;
 import javafx.scene.layout.AnchorPane;
 
-import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Abstract base class for managing the board in the Battleship game.
@@ -29,8 +29,7 @@ public abstract class BoardBase implements IBoardBase{
     private final int gridSize;
     private final int tilesDown;
     private final AnchorPane anchorPane;
-    private final ArrayList<ArrayList<Integer>> board;
-    private Game game;
+    private final BitBoard board;
 
     /**
      * Constructs a BoardBase object with the given parameters.
@@ -47,21 +46,13 @@ public abstract class BoardBase implements IBoardBase{
         this.planeHeight = planeHeight;
         this.gridSize = gridSize;
         this.anchorPane = anchorPane;
-        game= new Game();
 
         tilesAcross = (int) (planeWidth / gridSize);
         tileAmount = (int) ((planeWidth / gridSize) * (planeHeight / gridSize));
         tilesDown = tileAmount / tilesAcross;
 
-        // Initialize the board
-        board = new ArrayList<>();
-        for (int i = 0; i < gridSize; i++) {
-            ArrayList<Integer> row = new ArrayList<>();
-            for (int j = 0; j < gridSize; j++) {
-                row.add(0); // Default to 0 (water)
-            }
-            board.add(row);
-        }
+        // Initialize the board, every cell starts as 0 (water)
+        board = new BitBoard(gridSize);
     }
 
     /**
@@ -72,7 +63,7 @@ public abstract class BoardBase implements IBoardBase{
      * @return the value at the specified cell
      */
     public int getCell(int row, int col) {
-        return board.get(row).get(col);
+        return board.getCell(row, col);
     }
 
     /**
@@ -83,19 +74,14 @@ public abstract class BoardBase implements IBoardBase{
      * @param value the value to set
      */
     public void setCell(int row, int col, int value) {
-        board.get(row).set(col, value);
+        board.setCell(row, col, value);
     }
 
     /**
      * Resets the board, initializing all cells to 0 (water).
      */
     public void resetBoard() {
-        for (int i = 0; i < gridSize; i++) {
-            ArrayList<Integer> row = board.get(i);
-            for (int j = 0; j < gridSize; j++) {
-                row.set(j, 0);
-            }
-        }
+        board.clear();
     }
 
     // Getters
@@ -170,12 +156,23 @@ public abstract class BoardBase implements IBoardBase{
     }
 
     /**
-     * Retrieves the board as a 2D array of integers.
+     * Retrieves the board as a live list view of integer cell codes.
+     *
+     * @return the list of rows representing the board.
+     * @since 1.0
+     * @see BitBoard#asMatrix()
+     */
+    public List<List<Integer>> getBoard() {
+        return board.asMatrix();
+    }
+
+    /**
+     * Retrieves the bit-parallel board backing this board.
      *
-     * @return the 2D array representing the board.
+     * @return the {@link BitBoard} holding the board state.
      * @since 1.0
      */
-    public ArrayList<ArrayList<Integer>> getBoard() {
+    public BitBoard getBitBoard() {
         return board;
     }
 
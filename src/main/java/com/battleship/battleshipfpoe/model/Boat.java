@@ -1,5 +1,6 @@
 package com.battleship.battleshipfpoe.model;
 
+import com.battleship.battleshipfpoe.engine.ShipPlacement;
 import com.battleship.battleshipfpoe.view.Submarine;
 import javafx.scene.Group;
 import javafx.scene.paint.Color;
@@ -34,8 +35,6 @@ public class Boat extends Group implements BoatInterface {
     private boolean rotated = false;
     private boolean wasFirstMove = true;
     private final Group boatStyle; // Grupo que define el estilo visual del barco
-    private Game game;
-    private boolean[] hits; // Array para rastrear impactos
 
     /**
      * Constructs a Boat object with the specified parameters.
@@ -56,10 +55,6 @@ public class Boat extends Group implements BoatInterface {
         this.length = length;
         this.isHorizontal = isHorizontal;
         this.boatStyle = boatStyle;
-        game = new Game();
-
-        this.hits = new boolean[length]; // Initialize the hits array
-
 
         // Initialize the boat with its visual style and starting position
         placeBoat(startX, startY, length, isHorizontal);
@@ -68,27 +63,17 @@ public class Boat extends Group implements BoatInterface {
     }
 
     /**
-     * Marks a specific section of the boat as hit.
+     * Gets the placement of the boat on the board.
+     * Hits and sinkings are tracked by the board's ship index, so the boat only carries its position.
      *
-     * @param index the index of the section that was hit.
+     * @return the {@link ShipPlacement} of the boat, or {@code null} if it has not been snapped to the board.
      * @since 1.0
      */
-    public void markHit(int index) {
-        hits[index] = true; // Mark section as impacted
-    }
-
-    /**
-     * Checks if the boat is sunk, i.e., all sections have been hit.
-     *
-     * @return true if all sections of the boat are hit, false otherwise.
-     * @since 1.0
-     */
-    public boolean isSunk() {
-        // Check if all sections have been hit
-        for (boolean hit : hits) {
-            if (!hit) return false;
+    public ShipPlacement toPlacement() {
+        if (currentRow == -1 || currentCol == -1) {
+            return null;
         }
-        return true;
+        return new ShipPlacement(currentRow, currentCol, length, isHorizontal);
     }
 
     /**
@@ -1,21 +1,33 @@
 package com.battleship.battleshipfpoe.model;
 
+import com.battleship.battleshipfpoe.engine.Difficulty;
+import com.battleship.battleshipfpoe.engine.GameEngine;
+import com.battleship.battleshipfpoe.engine.GameEventListener;
+import com.battleship.battleshipfpoe.engine.GameSpec;
+import com.battleship.battleshipfpoe.engine.OpponentView;
+import com.battleship.battleshipfpoe.engine.PlacementHistory;
+import com.battleship.battleshipfpoe.engine.RandomSalvoStrategy;
+import com.battleship.battleshipfpoe.engine.RandomShotStrategy;
+import com.battleship.battleshipfpoe.engine.SalvoStrategy;
+import com.battleship.battleshipfpoe.engine.ShipIndex;
+import com.battleship.battleshipfpoe.engine.ShotPlanner;
+import com.battleship.battleshipfpoe.engine.ShotOutcome;
+import com.battleship.battleshipfpoe.engine.Side;
+import com.battleship.battleshipfpoe.engine.TargetPool;
 import com.battleship.battleshipfpoe.view.BombTouch;
 import com.battleship.battleshipfpoe.view.ShipSunk;
 import com.battleship.battleshipfpoe.view.WaterShot;
-import javafx.fxml.Initializable;
 import javafx.scene.Group;
 import javafx.scene.control.Button;
 import javafx.scene.control.ContentDisplay;
 
-
-import java.util.List;
 import java.util.Random;
 
 /**
  * Manages the gameplay logic for the Battleship game, including handling the game board,
  * shooting actions, detecting hit or sunk ships, and updating the player's and machine's state.
- * This class interacts with various views and models to update the game state and interface.
+ * Shot resolution and turn rules live in the headless {@link GameEngine}; this class listens to
+ * its events to update the graphics of the player's board.
  *
  * @author Maycol Andres Taquez Carlosama
  * @code 2375000
@@ -26,13 +38,21 @@ import java.util.Random;
  * @version 1.0
  * @since 1.0
  */
-public class Game implements IGame{
+public class Game implements IGame, GameEventListener {
+    // The graphic factories are stateless, so every session shares them
+    private static final WaterShot WATER_SHOT = new WaterShot();
+    private static final BombTouch BOMB_TOUCH = new BombTouch();
+    private static final ShipSunk SHIP_SUNK = new ShipSunk();
     private final Button[][] matrix;
-    private WaterShot waterShot;
-    private BombTouch bombTouch;
-    private ShipSunk shipSunk;
-    private Boat boat;
     private int[][] matrixPlayer;
+    private final Random random;
+    private final GameSpec spec;
+    private final PlacementHistory history;
+    private final RandomSalvoStrategy salvoFallback;
+    private ShotPlanner planner;
+    private SalvoStrategy salvoStrategy;
+    private GameEngine engine;
+    private OpponentView playerView;
 
     /**
      * Constructor de la clase {@link Game}. Inicializa las matrices para la representación del tablero de juego,
@@ -45,11 +65,54 @@ public class Game implements IGame{
      * @see ShipSunk
      */
     public Game() {
-        matrix = new Button[10][10];
-        matrixPlayer = new int[10][10];
-        waterShot = new WaterShot();
-        bombTouch = new BombTouch();
-        shipSunk = new ShipSunk();
+        this(GameSpec.STANDARD);
+    }
+
+    /**
+     * Constructor de la clase {@link Game} para un tablero con las dimensiones indicadas por la especificación
+     * y la dificultad media.
+     *
+     * @param spec las dimensiones del tablero y la flota de la partida.
+     * @since 1.0
+     * @see GameSpec
+     */
+    public Game(GameSpec spec) {
+        this(spec, Difficulty.MEDIUM);
+    }
+
+    /**
+     * Constructor de la clase {@link Game} para un tablero con las dimensiones indicadas por la especificación.
+     * La dificultad elige la estrategia de disparo de la máquina.
+     *
+     * @param spec las dimensiones del tablero y la flota de la partida.
+     * @param difficulty el nivel de dificultad de la máquina.
+     * @since 1.0
+     * @see GameSpec
+     * @see Difficulty
+     */
+    public Game(GameSpec spec, Difficulty difficulty) {
+        this(spec, difficulty, null);
+    }
+
+    /**
+     * Constructor de la clase {@link Game} para un tablero con las dimensiones indicadas por la especificación.
+     * La dificultad elige la estrategia de disparo de la máquina, que puede aprender del historial de
+     * ubicaciones del jugador.
+     *
+     * @param spec las dimensiones del tablero y la flota de la partida.
+     * @param difficulty el nivel de dificultad de la máquina.
+     * @param history las ubicaciones del jugador en partidas anteriores, o null si no hay.
+     * @since 1.0
+     * @see PlacementHistory
+     */
+    public Game(GameSpec spec, Difficulty difficulty, PlacementHistory history) {
+        matrix = new Button[spec.getRows()][spec.getCols()];
+        matrixPlayer = new int[spec.getRows()][spec.getCols()];
+        random = new Random();
+        this.spec = spec;
+        this.history = history;
+        salvoFallback = new RandomSalvoStrategy(random);
+        setDifficulty(difficulty);
         fillMatrixPlayer();
     }
 
@@ -61,98 +124,114 @@ public class Game implements IGame{
      * @since 1.0
      */
     public void fillMatrixPlayer(){
-        for(int i = 0; i < 10; i++){
-            for(int j = 0; j < 10; j++){
+        for(int i = 0; i < matrixPlayer.length; i++){
+            for(int j = 0; j < matrixPlayer[i].length; j++){
                 matrixPlayer[i][j] = 0;
             }
         }
     }
 
     /**
-     * Gets the count of destroyed boats by checking each boat's position and verifying if all parts of it are hit.
+     * Gets the count of destroyed boats from the live counters of the player's board.
+     * The counters are updated as shots land, so this does not rescan the boats.
      *
-     * @param boats the list of boats in the game.
      * @param playerBoard the player's board containing the game matrix.
      * @return the number of destroyed boats.
      * @since 1.0
+     * @see ShipIndex#getSunkCount()
      */
-    public int getDestroyedBoatsCount(List<Boat> boats, PlayerBoard playerBoard) {
-        int destroyedCount = 0;
-
-        List<List<Integer>> matrix = playerBoard.getMatrixPlayer();
-
-        for (Boat boat : boats) {
-            int[] position = boat.getPosition();
-            if (position[0] == -1 || position[1] == -1) continue; // Skip unplaced boats
-
-            // Check if all cells of the boat are marked as sunk (3)
-            boolean isDestroyed = true;
-            for (int i = 0; i < boat.getLength(); i++) {
-                int cellValue = boat.isHorizontal()
-                        ? matrix.get(position[0]).get(position[1] + i)
-                        : matrix.get(position[0] + i).get(position[1]);
-
-                if (cellValue != 3) {
-                    isDestroyed = false;
-                    break;
-                }
-            }
-
-            if (isDestroyed) {
-                destroyedCount++; // Increment the count if the boat is sunk
-            }
-        }
-
-        return destroyedCount; // Return the number of destroyed boats
+    public int getDestroyedBoatsCount(PlayerBoard playerBoard) {
+        return playerBoard.getBitBoard().getShips().getSunkCount();
     }
 
     /**
-     * Simulates the machine's shooting action. The machine randomly selects a cell to shoot at.
-     * If a ship is hit, it updates the state and checks if the boat is destroyed.
+     * Simulates the machine's shooting action. The shot planner picks every cell with the strategy
+     * of the chosen difficulty, and the machine keeps firing while the engine gives it the turn,
+     * i.e. until it misses or wins. The graphics are updated through the engine events.
+     * <p>
+     * In a salvo game the machine instead fires one salvo, whose cells are chosen together by the
+     * salvo strategy of the difficulty within the planner's budget and completed at random if the
+     * strategy runs out of answers. The whole salvo is resolved and drawn at once.
      *
-     * @param boats the list of boats in the game.
-     * @param playerBoard the player's board containing the game matrix.
+     * @param engine the engine running the game.
      * @since 1.0
-     * @see InvalidShotException
+     * @see ShotPlanner
+     * @see GameEngine#fireSalvo(Side, int[])
      */
-    public void shootingMachine(List<Boat> boats, PlayerBoard playerBoard) {
+    public void shootingMachine(GameEngine engine) {
         System.out.println("Turno de la máquina");
-        Random random = new Random();
-
-        while (true) {
-            int row = random.nextInt(10); // Random index for row
-            int col = random.nextInt(10); // Random index for column
-
-            try {
-                // Call the checkIfShotIsValid method to check if the shot is valid
-                checkIfShotIsValid(row, col, playerBoard);
-
-                int playerBoardShotValue = playerBoard.getMatrixPlayer().get(row).get(col);
-
-                // Perform the shot
-                boolean hit = handleShot(row, col, playerBoard);
+        OpponentView view = engine == this.engine ? playerView : engine.getView(Side.PLAYER);
+
+        if (engine.isSalvo()) {
+            if (engine.getTurn() != Side.MACHINE || engine.isGameOver()) return;
+            int count = engine.getSalvoSize(Side.MACHINE);
+            int[] cells = new int[count];
+            int chosen = salvoStrategy.chooseSalvo(view, count, cells, System.nanoTime() + ShotPlanner.DEFAULT_BUDGET_NANOS);
+            salvoFallback.complete(view, cells, chosen, count);
+            engine.fireSalvo(Side.MACHINE, cells);
+            return;
+        }
 
-                // Update the graphical interface
-                updateCellGraphic(row, col, hit);
+        while (engine.getTurn() == Side.MACHINE && !engine.isGameOver()) {
+            int cell = planner.nextTarget(view);
+            engine.fire(Side.MACHINE, view.rowOf(cell), view.colOf(cell));
+        }
+    }
 
-                // If a boat is hit, check if it is completely destroyed
-                if (hit) {
-                    checkAndMarkDestroyedBoats(boats, playerBoard);
-                }
+    /**
+     * Subscribes this game to the events of an engine and lets the machine think during the player's
+     * turns: whenever the turn passes to the player, the machine's next shot starts being chosen in
+     * the background, so it is ready as soon as the player misses.
+     *
+     * @param engine the engine running the game.
+     * @since 1.0
+     * @see ShotPlanner#speculate(OpponentView)
+     */
+    public void attach(GameEngine engine) {
+        this.engine = engine;
+        this.playerView = engine.getView(Side.PLAYER);
+        engine.addListener(this);
+        speculate();
+    }
 
-                // If no boat is hit, end the turn
-                if (!hit) {
-                    playerBoard.getMatrixPlayer().get(row).set(col, -1);
-                    break;
-                }
+    /**
+     * Sets the difficulty of the machine, replacing its shot strategy.
+     *
+     * @param difficulty the new difficulty level.
+     * @since 1.0
+     * @see Difficulty#createStrategy
+     */
+    public void setDifficulty(Difficulty difficulty) {
+        if (planner != null) {
+            planner.cancelSpeculation();
+        }
+        planner = new ShotPlanner(difficulty.createStrategy(spec, random, history), new RandomShotStrategy(random));
+        salvoStrategy = difficulty.createSalvoStrategy(spec, random);
+        speculate();
+    }
 
-            } catch (InvalidShotException e) {
-                // If the shot is invalid, try again with a new shot
-                System.err.println(e.getMessage());
-            }
+    /**
+     * Starts choosing the machine's next shot in the background if the player has the turn.
+     * A salvo depends on its size, which the player's salvo may change, so it is never speculated.
+     *
+     * @since 1.0
+     */
+    private void speculate() {
+        if (engine != null && !engine.isSalvo() && engine.getTurn() == Side.PLAYER && !engine.isGameOver()) {
+            planner.speculate(playerView);
         }
     }
 
+    /**
+     * Gets the planner that chooses the machine's shots, along with its decision statistics.
+     *
+     * @return the shot planner of the machine.
+     * @since 1.0
+     */
+    public ShotPlanner getPlanner() {
+        return planner;
+    }
+
     // OWN EXCEPTION: To handle invalid shots
     /**
      * Custom exception used to handle invalid shots in the game.
@@ -176,39 +255,22 @@ public class Game implements IGame{
     // Method to verify if the shot is valid
     /**
      * Verifies if the shot at the specified row and column is valid.
-     * A shot is invalid if it has already been made at that cell or if it's out of bounds.
+     * A shot is invalid if it has already been made at that cell, which is a constant-time
+     * lookup on the pool of untargeted cells.
      *
      * @param row the row of the shot.
      * @param col the column of the shot.
-     * @param playerBoard the player's board containing the game matrix.
+     * @param targets the untargeted cells of the board being shot at.
      * @throws InvalidShotException if the shot is invalid.
      * @since 1.0
      */
-    public void checkIfShotIsValid(int row, int col, PlayerBoard playerBoard) throws InvalidShotException {
-        int playerBoardShotValue = playerBoard.getMatrixPlayer().get(row).get(col);
-
+    public void checkIfShotIsValid(int row, int col, TargetPool targets) throws InvalidShotException {
         // If the cell has already been shot at, throw an exception
-        if (playerBoardShotValue == 2 || playerBoardShotValue == 3 || playerBoardShotValue == -1) {
+        if (!targets.contains(row, col)) {
             throw new InvalidShotException("Disparo en una celda ya atacada o fuera de límites.");
         }
     }
 
-    /**
-     * Handles the shot at the specified row and column. It marks the cell as shot and checks if a boat is hit.
-     *
-     * @param row the row of the shot.
-     * @param col the column of the shot.
-     * @param playerBoard the player's board containing the game matrix.
-     * @return true if a boat is hit, false otherwise.
-     * @since 1.0
-     */
-    public boolean handleShot(int row, int col, PlayerBoard playerBoard) {
-        List<List<Integer>> matrix = playerBoard.getMatrixPlayer();
-        boolean isABoatThere = (matrix.get(row).get(col) == 1);
-        matrix.get(row).set(col, 2); // Marca la celda como disparada
-        return isABoatThere;
-    }
-
     /**
      * Updates the graphical representation of a cell after a shot has been made.
      * If the shot hit a boat, it displays a bomb graphic; otherwise, it shows water.
@@ -223,84 +285,89 @@ public class Game implements IGame{
     public void updateCellGraphic(int row, int col, boolean hit) {
         Button btn = matrix[row][col];
         btn.setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
-        Group graphic = hit ? bombTouch.getBombTouch() : waterShot.getWaterShot();
+        Group graphic = hit ? BOMB_TOUCH.getBombTouch() : WATER_SHOT.getWaterShot();
         btn.setGraphic(graphic);
     }
 
     /**
-     * Checks if any boats are destroyed after a hit and marks them as destroyed if necessary.
+     * Updates the graphical representation of a sunk boat.
+     * The board itself already marks the cells as sunk (3) when the last segment is hit.
      *
-     * @param boats the list of boats in the game.
-     * @param playerBoard the player's board containing the game matrix.
+     * @param row the starting row of the boat.
+     * @param col the starting column of the boat.
+     * @param length the length of the boat.
+     * @param isHorizontal true if the boat is horizontal, false if vertical.
      * @since 1.0
+     * @see ShipSunk
      */
-    public void checkAndMarkDestroyedBoats(List<Boat> boats, PlayerBoard playerBoard) {
-        List<List<Integer>> matrix = playerBoard.getMatrixPlayer();
-
-        for (Boat boat : boats) {
-            int[] position = boat.getPosition();
-            if (position[0] == -1 || position[1] == -1) continue; // Ignorar barcos no colocados
-
-            boolean isDestroyed = isBoatDestroyed(boat, matrix);
-
-            if (isDestroyed) {
-                markDestroyedBoat(boat, matrix);
-                System.out.println("¡Barco destruido: " + boat.getName() + "!");
+    public void markDestroyedBoat(int row, int col, int length, boolean isHorizontal) {
+        for (int i = 0; i < length; i++) {
+            if (isHorizontal) {
+                matrix[row][col + i].setGraphic(SHIP_SUNK.getShipSunk());
+            } else {
+                matrix[row + i][col].setGraphic(SHIP_SUNK.getShipSunk());
             }
         }
     }
 
     /**
-     * Checks if a specific boat is destroyed by verifying that all its cells are marked as hit.
+     * Updates the player's board when the machine fires at it.
      *
-     * @param boat the boat to check.
-     * @param matrix the player's game matrix.
-     * @return true if the boat is destroyed, false otherwise.
+     * @param shooter the side that fired.
+     * @param row the row of the shot.
+     * @param col the column of the shot.
+     * @param outcome the outcome of the shot.
      * @since 1.0
      */
-    public boolean isBoatDestroyed(Boat boat, List<List<Integer>> matrix) {
-        int row = boat.getPosition()[0];
-        int col = boat.getPosition()[1];
-
-        for (int i = 0; i < boat.getLength(); i++) {
-            int cellValue = boat.isHorizontal()
-                    ? matrix.get(row).get(col + i)
-                    : matrix.get(row + i).get(col);
-
-            if (cellValue != 2) return false;
+    @Override
+    public void shotFired(Side shooter, int row, int col, ShotOutcome outcome) {
+        if (shooter == Side.MACHINE) {
+            updateCellGraphic(row, col, outcome != ShotOutcome.MISS);
         }
-
-        return true;
     }
 
     /**
-     * Marks the boat as destroyed on the board and updates the graphical representation.
-     * The boat is visually marked as sunk and its cells are updated in the player's matrix.
+     * Marks a boat of the player's board as destroyed when the machine sinks it.
      *
-     * @param boat the boat to mark as destroyed.
-     * @param matrixPlayer the player's game matrix.
+     * @param owner the side that owned the sunk boat.
+     * @param row the starting row of the boat.
+     * @param col the starting column of the boat.
+     * @param length the length of the boat.
+     * @param isHorizontal true if the boat is horizontal, false if vertical.
      * @since 1.0
-     * @see ShipSunk
      */
-    public void markDestroyedBoat(Boat boat, List<List<Integer>> matrixPlayer) {
-        int row = boat.getPosition()[0];
-        int col = boat.getPosition()[1];
+    @Override
+    public void shipSunk(Side owner, int row, int col, int length, boolean isHorizontal) {
+        if (owner == Side.PLAYER) {
+            markDestroyedBoat(row, col, length, isHorizontal);
+            System.out.println("¡Barco destruido en: (" + row + "," + col + ")!");
+        }
+    }
 
-        for (int i = 0; i < boat.getLength(); i++) {
-            if (boat.isHorizontal()) {
-                if (matrixPlayer.get(row).get(col + i) == 2) { // Verificar si la celda ya fue disparada
-                    matrixPlayer.get(row).set(col + i, 3); // Cambiar a estado de barco hundido
-                    matrix[row][col + i].setGraphic(shipSunk.getShipSunk());
-                }
-            } else {
-                if (matrixPlayer.get(row + i).get(col) == 2) {
-                    matrixPlayer.get(row + i).set(col, 3);
-                    matrix[row + i][col].setGraphic(shipSunk.getShipSunk());
-                }
-            }
+    /**
+     * Starts choosing the machine's next shot when the turn passes to the player.
+     *
+     * @param next the side that has the turn now.
+     * @since 1.0
+     */
+    @Override
+    public void turnChanged(Side next) {
+        if (next == Side.PLAYER) {
+            speculate();
         }
     }
 
+    /**
+     * Cancels any pending decision when the game ends. The statistics of the machine's decisions
+     * remain available through {@link #getPlanner()}.
+     *
+     * @param winner the side that won the game.
+     * @since 1.0
+     */
+    @Override
+    public void gameOver(Side winner) {
+        planner.cancelSpeculation();
+    }
 
     /**
      * Sets the matrix value for the specified cell in the game matrix.
@@ -335,8 +402,8 @@ public class Game implements IGame{
      */
     public void imprimirMatrizJugador(){
         System.out.println("MATRIZ DE JUGADOR EN EL GAME");
-        for(int i = 0; i < 10; i++){
-            for(int j = 0; j < 10; j++){
+        for(int i = 0; i < matrixPlayer.length; i++){
+            for(int j = 0; j < matrixPlayer[i].length; j++){
                 System.out.print(matrixPlayer[i][j]+"\t");
             }
             System.out.println();
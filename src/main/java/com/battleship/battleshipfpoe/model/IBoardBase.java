@@ -1,8 +1,9 @@
 package com.battleship.battleshipfpoe.model;
 
+import com.battleship.battleshipfpoe.engine.BitBoard;
 import javafx.scene.layout.AnchorPane;
 
-import java.util.ArrayList;
+import java.util.List;
 
 public interface IBoardBase {
     int getCell(int row, int col);
@@ -15,5 +16,6 @@ public interface IBoardBase {
     int getGridSize();
     int getTilesDown();
     AnchorPane getAnchorPane();
-    ArrayList<ArrayList<Integer>> getBoard();
+    List<List<Integer>> getBoard();
+    BitBoard getBitBoard();
 }
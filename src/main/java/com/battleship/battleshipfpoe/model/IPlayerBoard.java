@@ -1,5 +1,7 @@
 package com.battleship.battleshipfpoe.model;
 
+import com.battleship.battleshipfpoe.engine.BitBoard;
+
 import java.util.List;
 
 public interface IPlayerBoard {
@@ -7,4 +9,5 @@ public interface IPlayerBoard {
     List<List<Integer>> getMatrixPlayer();
     void printMatrix();
     void placeShip(int row, int col, int length, boolean isHorizontal);
+    BitBoard getBitBoard();
 }
@@ -1,13 +1,15 @@
 package com.battleship.battleshipfpoe.model;
 
-import com.battleship.battleshipfpoe.view.AircraftCarrier;
-import com.battleship.battleshipfpoe.view.Destroyer;
-import com.battleship.battleshipfpoe.view.Frigate;
-import com.battleship.battleshipfpoe.view.Submarine;
-import javafx.scene.Group;
+import com.battleship.battleshipfpoe.engine.BitBoard;
+import com.battleship.battleshipfpoe.engine.FleetPlacer;
+import com.battleship.battleshipfpoe.engine.GameSpec;
+import com.battleship.battleshipfpoe.engine.LayoutOptimizer;
+import com.battleship.battleshipfpoe.engine.ShipIndex;
+import com.battleship.battleshipfpoe.engine.ShipPlacement;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -25,211 +27,169 @@ import java.util.Random;
  * @since 1.0
  */
 public class MachineBoard implements Serializable {
-    private List<List<Integer>> matrixMachine;
+    private final GameSpec spec;
+    private BitBoard matrixMachine;
     private Random rand;
-    private List<String[]> shipsInfo; // Lista para almacenar información de los barcos
-    private List<Boat> boats; // Lista para almacenar objetos Boat
+    private List<ShipPlacement> placements; // Ubicación de cada barco, en el orden de la flota
 
     /**
-     * Constructor for the {@link MachineBoard} class.
+     * Constructor for the {@link MachineBoard} class using the standard board and fleet.
      * Initializes the game board for the machine, including the board matrix,
-     * a random number generator, and lists to store ship information and boats.
-     * This constructor also generates the initial board, places the ships,
-     * and prints the details of the placed ships.
+     * a random number generator, and the list to store ship placements.
+     * This constructor also generates the initial board and places the ships.
      *
      * @since 1.0
      * @see #generateBoardMachine()
      * @see #placeShips()
-     * @see #printShipsInfo()
      */
     public MachineBoard() {
-        matrixMachine = new ArrayList<>();
-        rand = new Random();
-        shipsInfo = new ArrayList<>();
-        boats = new ArrayList<>();
-        generateBoardMachine();
-        placeShips();
-        printShipsInfo();
+        this(GameSpec.STANDARD);
     }
 
     /**
-     * Generates an empty 10x10 matrix to represent the machine's game board.
-     * Each cell in the matrix is initialized to 0, which represents water.
-     * This method ensures that the machine's board is ready for ship placement.
+     * Constructor for the {@link MachineBoard} class with custom board dimensions and fleet.
+     * The board and its data structures are sized from the spec.
      *
+     * @param spec the board dimensions and fleet of the game.
      * @since 1.0
-     * @see #placeShips()
+     * @see #MachineBoard()
      */
-    public void generateBoardMachine() {
-        for (int i = 0; i < 10; i++) {
-            List<Integer> row = new ArrayList<>();
-            for (int j = 0; j < 10; j++) {
-                row.add(0);
-            }
-            matrixMachine.add(row);
-        }
+    public MachineBoard(GameSpec spec) {
+        this(spec, (LayoutOptimizer) null);
     }
 
-    // Check if a box is empty
     /**
-     * Checks if a position is valid for placing a ship on the board.
-     * It verifies whether the ship fits within the bounds of the board and if the cells are empty.
+     * Constructor for the {@link MachineBoard} class that hides the fleet in a layout that is hard to find.
      *
-     * @param x the starting x-coordinate (row index).
-     * @param y the starting y-coordinate (column index).
-     * @param size the size of the ship to place.
-     * @param isHorizontal true if the ship is to be placed horizontally, false for vertical.
-     * @return true if the position is valid, false otherwise.
+     * @param spec the board dimensions and fleet of the game.
+     * @param optimizer the optimizer that searches the layout, or null to place the fleet at random.
+     * @throws IllegalArgumentException if the optimizer searches layouts of another spec.
      * @since 1.0
+     * @see #placeShips(LayoutOptimizer)
      */
-    private boolean isValidPosition(int x, int y, int size, boolean isHorizontal) {
-        // Check if the position is within the bounds of the matrix
-        if (isHorizontal) {
-            if (y + size > 10) return false; // Exceeds the right border
-            for (int j = y; j < y + size; j++) {
-                if (matrixMachine.get(x).get(j) == 1) return false; // Cell occupied
-            }
+    public MachineBoard(GameSpec spec, LayoutOptimizer optimizer) {
+        this.spec = spec;
+        rand = new Random();
+        placements = new ArrayList<>();
+        generateBoardMachine();
+        if (optimizer == null) {
+            placeShips();
         } else {
-            if (x + size > 10) return false; // Exceeds the bottom border
-            for (int i = x; i < x + size; i++) {
-                if (matrixMachine.get(i).get(y) == 1) return false; // Cell occupied
-            }
+            placeShips(optimizer);
         }
-        return true;
     }
 
-    // A ship is positioned, depending on the size of the argument and its name
     /**
-     * Places a ship on the board at a random valid position.
-     * The ship is placed horizontally or vertically, depending on the random choice.
+     * Constructor for the {@link MachineBoard} class that rebuilds a board from saved ship placements.
      *
-     * @param size the size of the ship (number of cells).
-     * @param shipName the name of the ship.
-     * @param boatStyle the graphical representation of the boat.
+     * @param spec the board dimensions and fleet of the game.
+     * @param placements the placement of every ship, in fleet order.
+     * @throws IllegalArgumentException if a placement leaves the board or overlaps another ship.
      * @since 1.0
+     * @see #getShipPlacements()
      */
-    private void placeShip(int size, String shipName, Group boatStyle) {
-        boolean placed = false;
-        while (!placed) {
-            // Select a random position (x, y) and direction (horizontal or vertical)
-            int x = rand.nextInt(10);
-            int y = rand.nextInt(10);
-            boolean isHorizontal = rand.nextBoolean();
-
-            // Check if the ship can be placed at the selected position
-            if (isValidPosition(x, y, size, isHorizontal)) {
-                Boat boat = new Boat(shipName, x, y, size, isHorizontal, boatStyle);
-
-                boat.setPosition(x,y);
-
-                // Place the ship (mark the cells with 1)
-                if (isHorizontal) {
-                    for (int j = y; j < y + size; j++) {
-                        matrixMachine.get(x).set(j, 1);
-                    }
-                } else {
-                    for (int i = x; i < x + size; i++) {
-                        matrixMachine.get(i).set(y, 1);
-                    }
-                }
-
-                // Register ship information (initial and final positions)
-                String[] shipInfo = new String[3];
-
-                shipInfo[0] = shipName; // Ship name
-                shipInfo[1] = "(" + x + "," + y + ")"; // Initial position
-
-                // Determine final position based on orientation
-                if (isHorizontal) {
-                    shipInfo[2] = "(" + x + "," + (y + size - 1) + ")"; //Increment only the column
-                } else {
-                    shipInfo[2] = "(" + (x + size - 1) + "," + y + ")"; //Increment only the row
-
-                }
-                    shipsInfo.add(shipInfo); // Add information to the list
-
-                // Add the Boat object to the boat list
-                boats.add(boat);
-                placed = true; // Mark that the ship has been placed
+    public MachineBoard(GameSpec spec, List<ShipPlacement> placements) {
+        this.spec = spec;
+        rand = new Random();
+        this.placements = new ArrayList<>(placements);
+        generateBoardMachine();
+        for (ShipPlacement placement : placements) {
+            if (!matrixMachine.canPlace(placement.getRow(), placement.getCol(),
+                    placement.getLength(), placement.isHorizontal())) {
+                throw new IllegalArgumentException("Ubicación inválida: " + placement);
             }
+            matrixMachine.place(placement);
         }
     }
 
     /**
-     * Creates the graphical style for the ship based on its name.
-     * Currently, this method returns a placeholder group. The style of the boat can be customized based on the ship type.
+     * Generates an empty bit board with the dimensions of the spec to represent the machine's game board.
+     * Each cell is initialized to 0, which represents water.
+     * This method ensures that the machine's board is ready for ship placement.
      *
-     * @param shipName the name of the ship.
-     * @return a {@link Group} representing the graphical style of the ship.
      * @since 1.0
+     * @see #placeShips()
      */
-    private Group createBoatStyle(String shipName) {
-        // Here you can create the visual style of the ship based on the name.
-        // For example, depending on the type of ship (Aircraft Carrier, Submarine, etc.), you can
-        // return a different style. This is assumed to be a basic implementation.
-        return new Group(); // Placeholder, define how to create the style
+    public void generateBoardMachine() {
+        matrixMachine = new BitBoard(spec);
     }
 
     /**
      * Places all ships on the machine's board.
-     * This method places ships with varying sizes and names at random valid positions on the board.
+     * This method places the fleet of the spec at random valid positions on the board
+     * and records the placement of every ship.
      *
      * @since 1.0
-     * @see #placeShip(int, String, Group)
+     * @see FleetPlacer#placeRandomFleet
      */
     public void placeShips() {
-        placeShip(4, "Portaviones", new AircraftCarrier().getAircraftCarrier()); // Places the first aircraft carrier (4 cells)
-        placeShip( 3, "Submarino", new Submarine().getSubmarine()); // Places the first submarine (3 cells)
-        placeShip(3, "Submarino", new Submarine().getSubmarine()); // Places the second submarine (3 cells)
-        placeShip(2, "Destructor", new Destroyer().getDestroyer()); // Places the first destroyer (2 cells)
-        placeShip(2, "Destructor", new Destroyer().getDestroyer());  // Places the second destroyer (2 cells)
-        placeShip(2, "Destructor", new Destroyer().getDestroyer()); // Places the third destroyer (2 cells)
-        placeShip(1, "Fragata", new Frigate().getFrigate()); // Places the first frigate (1 cell)
-        placeShip(1, "Fragata", new Frigate().getFrigate()); // Places the second frigate (1 cell)
-        placeShip(1, "Fragata", new Frigate().getFrigate()); // Places the third frigate (1 cell)
-        placeShip(1, "Fragata", new Frigate().getFrigate()); // Places the fourth frigate (1 cell)
+        FleetPlacer.placeRandomFleet(matrixMachine, spec, rand);
+        recordPlacements();
     }
 
-    // Method to print the information of the placed ships
     /**
-     * Prints information about the ships placed on the board.
-     * This method prints the name of the ship and its initial and final positions.
+     * Places all ships on the machine's board in the layout prepared by an optimizer, which
+     * starts preparing the layout of the next game.
      *
+     * @param optimizer the optimizer of the board's spec.
+     * @throws IllegalArgumentException if the optimizer searches layouts of another spec.
      * @since 1.0
+     * @see LayoutOptimizer#placeNext
      */
-    public void printShipsInfo() {
-        // SERIALIZE ARRAY POSITIONS WITH SHIP POSITIONS
-        for (String[] ship : shipsInfo) {
-            System.out.println("Barco: " + ship[0] + ", Inicio: " + ship[1] + ", Fin: " + ship[2]); // Imprimir información del barco
+    public void placeShips(LayoutOptimizer optimizer) {
+        if (!optimizer.getSpec().equals(spec)) {
+            throw new IllegalArgumentException("El optimizador no corresponde a " + spec);
+        }
+        optimizer.placeNext(matrixMachine);
+        recordPlacements();
+    }
+
+    private void recordPlacements() {
+        ShipIndex ships = matrixMachine.getShips();
+        for (int id = 0; id < ships.getShipCount(); id++) {
+            placements.add(ShipPlacement.of(ships, id));
         }
     }
 
     /**
      * Gets the machine's board matrix.
      *
-     * @return a {@link List} representing the 10x10 matrix of the machine's board.
+     * @return a live {@link List} view of the machine's board, using the integer cell codes.
      * @since 1.0
+     * @see BitBoard#asMatrix()
      */
     public List<List<Integer>> getMatrix() {
+        return matrixMachine.asMatrix();
+    }
+
+    /**
+     * Gets the bit-parallel board backing the machine's board.
+     *
+     * @return the {@link BitBoard} holding the machine's board state.
+     * @since 1.0
+     */
+    public BitBoard getBitBoard() {
         return matrixMachine;
     }
     /**
-     * Gets the list of ship information on the machine's board.
+     * Gets the board dimensions and fleet of the machine's board.
      *
-     * @return a {@link List} of ship information, where each entry contains the ship's name and its positions.
+     * @return the {@link GameSpec} the board was built from.
      * @since 1.0
      */
-    public List<String[]> getShipsInfo() {
-        return shipsInfo; // Retorna la lista con la información de los barcos
+    public GameSpec getSpec() {
+        return spec;
     }
 
     /**
-     * Gets the list of boats on the machine's board.
+     * Gets the placement of every ship on the machine's board.
+     * The same records are used to reveal the fleet and to save and rebuild the board.
      *
-     * @return a {@link List} of {@link Boat} objects representing the boats on the machine's board.
+     * @return an unmodifiable {@link List} of ship placements, in fleet order.
      * @since 1.0
+     * @see #MachineBoard(GameSpec, List)
      */
-    public List<Boat> getBoats() {
-        return boats;
+    public List<ShipPlacement> getShipPlacements() {
+        return Collections.unmodifiableList(placements);
     }
 }
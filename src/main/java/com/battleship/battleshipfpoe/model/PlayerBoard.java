@@ -1,8 +1,9 @@
 package com.battleship.battleshipfpoe.model;
 
-import java.util.ArrayList;
+import com.battleship.battleshipfpoe.engine.BitBoard;
+import com.battleship.battleshipfpoe.engine.GameSpec;
+
 import java.util.List;
-import java.util.Random;
 
 /**
  * Represents the player's board in the Battleship game.
@@ -18,57 +19,72 @@ import java.util.Random;
  * @version 1.0
  * @since 1.0
  */
-public class PlayerBoard {
-    private List<List<Integer>> matrixPlayer;
+public class PlayerBoard implements IPlayerBoard {
+    private final GameSpec spec;
+    private BitBoard matrixPlayer;
     private List<Integer> shipsTouched;
     private List<Integer> sunkenShips;
     private List<Integer> waterShots;
-    private Game game;
 
     /**
-     * Constructs a new {@link PlayerBoard} instance and initializes the board.
-     * The board is represented as a 10x10 matrix, with all cells initially set to 0 (water).
+     * Constructs a new {@link PlayerBoard} instance for the standard game and initializes the board.
+     * The board is represented as a 10x10 bit board, with all cells initially set to 0 (water).
      *
      * @since 1.0
      * @see #generateBoardPlayer()
      */
     public PlayerBoard() {
-        matrixPlayer = new ArrayList<>();
-        game = new Game();
+        this(GameSpec.STANDARD);
+    }
+
+    /**
+     * Constructs a new {@link PlayerBoard} instance sized from the given spec and initializes the board.
+     *
+     * @param spec the board dimensions and fleet of the game.
+     * @since 1.0
+     * @see #generateBoardPlayer()
+     */
+    public PlayerBoard(GameSpec spec) {
+        this.spec = spec;
         generateBoardPlayer();
     }
 
     /**
-     * Generates a 10x10 board matrix for the player.
+     * Generates the player's board with the dimensions of the spec.
      * All cells are initialized to 0, representing water.
      *
-     * @see #generateBoardPlayer()
+     * @see BitBoard
      * @since 1.0
      */
     public void generateBoardPlayer() {
-        for (int i = 0; i < 10; i++) {
-            List<Integer> row = new ArrayList<>();
-            for (int j = 0; j < 10; j++) {
-                row.add(0);
-            }
-            matrixPlayer.add(row);
-        }
+        matrixPlayer = new BitBoard(spec);
     }
 
     /**
      * Retrieves the player's board matrix.
      *
-     * @return the player's board matrix as a list of lists.
+     * @return a live list view of the player's board, using the integer cell codes.
      * @since 1.0
+     * @see BitBoard#asMatrix()
      */
     public List<List<Integer>> getMatrixPlayer() {
+        return matrixPlayer.asMatrix();
+    }
+
+    /**
+     * Retrieves the bit-parallel board backing the player's board.
+     *
+     * @return the {@link BitBoard} holding the player's board state.
+     * @since 1.0
+     */
+    public BitBoard getBitBoard() {
         return matrixPlayer;
     }
 
     public void printMatrix(){
-        for (int i = 0; i < matrixPlayer.size(); i++) {
-            for (int j = 0; j < matrixPlayer.get(1).size(); j++) {
-                System.out.print(matrixPlayer.get(i).get(j) + " ");
+        for (int i = 0; i < matrixPlayer.getRows(); i++) {
+            for (int j = 0; j < matrixPlayer.getCols(); j++) {
+                System.out.print(matrixPlayer.getCell(i, j) + " ");
             }
             System.out.println();
         }
@@ -86,13 +102,6 @@ public class PlayerBoard {
      */
     public void placeShip(int row, int col, int length, boolean isHorizontal) {
         System.out.println("Length: " + length);
-        for (int i = 0; i < length; i++) {
-            if (isHorizontal) {
-                matrixPlayer.get(row).set(col + i, 1); // Replace the value instead of shifting it
-
-            } else {
-                matrixPlayer.get(row + i).set(col, 1); // Replace the value instead of shifting it
-            }
-        }
+        matrixPlayer.place(row, col, length, isHorizontal);
     }
 }
@@ -0,0 +1,87 @@
+package com.battleship.battleshipfpoe.model;
+
+import com.battleship.battleshipfpoe.engine.GameEngine;
+import com.battleship.battleshipfpoe.engine.GameSpec;
+import com.battleship.battleshipfpoe.engine.ShipType;
+import javafx.scene.Group;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.ref.Reference;
+
+/**
+ * Reports the memory retained by a game session, i.e. the model objects that a
+ * {@code GameController} keeps alive while a game is played: both boards, the player's
+ * {@link Boat}s, the {@link Game} that updates the graphics and the {@link GameEngine}.
+ * The report builds many sessions, keeps them reachable and divides the growth of the used heap
+ * by their number, so it should be run on an otherwise idle JVM.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+public final class SessionFootprint {
+    private SessionFootprint() {
+    }
+
+    /**
+     * Measures the average number of bytes retained by a game session.
+     *
+     * @param spec the board dimensions and fleet of the sessions.
+     * @param sessions the number of sessions to build.
+     * @return the retained bytes per session.
+     * @since 1.0
+     */
+    public static long retainedBytesPerSession(GameSpec spec, int sessions) {
+        Object[][] retained = new Object[sessions][];
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // The boards log their ships
+        try {
+            long before = usedHeap();
+            for (int i = 0; i < sessions; i++) {
+                PlayerBoard playerBoard = new PlayerBoard(spec);
+                MachineBoard machineBoard = new MachineBoard(spec);
+                Game game = new Game(spec);
+                GameEngine engine = new GameEngine(playerBoard.getBitBoard(), machineBoard.getBitBoard());
+                engine.addListener(game);
+                Boat[] boats = new Boat[spec.getShipCount()];
+                for (int ship = 0; ship < boats.length; ship++) {
+                    int length = spec.getShipLength(ship);
+                    boats[ship] = new Boat(ShipType.forLength(length).getDisplayName(), 0, 0, length, true, new Group());
+                }
+                retained[i] = new Object[]{playerBoard, machineBoard, boats, game, engine};
+            }
+            long after = usedHeap();
+            Reference.reachabilityFence(retained);
+            return (after - before) / sessions;
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    /**
+     * Prints the retained bytes per session of the standard game.
+     *
+     * @param args the number of sessions to build, 10000 by default.
+     * @since 1.0
+     */
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        retainedBytesPerSession(GameSpec.STANDARD, sessions / 10); // Warm up
+        long bytes = retainedBytesPerSession(GameSpec.STANDARD, sessions);
+        System.out.println("Bytes retenidos por sesión: " + bytes + " (" + sessions + " sesiones)");
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
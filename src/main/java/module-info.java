@@ -2,9 +2,13 @@ module com.battleship.battleshipfpoe {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.desktop;
+    requires java.management;
+    requires jdk.management;
+    requires static jdk.incubator.vector;
 
 
     opens com.battleship.battleshipfpoe to javafx.fxml;
     opens com.battleship.battleshipfpoe.controller to javafx.fxml;
     exports com.battleship.battleshipfpoe;
+    exports com.battleship.battleshipfpoe.engine;
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.battleship.battleshipfpoe.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the {@link MonteCarloStrategy} on boards much larger than the standard one.
+ *
+ * @author Maycol Andres Taquez Carlosama
+ * @code 2375000
+ * @author Santiago Valencia Aguiño
+ * @code 2343334
+ * @author Joel Andres Ochoa Sará
+ * @code 2341100
+ * @version 1.0
+ * @since 1.0
+ */
+class MonteCarloStrategyTest {
+    private static final GameSpec LARGE = new GameSpec(100, 100, 4, 3, 3, 2, 2, 2, 1, 1, 1, 1);
+
+    @Test
+    void firesNextToAnOpenHitWithinTheBudget() {
+        BitBoard board = new BitBoard(LARGE);
+        for (int ship = 0; ship < LARGE.getShipCount(); ship++) {
+            board.place(10 + 8 * ship, 20 + 5 * ship, LARGE.getShipLength(ship), true);
+        }
+        TargetPool pool = new TargetPool(board);
+        OpponentView view = new OpponentView(board, pool);
+        board.shoot(10, 21); // The aircraft carrier, away from its ends
+        pool.remove(10, 21);
+
+        MonteCarloStrategy strategy = new MonteCarloStrategy(LARGE, 1);
+        strategy.chooseTarget(view, System.nanoTime() + ShotPlanner.DEFAULT_BUDGET_NANOS); // Warms up the JIT
+        long start = System.nanoTime();
+        int cell = strategy.chooseTarget(view, start + ShotPlanner.DEFAULT_BUDGET_NANOS);
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(elapsed <= ShotPlanner.DEFAULT_BUDGET_NANOS, "La decisión tardó " + elapsed + " ns");
+        assertTrue(strategy.getLastSamples() > 0, "No se muestreó ninguna ubicación");
+        assertEquals(1, Math.abs(view.rowOf(cell) - 10) + Math.abs(view.colOf(cell) - 21),
+                "La celda elegida no está junto al impacto");
+    }
+}